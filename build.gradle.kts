@@ -9,6 +9,7 @@ plugins {
     id("maven-publish")
     id("code-quality")
     id("com.github.spotbugs") version "6.4.8"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.mbi"
@@ -25,6 +26,9 @@ dependencies {
     implementation("org.yaml:snakeyaml:2.5")
     implementation("ch.qos.logback:logback-classic:1.5.25")
     implementation("com.google.code.gson:gson:2.13.2")
+
+    // Optional: only needed by projects that use TestMethodExtension
+    compileOnly("org.junit.jupiter:junit-jupiter-api:5.13.4")
 }
 
 tasks.test {
@@ -49,6 +53,15 @@ tasks.jacocoTestReport {
     }
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    // Run a subset with e.g. -PjmhIncludes=DiagnosticsBenchmark
+    (findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+    // One JSON file per version, so results of releases can be compared
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results-${project.version}.json"))
+}
+
 java {
     withJavadocJar()
     withSourcesJar()
@@ -75,6 +88,9 @@ tasks {
     named("checkstyleTest") { enabled = false }
     named("pmdTest") { enabled = false }
     named("spotbugsTest") { enabled = false }
+    named("checkstyleJmh") { enabled = false }
+    named("pmdJmh") { enabled = false }
+    named("spotbugsJmh") { enabled = false }
 }
 
 tasks.check {
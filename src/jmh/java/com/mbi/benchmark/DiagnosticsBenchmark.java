@@ -0,0 +1,90 @@
+package com.mbi.benchmark;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.config.RequestDirector;
+import com.mbi.request.RequestBuilder;
+import com.mbi.utils.CurlGenerator;
+import com.mbi.utils.MessageComposer;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request construction and the diagnostics built for every request or failure:
+ * config assembly, curl, assertion message and the JSON log record.
+ * <p>
+ * Uses thread scope because the builder keeps its state per thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiagnosticsBenchmark {
+
+    @Param({"small", "large"})
+    public String body;
+
+    private RequestBuilder builder;
+    private RequestConfig config;
+    private Response response;
+    private AssertionError error;
+
+    @Setup
+    public void setUp() {
+        builder = new RequestBuilder();
+        builder.setUrl("http://localhost:8080/users");
+        builder.setData(Payloads.json(body));
+        builder.setHeader("X-Request-Id", "benchmark");
+        builder.setToken("Bearer token");
+        builder.setExpectedStatusCode(200);
+
+        config = constructRequest();
+        response = new ResponseBuilder()
+                .setStatusCode(500)
+                .setContentType("application/json")
+                .setBody(Payloads.json(body))
+                .build();
+        error = new AssertionError("expected [200] but found [500]");
+    }
+
+    @Benchmark
+    public RequestConfig constructRequest() {
+        final var director = new RequestDirector(builder);
+        director.constructRequest();
+
+        // The method is set by the builder only when the request is sent
+        final RequestConfig requestConfig = director.getRequestConfig();
+        requestConfig.setMethod(Method.POST);
+        return requestConfig;
+    }
+
+    @Benchmark
+    public String curl() {
+        return new CurlGenerator(config).getCurl();
+    }
+
+    @Benchmark
+    public String composeMessage() {
+        return new MessageComposer(error, config, response).composeMessage();
+    }
+
+    @Benchmark
+    public String configToString() {
+        return config.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.mbi.benchmark;
+
+/**
+ * JSON bodies used by the benchmarks.
+ */
+final class Payloads {
+
+    private static final int LARGE_ITEMS = 2_000;
+
+    private Payloads() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Returns a JSON document of the given size.
+     *
+     * @param size "small" (one object, ~60 bytes) or "large" (array of objects, ~200 KB).
+     * @return JSON string.
+     */
+    static String json(final String size) {
+        return "large".equals(size) ? large() : item(1);
+    }
+
+    private static String large() {
+        final var json = new StringBuilder(LARGE_ITEMS * 100).append("{\"items\":[");
+        for (int i = 0; i < LARGE_ITEMS; i++) {
+            json.append(i == 0 ? "" : ",").append(item(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String item(final int id) {
+        return "{\"id\":" + id + ",\"name\":\"User " + id + "\",\"email\":\"user" + id + "@example.com\","
+                + "\"tags\":[\"a\",\"b\",\"c\"],\"active\":true}";
+    }
+}
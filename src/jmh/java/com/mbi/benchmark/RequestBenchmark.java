@@ -0,0 +1,89 @@
+package com.mbi.benchmark;
+
+import com.mbi.HttpRequest;
+import com.mbi.request.RequestBuilder;
+import com.mbi.request.RequestTemplate;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end GET request against an in-process HTTP server, including validation and logging.
+ * <p>
+ * {@code template} sends the same request from a precompiled {@link RequestTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBenchmark {
+
+    @Param({"small", "large"})
+    public String body;
+
+    private final HttpRequest http = new RequestBuilder();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private RequestTemplate usersTemplate;
+    private String url;
+
+    @Setup
+    public void startServer() throws IOException {
+        final byte[] response = Payloads.json(body).getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/users", exchange -> respond(exchange, response));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        url = "http://localhost:" + server.getAddress().getPort() + "/users";
+        usersTemplate = http.setExpectedStatusCode(200).template();
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Response get() {
+        return http.setExpectedStatusCode(200).get(url);
+    }
+
+    @Benchmark
+    public Response template() {
+        return usersTemplate.get(url);
+    }
+
+    private static void respond(final HttpExchange exchange, final byte[] response) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mbi.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the calling test method: stack walk at various stack depths versus a published test method.
+ * <p>
+ * Lives in the utils package to publish the test method like the test framework listeners do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallerResolverBenchmark {
+
+    /**
+     * Extra frames between the benchmark method and the resolver, like Rest-Assured/Groovy layers.
+     */
+    @Param({"10", "50", "200"})
+    public int depth;
+
+    @Benchmark
+    public String stackWalk() {
+        return descend(depth);
+    }
+
+    @Benchmark
+    public String publishedTestMethod() {
+        CallerResolver.enterTest("tests.BenchmarkTest.testMethod");
+        try {
+            return descend(depth);
+        } finally {
+            CallerResolver.exitTest();
+        }
+    }
+
+    private static String descend(final int frames) {
+        return frames == 0 ? CallerResolver.getTestEntryPoint() : descend(frames - 1);
+    }
+}
@@ -1,10 +1,17 @@
 package com.mbi;
 
+import com.mbi.cache.ResponseCache;
+import com.mbi.request.Download;
+import com.mbi.request.RequestBuilder;
+import com.mbi.request.RequestTemplate;
+import com.mbi.request.RetryPolicy;
 import io.restassured.http.Header;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Fluent HTTP request interface for testing APIs.
@@ -15,10 +22,26 @@ import java.util.List;
  * After each request, the builder is reset automatically.
  * If the response status or content is invalid, a detailed error message is thrown,
  * including the request curl and response body.
+ * <p>
+ * Every method also has an asynchronous variant (e.g. {@link #getAsync(String, Object...)}).
+ * The request is built on the calling thread and sent on the executor from
+ * {@link com.mbi.request.RequestExecutors}; validation failures complete the future exceptionally.
  */
 @SuppressWarnings("PMD.LinguisticNaming")
 public interface HttpRequest {
 
+    /**
+     * Creates a fresh builder whose state is confined to the caller instead of a ThreadLocal.
+     * <p>
+     * Use one builder per thread (or hand it over together with the request being built), e.g. on virtual threads.
+     * The builder is reset after each request and can be reused.
+     *
+     * @return new thread-confined HttpRequest instance.
+     */
+    static HttpRequest newRequest() {
+        return RequestBuilder.confined();
+    }
+
     /**
      * Adds a single header to the request.
      *
@@ -38,6 +61,9 @@ public interface HttpRequest {
 
     /**
      * Sets request body (object will be serialized using Rest-Assured's default mechanism).
+     * <p>
+     * {@code byte[]}, {@code ByteBuffer}, {@code Path}, {@code File} and {@code InputStream} bodies are sent
+     * as raw bytes without being loaded into a String; a stream can't be re-sent by a retry.
      *
      * @param data body payload.
      * @return current HttpRequest instance.
@@ -92,6 +118,31 @@ public interface HttpRequest {
      */
     HttpRequest setUrl(String url);
 
+    /**
+     * Sets the retry and hedging policy; overrides the retry settings from YAML.
+     *
+     * @param retryPolicy policy, e.g. {@code RetryPolicy.retries(3)}.
+     * @return current HttpRequest instance.
+     */
+    HttpRequest setRetryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * Sets the cache for a GET request; overrides the {@code responseCache} setting from YAML.
+     *
+     * @param responseCache cache, e.g. {@code ResponseCache.shared()}, or {@code ResponseCache.NONE} to bypass it.
+     * @return current HttpRequest instance.
+     */
+    HttpRequest setResponseCache(ResponseCache responseCache);
+
+    /**
+     * Sets the number of parallel ranged requests of {@link #download}; overrides {@code downloadConnections}
+     * from YAML.
+     *
+     * @param connections number of connections; 1 downloads the body with a single request.
+     * @return current HttpRequest instance.
+     */
+    HttpRequest setDownloadConnections(Integer connections);
+
     /**
      * Enables full request/response debug logging.
      *
@@ -99,6 +150,16 @@ public interface HttpRequest {
      */
     HttpRequest debug();
 
+    /**
+     * Freezes headers, token, specification, expected status codes, debug flag and timeouts into a template.
+     * <p>
+     * The template is immutable and thread-safe; only the URL, path parameters and body change per request.
+     * The builder is reset afterwards.
+     *
+     * @return new request template.
+     */
+    RequestTemplate template();
+
     /**
      * Executes a POST request to the specified URL.
      *
@@ -143,4 +204,61 @@ public interface HttpRequest {
      * @return Rest-Assured response object.
      */
     Response delete(String url, Object... pathParams);
+
+    /**
+     * Executes a GET request and streams the response body to a file, computing its SHA-256 and CRC32C
+     * on the way, so the body is never held in memory. The target is replaced only after the whole body
+     * was received with an expected status code. The log shows the size and digests instead of the body.
+     *
+     * @param url        endpoint URL.
+     * @param target     file to write; missing directories are created.
+     * @param pathParams optional path parameters.
+     * @return size and digests of the downloaded file.
+     */
+    Download download(String url, Path target, Object... pathParams);
+
+    /**
+     * Executes a POST request to the specified URL asynchronously.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the Rest-Assured response, or exceptionally if the request or validation fails.
+     */
+    CompletableFuture<Response> postAsync(String url, Object... pathParams);
+
+    /**
+     * Executes a GET request to the specified URL asynchronously.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the Rest-Assured response, or exceptionally if the request or validation fails.
+     */
+    CompletableFuture<Response> getAsync(String url, Object... pathParams);
+
+    /**
+     * Executes a PUT request to the specified URL asynchronously.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the Rest-Assured response, or exceptionally if the request or validation fails.
+     */
+    CompletableFuture<Response> putAsync(String url, Object... pathParams);
+
+    /**
+     * Executes a PATCH request to the specified URL asynchronously.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the Rest-Assured response, or exceptionally if the request or validation fails.
+     */
+    CompletableFuture<Response> patchAsync(String url, Object... pathParams);
+
+    /**
+     * Executes a DELETE request to the specified URL asynchronously.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the Rest-Assured response, or exceptionally if the request or validation fails.
+     */
+    CompletableFuture<Response> deleteAsync(String url, Object... pathParams);
 }
@@ -0,0 +1,199 @@
+package com.mbi.cache;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable copy of a cached response with its validators and freshness.
+ */
+final class CachedResponse {
+
+    /**
+     * Rough per-entry overhead of the objects around the body, in bytes.
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final int statusCode;
+    private final String statusLine;
+    private final Headers headers;
+    private final byte[] body;
+    private final String etag;
+    private final String lastModified;
+    private final long expiresAt;
+    private final long weight;
+
+    private CachedResponse(final int statusCode, final String statusLine, final Headers headers,
+                           final byte[] body, final long expiresAt) {
+        this.statusCode = statusCode;
+        this.statusLine = statusLine;
+        this.headers = headers;
+        this.body = body;
+        this.etag = headers.getValue("ETag");
+        this.lastModified = headers.getValue("Last-Modified");
+        this.expiresAt = expiresAt;
+
+        long size = ENTRY_OVERHEAD + body.length;
+        for (final Header header : headers) {
+            size += 2L * (header.getName().length() + header.getValue().length());
+        }
+        this.weight = size;
+    }
+
+    /**
+     * Copies a response, reading its body.
+     *
+     * @param response response that can be stored, see {@link #isStorable(Response)}.
+     * @param now      current {@link System#nanoTime()}.
+     * @return cached copy.
+     */
+    /* default */
+    static CachedResponse of(final Response response, final long now) {
+        return new CachedResponse(response.statusCode(), response.statusLine(), response.headers(),
+                response.asByteArray(), expiresAt(response.headers(), now));
+    }
+
+    /**
+     * Checks whether a response may be stored: a 200 that is not {@code no-store} and can either be served
+     * for some time ({@code max-age}) or revalidated ({@code ETag} or {@code Last-Modified}).
+     *
+     * @param response response to a GET request.
+     * @return true if the response can be cached.
+     */
+    /* default */
+    static boolean isStorable(final Response response) {
+        final Headers headers = response.headers();
+        final String cacheControl = lowerCase(headers.getValue("Cache-Control"));
+        return response.statusCode() == 200
+                && !cacheControl.contains("no-store")
+                && !"*".equals(headers.getValue("Vary"))
+                && (maxAgeSeconds(cacheControl) > 0
+                || headers.hasHeaderWithName("ETag") || headers.hasHeaderWithName("Last-Modified"));
+    }
+
+    /**
+     * Returns the entry updated from a {@code 304 Not Modified}: its headers replace the stored ones
+     * and its {@code Cache-Control} restarts the freshness lifetime.
+     *
+     * @param notModified 304 response.
+     * @param now         current {@link System#nanoTime()}.
+     * @return refreshed entry sharing the body of this one.
+     */
+    /* default */
+    CachedResponse refresh(final Response notModified, final long now) {
+        final Map<String, Header> merged = new LinkedHashMap<>();
+        for (final Header header : headers) {
+            merged.put(lowerCase(header.getName()), header);
+        }
+        for (final Header header : notModified.headers()) {
+            merged.put(lowerCase(header.getName()), header);
+        }
+
+        final Headers updated = new Headers(merged.values().stream().toList());
+        return new CachedResponse(statusCode, statusLine, updated, body, expiresAt(updated, now));
+    }
+
+    /* default */
+    boolean isFresh(final long now) {
+        return now - expiresAt < 0;
+    }
+
+    /**
+     * Returns the request headers that make a conditional request for this entry.
+     *
+     * @return If-None-Match and/or If-Modified-Since; empty if the entry has no validators.
+     */
+    /* default */
+    Map<String, String> validators() {
+        final Map<String, String> validators = new LinkedHashMap<>();
+        if (etag != null) {
+            validators.put("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            validators.put("If-Modified-Since", lastModified);
+        }
+
+        return validators;
+    }
+
+    /**
+     * Builds a response from the entry; every response gets its own copy of the body.
+     * The content type is taken from the headers, a response without one keeps having none.
+     *
+     * @return response as originally received.
+     */
+    /* default */
+    Response toResponse() {
+        return new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine(statusLine)
+                .setHeaders(headers)
+                .setBody(body.clone())
+                .build();
+    }
+
+    /**
+     * Returns the approximate memory held by the entry.
+     *
+     * @return size in bytes.
+     */
+    /* default */
+    long weight() {
+        return weight;
+    }
+
+    /**
+     * Computes the end of the freshness lifetime: {@code max-age} minus {@code Age};
+     * {@code no-cache} or a missing max-age means the entry must be revalidated every time.
+     */
+    private static long expiresAt(final Headers headers, final long now) {
+        final String cacheControl = lowerCase(headers.getValue("Cache-Control"));
+        long seconds = cacheControl.contains("no-cache") ? 0 : maxAgeSeconds(cacheControl);
+        final String age = headers.getValue("Age");
+        if (seconds > 0 && age != null) {
+            seconds -= parseSeconds(age.trim());
+        }
+
+        return now + TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+    }
+
+    /**
+     * Reads the max-age directive.
+     *
+     * @param cacheControl lower-case Cache-Control value.
+     * @return max age in seconds, 0 if absent or invalid.
+     */
+    /* default */
+    static long maxAgeSeconds(final String cacheControl) {
+        long seconds = 0;
+        for (final String directive : cacheControl.split(",")) {
+            final String trimmed = directive.trim();
+            if (trimmed.startsWith("max-age=")) {
+                seconds = parseSeconds(trimmed.substring("max-age=".length()).replace("\"", ""));
+            }
+        }
+
+        return seconds;
+    }
+
+    private static long parseSeconds(final String value) {
+        long seconds;
+        try {
+            seconds = Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException ignored) {
+            seconds = 0;
+        }
+
+        return seconds;
+    }
+
+    private static String lowerCase(final String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
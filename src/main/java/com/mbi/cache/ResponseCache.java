@@ -0,0 +1,349 @@
+package com.mbi.cache;
+
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.http.Cookie;
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-bounded LRU cache of GET responses with HTTP revalidation.
+ * <p>
+ * A response is stored if it is a 200 that is not {@code Cache-Control: no-store} and has a {@code max-age},
+ * an {@code ETag} or a {@code Last-Modified} header:
+ * - while its {@code max-age} lasts, it is served from memory without a request
+ * - after that (or at once with {@code no-cache}) the request is sent with {@code If-None-Match} /
+ * {@code If-Modified-Since}, and a {@code 304 Not Modified} is answered with the cached body
+ * <p>
+ * Entries are keyed by the URL with its path and query parameters, all request headers and cookies, so responses
+ * for different users (Authorization, session cookies) or representations (Accept) are never mixed up.
+ * Requests with a Rest-Assured {@code auth()} scheme are not cached, since their credentials are not part
+ * of the key. When the total size of the bodies and headers exceeds the limit, the least recently used entries
+ * are evicted.
+ * <p>
+ * Enabled per request with {@code setResponseCache(cache)}, or for all GET requests in {@code http-request.yml}:
+ * <pre>{@code
+ * responseCache: true
+ * responseCacheMaxBytes: 67108864 # default 64 MB
+ * }</pre>
+ */
+public final class ResponseCache {
+
+    /**
+     * Disabled cache: nothing is stored. It is shared by all requests without a cache, so it can't be resized.
+     */
+    public static final ResponseCache NONE = new ResponseCache(0, false);
+
+    /**
+     * Default size limit of the shared cache, 64 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final ResponseCache SHARED = new ResponseCache(DEFAULT_MAX_BYTES);
+    private static final AtomicBoolean SHARED_SIZED = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final boolean resizable;
+    private volatile long maxBytes;
+    private long bytes;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes max total size of cached responses; 0 disables the cache.
+     */
+    public ResponseCache(final long maxBytes) {
+        this(maxBytes, true);
+    }
+
+    private ResponseCache(final long maxBytes, final boolean resizable) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Max bytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.resizable = resizable;
+    }
+
+    /**
+     * Returns the process-wide cache used when {@code responseCache} is enabled in YAML.
+     *
+     * @return shared cache.
+     */
+    public static ResponseCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the process-wide cache, setting its size limit on the first call.
+     * <p>
+     * Later calls don't resize it, so loading another configuration file, or reloading one, doesn't change
+     * the cache under the requests that already use it. {@link #setMaxBytes(long)} still resizes it explicitly.
+     *
+     * @param maxBytes size limit to use if the cache was not sized yet.
+     * @return shared cache.
+     */
+    public static ResponseCache shared(final long maxBytes) {
+        if (SHARED_SIZED.compareAndSet(false, true)) {
+            SHARED.setMaxBytes(maxBytes);
+        }
+
+        return SHARED;
+    }
+
+    /**
+     * Builds the cache key of a request.
+     *
+     * @param url        URL template.
+     * @param pathParams values of the path parameters, or null.
+     * @param headers    all request headers, or null.
+     * @return key.
+     */
+    public static String key(final String url, final Object[] pathParams, final List<Header> headers) {
+        return keyBuilder(url, pathParams, headers).toString();
+    }
+
+    /**
+     * Builds the cache key of a request from its specification.
+     *
+     * @param url        URL template.
+     * @param pathParams values of the unnamed path parameters, or null.
+     * @param spec       specification with the headers, named path parameters, query parameters and cookies.
+     * @return key, or null if the request uses an {@code auth()} scheme and can't be cached.
+     */
+    public static String keyOf(final String url, final Object[] pathParams, final FilterableRequestSpecification spec) {
+        final AuthenticationScheme auth = spec.getAuthenticationScheme();
+        String key = null;
+        if (auth == null || auth instanceof NoAuthScheme) {
+            final StringBuilder builder = keyBuilder(url, pathParams, spec.getHeaders());
+            spec.getNamedPathParams().forEach((name, value) -> builder.append("\n{").append(name).append("}=")
+                    .append(value));
+            spec.getQueryParams().forEach((name, value) -> builder.append("\n?").append(name).append('=')
+                    .append(value));
+            for (final Cookie cookie : spec.getCookies()) {
+                builder.append("\nCookie: ").append(cookie.getName()).append('=').append(cookie.getValue());
+            }
+            key = builder.toString();
+        }
+
+        return key;
+    }
+
+    private static StringBuilder keyBuilder(final String url, final Object[] pathParams,
+                                            final Iterable<Header> headers) {
+        final var key = new StringBuilder(url);
+        if (pathParams != null) {
+            for (final Object param : pathParams) {
+                key.append('\n').append(param);
+            }
+        }
+        if (headers != null) {
+            for (final Header header : headers) {
+                key.append('\n').append(header.getName()).append(": ").append(header.getValue());
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Checks whether responses can be stored.
+     *
+     * @return true if the size limit is positive.
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the size limit.
+     *
+     * @return max total size of cached responses in bytes.
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the size limit, evicting entries if the cache is now too large.
+     *
+     * @param limit max total size in bytes; 0 disables the cache.
+     * @throws UnsupportedOperationException if this is {@link #NONE}.
+     */
+    public void setMaxBytes(final long limit) {
+        if (!resizable) {
+            throw new UnsupportedOperationException("ResponseCache.NONE can't be resized, create a ResponseCache");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Max bytes must not be negative: " + limit);
+        }
+        if (limit != maxBytes) {
+            lock.lock();
+            try {
+                maxBytes = limit;
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns a cached response that is still fresh and counts it as a hit.
+     *
+     * @param key request key, see {@link #keyOf(String, Object[], FilterableRequestSpecification)}.
+     * @return copy of the cached response, or null if the request has to be sent.
+     */
+    public Response fresh(final String key) {
+        final CachedResponse entry = get(key);
+        final Response response;
+        if (entry != null && entry.isFresh(System.nanoTime())) {
+            hits.increment();
+            response = entry.toResponse();
+        } else {
+            response = null;
+        }
+
+        return response;
+    }
+
+    /**
+     * Returns the headers that turn the request into a conditional one for a stale entry.
+     *
+     * @param key request key.
+     * @return If-None-Match and/or If-Modified-Since; empty if nothing is cached.
+     */
+    public Map<String, String> validators(final String key) {
+        final CachedResponse entry = get(key);
+        return entry == null ? Map.of() : entry.validators();
+    }
+
+    /**
+     * Processes the response of a request that was not served from the cache.
+     * <p>
+     * A {@code 304 Not Modified} refreshes the entry and is replaced with the cached response;
+     * any other response is stored if it is cacheable and returned as is.
+     *
+     * @param key      request key.
+     * @param response received response.
+     * @return response to use.
+     */
+    public Response update(final String key, final Response response) {
+        final CachedResponse entry = get(key);
+        final long now = System.nanoTime();
+        final Response result;
+        if (entry != null && response.statusCode() == 304) {
+            revalidations.increment();
+            final CachedResponse refreshed = entry.refresh(response, now);
+            put(key, refreshed);
+            result = refreshed.toResponse();
+        } else {
+            misses.increment();
+            if (isEnabled() && CachedResponse.isStorable(response)) {
+                put(key, CachedResponse.of(response, now));
+            }
+            result = response;
+        }
+
+        return result;
+    }
+
+    /**
+     * Drops all entries; statistics are kept.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return hits, revalidations, misses, evictions and current size.
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), revalidations.sum(), misses.sum(), evictions.sum(), entries.size(), bytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedResponse get(final String key) {
+        lock.lock();
+        try {
+            // Reading an access-ordered map moves the entry to the most recently used end
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(final String key, final CachedResponse entry) {
+        lock.lock();
+        try {
+            if (entry.weight() <= maxBytes) {
+                final CachedResponse previous = entries.put(key, entry);
+                bytes += entry.weight() - (previous == null ? 0 : previous.weight());
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes least recently used entries until the cache fits its limit; the caller holds the lock.
+     */
+    private void evict() {
+        final Iterator<CachedResponse> iterator = entries.values().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= iterator.next().weight();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Cache statistics.
+     *
+     * @param hits          responses served from memory without a request.
+     * @param revalidations requests answered with 304 and served from the cache.
+     * @param misses        requests answered with a full response.
+     * @param evictions     entries removed to stay within the size limit.
+     * @param entries       number of cached responses.
+     * @param bytes         approximate size of cached responses.
+     */
+    public record Stats(long hits, long revalidations, long misses, long evictions, int entries, long bytes) {
+
+        /**
+         * Returns the share of requests whose body came from the cache.
+         *
+         * @return (hits + revalidations) / all requests, 0 if there were none.
+         */
+        public double hitRatio() {
+            final long served = hits + revalidations;
+            final long total = served + misses;
+            return total == 0 ? 0 : (double) served / total;
+        }
+    }
+}
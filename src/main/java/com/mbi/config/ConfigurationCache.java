@@ -0,0 +1,274 @@
+package com.mbi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Process-wide cache of YAML configuration snapshots.
+ * <p>
+ * Each configuration file is parsed once, lazily and thread-safely, and the resulting snapshot is shared
+ * by all requests. Snapshots are keyed by file name, so directors overriding
+ * {@link RequestDirector#yamlFileName()} keep working.
+ * <p>
+ * Scalar values can be overridden without touching the file:
+ * - system property {@code http-request.<property>}, e.g. {@code -Dhttp-request.connectionTimeout=5000}
+ * - environment variable {@code HTTP_REQUEST_<PROPERTY>}, e.g. {@code HTTP_REQUEST_CONNECTION_TIMEOUT=5000}
+ * <p>
+ * If {@code -Dhttp-request.watch=true} is set, files located on the file system are watched
+ * and a freshly parsed snapshot replaces the old one whenever the file changes.
+ * Snapshots are never modified after publication: a reload always swaps in a new instance.
+ */
+public final class ConfigurationCache {
+
+    /**
+     * Default configuration file name.
+     */
+    public static final String DEFAULT_FILE_NAME = "http-request.yml";
+
+    private static final String PROPERTY_PREFIX = "http-request.";
+    private static final String ENV_PREFIX = "HTTP_REQUEST_";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationCache.class);
+    private static final Map<String, YamlConfiguration> SNAPSHOTS = new ConcurrentHashMap<>();
+    private static final Set<Path> WATCHED_FILES = ConcurrentHashMap.newKeySet();
+
+    private ConfigurationCache() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Returns the configuration snapshot for the given file, loading it on first access.
+     *
+     * @param fileName classpath resource name, e.g. {@code http-request.yml}.
+     * @return shared configuration snapshot; empty defaults if the file does not exist.
+     */
+    public static YamlConfiguration get(final String fileName) {
+        final YamlConfiguration snapshot = SNAPSHOTS.get(fileName);
+        return snapshot != null
+                ? snapshot
+                : SNAPSHOTS.computeIfAbsent(fileName, ConfigurationCache::load);
+    }
+
+    /**
+     * Re-reads the given file and atomically replaces its snapshot.
+     *
+     * @param fileName classpath resource name.
+     * @return the new snapshot.
+     */
+    public static YamlConfiguration reload(final String fileName) {
+        final YamlConfiguration snapshot = load(fileName);
+        SNAPSHOTS.put(fileName, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Drops all cached snapshots, so the next access reads the files again.
+     */
+    public static void invalidate() {
+        SNAPSHOTS.clear();
+    }
+
+    /**
+     * Applies overrides for every scalar property (String, Integer, Long, Boolean or enum) of the configuration.
+     *
+     * @param configuration configuration to update.
+     * @param lookup        returns the override for a property name, or null if there is none.
+     */
+    /* default */
+    static void applyOverrides(final YamlConfiguration configuration, final UnaryOperator<String> lookup) {
+        for (final Method setter : YamlConfiguration.class.getMethods()) {
+            if (!isScalarSetter(setter)) {
+                continue;
+            }
+
+            final String property = Character.toLowerCase(setter.getName().charAt(3)) + setter.getName().substring(4);
+            final String value = lookup.apply(property);
+            if (value != null) {
+                invoke(setter, configuration, convert(value.trim(), setter.getParameterTypes()[0]));
+            }
+        }
+    }
+
+    /**
+     * Looks up an override in system properties first, then in environment variables.
+     */
+    private static String lookup(final String property) {
+        final String value = System.getProperty(PROPERTY_PREFIX + property);
+        return value != null
+                ? value
+                : System.getenv(ENV_PREFIX + property.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Reads the file (if present), applies overrides and starts watching it when requested.
+     */
+    private static YamlConfiguration load(final String fileName) {
+        final URL resource = Thread.currentThread().getContextClassLoader().getResource(fileName);
+        final YamlConfiguration configuration = resource == null ? new YamlConfiguration() : parse(resource);
+
+        applyOverrides(configuration, ConfigurationCache::lookup);
+        freeze(configuration);
+
+        if (resource != null && Boolean.parseBoolean(lookup("watch"))) {
+            watch(fileName, resource);
+        }
+        // Runs in the background: the first request doesn't wait for it
+        ConnectionWarmup.start(configuration);
+
+        return configuration;
+    }
+
+    /**
+     * Replaces the collections of the snapshot with unmodifiable copies, since the snapshot is shared.
+     */
+    private static void freeze(final YamlConfiguration configuration) {
+        if (configuration.getHeaders() != null) {
+            // Keep the YAML order of default headers, but don't let anyone modify the shared map
+            configuration.setHeaders(Collections.unmodifiableMap(new LinkedHashMap<>(configuration.getHeaders())));
+        }
+        if (configuration.getRateLimits() != null) {
+            // Keep the YAML order, patterns are matched in declaration order.
+            // A plain number (requests per second) is parsed as Integer, despite the declared type.
+            final Map<String, String> rateLimits = new LinkedHashMap<>();
+            ((Map<?, ?>) configuration.getRateLimits())
+                    .forEach((key, rate) -> rateLimits.put(String.valueOf(key), String.valueOf(rate)));
+            configuration.setRateLimits(Collections.unmodifiableMap(rateLimits));
+        }
+        if (configuration.getWarmup() != null) {
+            // Keys and values are converted, since YAML doesn't enforce the declared types either
+            final Map<String, Integer> warmup = new LinkedHashMap<>();
+            ((Map<?, ?>) configuration.getWarmup()).forEach((host, connections) ->
+                    warmup.put(String.valueOf(host), Integer.valueOf(String.valueOf(connections).trim())));
+            configuration.setWarmup(Collections.unmodifiableMap(warmup));
+        }
+        if (configuration.getRetryStatusCodes() != null) {
+            configuration.setRetryStatusCodes(List.copyOf(configuration.getRetryStatusCodes()));
+        }
+    }
+
+    private static YamlConfiguration parse(final URL resource) {
+        try (InputStream in = resource.openStream()) {
+            final YamlConfiguration configuration = new Yaml().loadAs(in, YamlConfiguration.class);
+            // An empty file is parsed as null
+            return configuration != null ? configuration : new YamlConfiguration();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + resource, e);
+        }
+    }
+
+    /**
+     * Starts a daemon thread that reloads the snapshot whenever the file changes.
+     * Only resources located on the file system can be watched; resources inside jars are skipped.
+     */
+    private static void watch(final String fileName, final URL resource) {
+        if (!"file".equals(resource.getProtocol())) {
+            return;
+        }
+
+        try {
+            final Path file = Path.of(resource.toURI());
+            if (WATCHED_FILES.add(file)) {
+                final Thread watcher = new Thread(() -> watchLoop(fileName, file), "http-request-config-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+        } catch (URISyntaxException e) {
+            LOGGER.warn("Unable to watch {}", resource, e);
+        }
+    }
+
+    private static void watchLoop(final String fileName, final Path file) {
+        try (WatchService watchService = file.getFileSystem().newWatchService()) {
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                final WatchKey key = watchService.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+
+                if (changed) {
+                    reloadQuietly(fileName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException e) {
+            LOGGER.warn("Stopped watching {}", file, e);
+        }
+    }
+
+    /**
+     * Reloads a watched file, keeping the previous snapshot if the file is being written or is invalid.
+     */
+    private static void reloadQuietly(final String fileName) {
+        try {
+            reload(fileName);
+        } catch (YAMLException | UncheckedIOException e) {
+            LOGGER.warn("Keeping previous configuration, unable to reload {}", fileName, e);
+        }
+    }
+
+    private static boolean isScalarSetter(final Method method) {
+        if (!method.getName().startsWith("set") || method.getParameterCount() != 1) {
+            return false;
+        }
+
+        final Class<?> type = method.getParameterTypes()[0];
+        return type == String.class || type == Integer.class || type == Long.class
+                || type == Boolean.class || type.isEnum();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(final String value, final Class<?> type) {
+        final Object converted;
+        if (type == Integer.class) {
+            converted = Integer.valueOf(value);
+        } else if (type == Long.class) {
+            converted = Long.valueOf(value);
+        } else if (type == Boolean.class) {
+            converted = Boolean.valueOf(value);
+        } else if (type.isEnum()) {
+            converted = Enum.valueOf((Class<? extends Enum>) type, value.toUpperCase(Locale.ROOT));
+        } else {
+            converted = value;
+        }
+
+        return converted;
+    }
+
+    private static void invoke(final Method setter, final YamlConfiguration configuration, final Object value) {
+        try {
+            setter.invoke(configuration, value);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to apply override for " + setter.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.mbi.config;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared, pooled HTTP client configuration.
+ * <p>
+ * By default Rest-Assured creates a new HTTP client (and therefore new connections) for every request.
+ * Instead, all requests with the same settings share one pooling connection manager, so keep-alive connections
+ * are reused across all {@code RequestBuilder} instances and threads.
+ * <p>
+ * Idle and expired connections are evicted in the background, and every pool is shut down at JVM exit.
+ * Connections can be opened ahead of the first request (see {@link ConnectionWarmup}).
+ */
+@SuppressWarnings("deprecation") // Rest-Assured is built on the HttpClient 4 classic API
+public final class ConnectionPool {
+
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+    private static final int DEFAULT_SOCKET_TIMEOUT_MS = 60_000;
+    private static final int DEFAULT_POOL_TIMEOUT_MS = 10_000;
+    private static final int DEFAULT_MAX_CONNECTIONS = 200;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 50;
+    private static final int DEFAULT_IDLE_CONNECTION_TIMEOUT_MS = 30_000;
+    private static final int MIN_EVICTION_PERIOD_MS = 1_000;
+
+    private static final Map<Settings, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+        final Thread thread = new Thread(task, "http-request-connection-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final RestAssuredConfig config;
+
+    private ConnectionPool(final Settings settings) {
+        this.connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(settings.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute());
+
+        // Rest-Assured shuts down the connection manager of a non-reused client after reading the response,
+        // so every client gets a view of the pool that ignores shutdown requests
+        final ClientConnectionManager shared = new SharedConnectionManager(connectionManager);
+        this.config = RestAssured.config().httpClient(
+                HttpClientConfig.httpClientConfig()
+                        .httpClientFactory(() -> new DefaultHttpClient(shared))
+                        // Connect timeout
+                        .setParam("http.connection.timeout", settings.connectTimeoutMs())
+                        // Read/socket timeout (prevents hanging on response read forever)
+                        .setParam("http.socket.timeout", settings.socketTimeoutMs())
+                        // Wait timeout when connection pool is exhausted (important for parallel runs)
+                        .setParam("http.connection-manager.timeout", settings.poolTimeoutMs())
+                        // Detect connections closed by the server while they were idle in the pool
+                        .setParam("http.connection.stalecheck", settings.staleConnectionCheck())
+        );
+
+        final long evictionPeriodMs = Math.max(MIN_EVICTION_PERIOD_MS, settings.idleConnectionTimeoutMs() / 2);
+        EVICTOR.scheduleWithFixedDelay(() -> evict(settings.idleConnectionTimeoutMs()),
+                evictionPeriodMs, evictionPeriodMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(connectionManager::shutdown, "http-request-pool-shutdown"));
+    }
+
+    /**
+     * Returns the shared Rest-Assured configuration for the given YAML settings.
+     * <p>
+     * Always sets safe timeout defaults to prevent infinite hangs.
+     * If YAML defines connectionTimeout, it overrides connect, socket and pool timeouts.
+     *
+     * @param configuration YAML configuration snapshot.
+     * @return Rest-Assured configuration backed by a shared connection pool.
+     */
+    public static RestAssuredConfig restAssuredConfig(final YamlConfiguration configuration) {
+        return forSettings(Settings.of(configuration)).config;
+    }
+
+    private static ConnectionPool forSettings(final Settings settings) {
+        final ConnectionPool pool = POOLS.get(settings);
+        return pool != null ? pool : POOLS.computeIfAbsent(settings, ConnectionPool::new);
+    }
+
+    /**
+     * Opens connections to a host in the pool for the given YAML settings and leaves them idle in the pool,
+     * so the first requests skip the TCP and TLS setup. Connections that are already open count as well.
+     * <p>
+     * All connections are leased first, so none of them is handed out twice, then opened in parallel and
+     * released one by one as soon as they are connected. At most maxConnectionsPerRoute connections are opened.
+     *
+     * @param configuration YAML configuration snapshot.
+     * @param host          scheme, host and optional port, e.g. {@code https://api.example.com}.
+     * @param connections   number of connections.
+     * @param executor      executor that opens the connections.
+     * @return completes when all connections are back in the pool; fails if one of them could not be opened.
+     */
+    /* default */
+    static CompletableFuture<Void> warmUp(final YamlConfiguration configuration, final URI host,
+                                          final int connections, final Executor executor) {
+        final Settings settings = Settings.of(configuration);
+        final HttpRoute route = new HttpRoute(new HttpHost(host.getHost(), host.getPort(), host.getScheme()),
+                null, "https".equalsIgnoreCase(host.getScheme()));
+
+        // The pool is created in the background too, the caller never waits
+        return CompletableFuture.supplyAsync(() -> forSettings(settings), executor)
+                .thenCompose(pool -> CompletableFuture.allOf(pool.lease(route, connections, settings).stream()
+                        .map(connection -> CompletableFuture.runAsync(
+                                () -> pool.open(connection, route, settings), executor))
+                        .toArray(CompletableFuture<?>[]::new)));
+    }
+
+    private List<ManagedClientConnection> lease(final HttpRoute route, final int connections,
+                                                final Settings settings) {
+        final int count = Math.min(connections, settings.maxConnectionsPerRoute());
+        final List<ManagedClientConnection> leased = new ArrayList<>(count);
+        try {
+            while (leased.size() < count) {
+                leased.add(connectionManager.requestConnection(route, null)
+                        .getConnection(settings.poolTimeoutMs(), TimeUnit.MILLISECONDS));
+            }
+        } catch (ConnectionPoolTimeoutException ignored) {
+            // The pool is busy with requests, which open their own connections: warm up the ones leased so far
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return leased;
+    }
+
+    /**
+     * Connects a leased connection (including the TLS handshake) and returns it to the pool as idle.
+     */
+    private void open(final ManagedClientConnection connection, final HttpRoute route, final Settings settings) {
+        try {
+            if (!connection.isOpen()) {
+                final HttpParams params = new BasicHttpParams();
+                HttpConnectionParams.setConnectionTimeout(params, settings.connectTimeoutMs());
+                HttpConnectionParams.setSoTimeout(params, settings.socketTimeoutMs());
+                connection.open(route, new BasicHttpContext(), params);
+            }
+            // Only reusable connections are kept by the pool, a failed one is discarded on release
+            connection.markReusable();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to connect to " + route.getTargetHost(), e);
+        } finally {
+            connectionManager.releaseConnection(connection, settings.idleConnectionTimeoutMs(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evict(final long idleTimeoutMs) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Effective client settings; requests with equal settings share one pool.
+     */
+    private record Settings(int connectTimeoutMs,
+                            int socketTimeoutMs,
+                            int poolTimeoutMs,
+                            int maxConnections,
+                            int maxConnectionsPerRoute,
+                            int idleConnectionTimeoutMs,
+                            boolean staleConnectionCheck) {
+
+        private static Settings of(final YamlConfiguration configuration) {
+            // Current YAML model has only one timeout value, so we apply it to connect, socket and pool timeouts
+            final Integer timeout = configuration.getConnectionTimeout();
+
+            return new Settings(
+                    valueOrDefault(timeout, DEFAULT_CONNECT_TIMEOUT_MS),
+                    valueOrDefault(timeout, DEFAULT_SOCKET_TIMEOUT_MS),
+                    valueOrDefault(timeout, DEFAULT_POOL_TIMEOUT_MS),
+                    valueOrDefault(configuration.getMaxConnections(), DEFAULT_MAX_CONNECTIONS),
+                    valueOrDefault(configuration.getMaxConnectionsPerRoute(), DEFAULT_MAX_CONNECTIONS_PER_ROUTE),
+                    valueOrDefault(configuration.getIdleConnectionTimeout(), DEFAULT_IDLE_CONNECTION_TIMEOUT_MS),
+                    !Boolean.FALSE.equals(configuration.getStaleConnectionCheck()));
+        }
+
+        private static int valueOrDefault(final Integer value, final int defaultValue) {
+            return value != null ? value : defaultValue;
+        }
+    }
+
+    /**
+     * Connection manager view shared by all clients of a pool.
+     * Delegates everything to the pool except {@link #shutdown()}, which only happens at JVM exit.
+     */
+    private record SharedConnectionManager(ClientConnectionManager delegate) implements ClientConnectionManager {
+
+        @Override
+        public SchemeRegistry getSchemeRegistry() {
+            return delegate.getSchemeRegistry();
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+            return delegate.requestConnection(route, state);
+        }
+
+        @Override
+        public void releaseConnection(final ManagedClientConnection conn, final long validDuration,
+                                      final TimeUnit timeUnit) {
+            delegate.releaseConnection(conn, validDuration, timeUnit);
+        }
+
+        @Override
+        public void closeIdleConnections(final long idletime, final TimeUnit timeUnit) {
+            delegate.closeIdleConnections(idletime, timeUnit);
+        }
+
+        @Override
+        public void closeExpiredConnections() {
+            delegate.closeExpiredConnections();
+        }
+
+        @Override
+        public void shutdown() {
+            // The pool is shared: it is shut down by the JVM shutdown hook only
+        }
+    }
+}
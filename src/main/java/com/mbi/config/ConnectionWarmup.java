@@ -0,0 +1,113 @@
+package com.mbi.config;
+
+import com.mbi.request.RequestExecutors;
+import com.mbi.transport.JdkHttpTransport;
+import com.mbi.transport.TransportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Opens connections to the hosts of the {@code warmup} section ahead of the first request, so DNS, TCP and TLS
+ * setup don't add to the latency of the first tests.
+ * <pre>{@code
+ * warmup:
+ *   "https://api.example.com": 8 # connections per host
+ *   "http://localhost:8080": 2
+ * }</pre>
+ * The warm-up starts when the configuration file is loaded and runs in the background on the
+ * {@link RequestExecutors} executor: the first request doesn't wait for it, and all connections to all hosts
+ * are opened in parallel. Nothing is sent through the request pipeline, so warm-up connections are never
+ * recorded in metrics nor reported to listeners. Failures are logged and ignored; requests then open their
+ * own connections, as usual.
+ * <p>
+ * With the default transport the connections are opened into the shared connection pool and left idle.
+ * The JDK client can't open a connection by itself, so a HEAD request is sent to the host per connection
+ * instead; an HTTP/2 host only needs one.
+ */
+public final class ConnectionWarmup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionWarmup.class);
+    private static final Set<String> SCHEMES = Set.of("http", "https");
+
+    private ConnectionWarmup() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Starts opening the connections of the {@code warmup} section in the background.
+     *
+     * @param configuration YAML configuration snapshot.
+     * @return completes when all hosts are warmed up or have failed; never completes exceptionally.
+     */
+    public static CompletableFuture<Void> start(final YamlConfiguration configuration) {
+        final Map<String, Integer> hosts = configuration.getWarmup();
+        final List<CompletableFuture<Void>> warmups = new ArrayList<>();
+        if (hosts != null) {
+            hosts.forEach((host, connections) -> {
+                final URI uri = uri(host);
+                if (uri != null && connections != null && connections > 0) {
+                    warmups.add(warmUp(configuration, uri, connections).exceptionally(e -> {
+                        LOGGER.warn("Unable to warm up connections to {}", host, e);
+                        return null;
+                    }));
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(warmups.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private static CompletableFuture<Void> warmUp(final YamlConfiguration configuration, final URI host,
+                                                  final int connections) {
+        return configuration.getTransport() == TransportType.JDK
+                ? warmUp(JdkHttpTransport.of(configuration).client(), host, connections)
+                : ConnectionPool.warmUp(configuration, host, connections, RequestExecutors.get());
+    }
+
+    /**
+     * Sends concurrent HEAD requests, so the client opens one connection for each (HTTP/1.1).
+     * Any response will do: the connection stays open in the client whatever its status code.
+     */
+    private static CompletableFuture<Void> warmUp(final HttpClient client, final URI host, final int connections) {
+        final HttpRequest head = HttpRequest.newBuilder(host).HEAD().build();
+        final CompletableFuture<?>[] responses = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            responses[i] = client.sendAsync(head, HttpResponse.BodyHandlers.discarding());
+        }
+
+        return CompletableFuture.allOf(responses);
+    }
+
+    /**
+     * Parses a host URL of the {@code warmup} section, e.g. {@code https://api.example.com:8443}.
+     *
+     * @return URI, or null if the value is not an http(s) URL.
+     */
+    private static URI uri(final String host) {
+        URI uri = null;
+        try {
+            uri = URI.create(host.trim());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Skipping warm-up of invalid host URL {}", host, e);
+        }
+
+        final boolean valid = uri != null && uri.getHost() != null && uri.getScheme() != null
+                && SCHEMES.contains(uri.getScheme().toLowerCase(Locale.ROOT));
+        if (uri != null && !valid) {
+            LOGGER.warn("Skipping warm-up of {}: expected an http or https URL, e.g. https://api.example.com", host);
+        }
+
+        return valid ? uri : null;
+    }
+}
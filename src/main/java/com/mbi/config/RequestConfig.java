@@ -1,12 +1,18 @@
 package com.mbi.config;
 
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
+import com.mbi.cache.ResponseCache;
+import com.mbi.ratelimit.RateLimits;
+import com.mbi.request.RetryPolicy;
+import com.mbi.transport.RestAssuredTransport;
+import com.mbi.transport.Transport;
+import com.mbi.utils.ContentEncoding;
+import com.mbi.utils.RequestConfigJsonWriter;
 import io.restassured.http.Header;
 import io.restassured.http.Method;
 import io.restassured.specification.RequestSpecification;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -70,6 +76,56 @@ public class RequestConfig {
      */
     private Boolean checkNoErrors;
 
+    /**
+     * Dot-separated path of the 'errors' array checked when checkNoErrors is enabled.
+     */
+    private String errorsPath;
+
+    /**
+     * Max bytes of response body kept for logs and error messages (0 = unlimited).
+     */
+    private int responseCaptureLimit;
+
+    /**
+     * Max bytes of response body returned to the caller (0 = unlimited).
+     */
+    private int responseBodyLimit;
+
+    /**
+     * Retry and hedging policy.
+     */
+    private transient RetryPolicy retryPolicy = RetryPolicy.NONE;
+
+    /**
+     * Client-side rate limits the request waits for.
+     */
+    private transient RateLimits rateLimits = RateLimits.NONE;
+
+    /**
+     * Cache of GET responses.
+     */
+    private transient ResponseCache responseCache = ResponseCache.NONE;
+
+    /**
+     * HTTP engine that sends the request.
+     */
+    private transient Transport transport = RestAssuredTransport.INSTANCE;
+
+    /**
+     * Number of parallel ranged requests of a download (1 = a single request).
+     */
+    private transient int downloadConnections = 1;
+
+    /**
+     * Compression of the request body, or null to send it uncompressed.
+     */
+    private transient ContentEncoding requestCompression;
+
+    /**
+     * Min size of a request body to compress.
+     */
+    private transient int requestCompressionMinBytes;
+
     public Method getMethod() {
         return method;
     }
@@ -137,6 +193,86 @@ public class RequestConfig {
         this.maxResponseLength = maxResponseLength;
     }
 
+    public String getErrorsPath() {
+        return errorsPath;
+    }
+
+    public void setErrorsPath(final String errorsPath) {
+        this.errorsPath = errorsPath;
+    }
+
+    public int getResponseCaptureLimit() {
+        return responseCaptureLimit;
+    }
+
+    public void setResponseCaptureLimit(final int responseCaptureLimit) {
+        this.responseCaptureLimit = responseCaptureLimit;
+    }
+
+    public int getResponseBodyLimit() {
+        return responseBodyLimit;
+    }
+
+    public void setResponseBodyLimit(final int responseBodyLimit) {
+        this.responseBodyLimit = responseBodyLimit;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RateLimits getRateLimits() {
+        return rateLimits;
+    }
+
+    public void setRateLimits(final RateLimits rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setResponseCache(final ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(final Transport transport) {
+        this.transport = transport;
+    }
+
+    public int getDownloadConnections() {
+        return downloadConnections;
+    }
+
+    public void setDownloadConnections(final int downloadConnections) {
+        this.downloadConnections = downloadConnections;
+    }
+
+    public ContentEncoding getRequestCompression() {
+        return requestCompression;
+    }
+
+    public void setRequestCompression(final ContentEncoding requestCompression) {
+        this.requestCompression = requestCompression;
+    }
+
+    public int getRequestCompressionMinBytes() {
+        return requestCompressionMinBytes;
+    }
+
+    public void setRequestCompressionMinBytes(final int requestCompressionMinBytes) {
+        this.requestCompressionMinBytes = requestCompressionMinBytes;
+    }
+
     public boolean isDebug() {
         return debug;
     }
@@ -161,6 +297,40 @@ public class RequestConfig {
         this.callerTestMethod = callerTestMethod;
     }
 
+    /**
+     * Returns a shallow copy of this configuration.
+     * <p>
+     * Lists, path parameters and the specification are shared with the original,
+     * so the original must not be modified afterwards (e.g. a template prototype).
+     *
+     * @return new configuration with the same values.
+     */
+    public RequestConfig copy() {
+        final RequestConfig copy = new RequestConfig();
+        copy.method = method;
+        copy.url = url;
+        copy.callerTestMethod = callerTestMethod;
+        copy.data = data;
+        copy.requestSpecification = requestSpecification;
+        copy.headers = headers;
+        copy.expectedStatusCodes = expectedStatusCodes;
+        copy.pathParams = pathParams;
+        copy.maxResponseLength = maxResponseLength;
+        copy.debug = debug;
+        copy.checkNoErrors = checkNoErrors;
+        copy.errorsPath = errorsPath;
+        copy.responseCaptureLimit = responseCaptureLimit;
+        copy.responseBodyLimit = responseBodyLimit;
+        copy.retryPolicy = retryPolicy;
+        copy.rateLimits = rateLimits;
+        copy.responseCache = responseCache;
+        copy.transport = transport;
+        copy.downloadConnections = downloadConnections;
+        copy.requestCompression = requestCompression;
+        copy.requestCompressionMinBytes = requestCompressionMinBytes;
+        return copy;
+    }
+
     /**
      * Converts current configuration to JSON string.
      *
@@ -168,25 +338,14 @@ public class RequestConfig {
      */
     @Override
     public String toString() {
-        final var gson = new GsonBuilder()
-                .disableHtmlEscaping() // optional: do not escape characters like <, >, &
-                .create();
-
-        // First, convert this to a JsonObject ("data" is still a String here)
-        // Then, replace the "data" field, if present, with parsed JSON
-        final var root = gson.toJsonTree(this).getAsJsonObject();
-
-        if (data != null) {
-            try {
-                // Try to parse "data" as JSON
-                final var parsed = JsonParser.parseString(data.toString());
-                // Replace the "data" field with the parsed JSON element
-                root.add("data", parsed);
-            } catch (JsonSyntaxException ignored) {
-                // If parsing fails, keep "data" as a string
-            }
+        final var json = new StringBuilder(256);
+        try {
+            new RequestConfigJsonWriter().write(this, json);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
         }
 
-        return gson.toJson(root);
+        return json.toString();
     }
 }
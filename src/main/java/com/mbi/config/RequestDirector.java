@@ -1,14 +1,19 @@
 package com.mbi.config;
 
+import com.mbi.cache.ResponseCache;
+import com.mbi.ratelimit.RateLimits;
 import com.mbi.request.RequestBuilder;
-import io.restassured.RestAssured;
-import io.restassured.config.HttpClientConfig;
-import io.restassured.config.RestAssuredConfig;
+import com.mbi.request.RequestState;
+import com.mbi.request.RetryPolicy;
+import com.mbi.transport.JdkHttpTransport;
+import com.mbi.transport.RestAssuredTransport;
+import com.mbi.transport.TransportType;
+import com.mbi.utils.ErrorsScanner;
+import com.mbi.utils.RequestBodies;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.RequestSpecification;
-import org.yaml.snakeyaml.Yaml;
 
-import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Objects;
 
@@ -19,17 +24,31 @@ import static io.restassured.RestAssured.given;
  */
 public class RequestDirector {
 
-    private final RequestBuilder requestBuilder;
+    /**
+     * Smaller bodies gain little from compression; the headers alone take a few hundred bytes.
+     */
+    private static final int DEFAULT_COMPRESSION_MIN_BYTES = 1024;
+
+    private final RequestState requestState;
     private final RequestConfig requestConfig = new RequestConfig();
     private YamlConfiguration yamlConfiguration;
 
     /**
      * Constructs a director with a builder.
      *
-     * @param requestBuilder DSL builder with thread-local data.
+     * @param requestBuilder DSL builder; the state of its current request is read once.
      */
     public RequestDirector(final RequestBuilder requestBuilder) {
-        this.requestBuilder = requestBuilder;
+        this(requestBuilder.getState());
+    }
+
+    /**
+     * Constructs a director with the state of the request being built.
+     *
+     * @param requestState request state read from the builder.
+     */
+    public RequestDirector(final RequestState requestState) {
+        this.requestState = requestState;
     }
 
     /**
@@ -45,42 +64,50 @@ public class RequestDirector {
      * Assembles and fills all request config fields based on builder and YAML.
      */
     public void constructRequest() {
-        // Load YAML configuration to avoid calling an overridable method during object construction
-        this.yamlConfiguration = readYamlConfiguration();
+        // Resolve YAML configuration here to avoid calling an overridable method during object construction.
+        // The file is parsed once per process and shared as a snapshot.
+        this.yamlConfiguration = ConfigurationCache.get(yamlFileName());
 
         final RequestSpecification spec = configureRequest();
 
         requestConfig.setRequestSpecification(spec);
-        requestConfig.setMethod(requestBuilder.getMethod());
-        requestConfig.setUrl(requestBuilder.getUrl());
+        requestConfig.setMethod(requestState.getMethod());
+        requestConfig.setUrl(requestState.getUrl());
         requestConfig.setData(((FilterableRequestSpecification) spec).getBody());
         requestConfig.setHeaders(new ArrayList<>(((FilterableRequestSpecification) spec).getHeaders().asList()));
-        requestConfig.setExpectedStatusCodes(requestBuilder.getStatusCodes());
-        requestConfig.setPathParams(requestBuilder.getPathParams());
-        requestConfig.setDebug(requestBuilder.isDebug());
+        requestConfig.setExpectedStatusCodes(requestState.getStatusCodes());
+        requestConfig.setPathParams(requestState.getPathParams());
+        requestConfig.setDebug(requestState.isDebug());
         requestConfig.setMaxResponseLength(getMaxResponseLength());
-        requestConfig.setCheckNoErrors(requestBuilder.hasNoErrors());
-    }
-
-    /**
-     * Reads configuration from 'http-request.yml' if present. Returns empty defaults if not found.
-     */
-    private YamlConfiguration readYamlConfiguration() {
-        final InputStream in = Thread.currentThread()
-                .getContextClassLoader()
-                .getResourceAsStream(yamlFileName());
-        if (Objects.isNull(in)) {
-            return new YamlConfiguration();
-        }
-
-        return new Yaml().loadAs(in, YamlConfiguration.class);
+        requestConfig.setResponseCaptureLimit(valueOrUnlimited(yamlConfiguration.getResponseCaptureLimit()));
+        requestConfig.setResponseBodyLimit(valueOrUnlimited(yamlConfiguration.getResponseBodyLimit()));
+        requestConfig.setCheckNoErrors(requestState.hasNoErrors());
+        requestConfig.setErrorsPath(yamlConfiguration.getErrorsPath() != null
+                ? yamlConfiguration.getErrorsPath()
+                : ErrorsScanner.DEFAULT_PATH);
+        requestConfig.setRetryPolicy(requestState.getRetryPolicy() != null
+                ? requestState.getRetryPolicy()
+                : yamlRetryPolicy());
+        requestConfig.setRateLimits(RateLimits.of(yamlConfiguration.getRateLimits(),
+                yamlConfiguration.getRateLimitBurst()));
+        requestConfig.setResponseCache(requestState.getResponseCache() != null
+                ? requestState.getResponseCache()
+                : yamlResponseCache());
+        requestConfig.setTransport(yamlConfiguration.getTransport() == TransportType.JDK
+                ? JdkHttpTransport.of(yamlConfiguration)
+                : RestAssuredTransport.INSTANCE);
+        requestConfig.setDownloadConnections(Objects.requireNonNullElse(requestState.getDownloadConnections(),
+                Objects.requireNonNullElse(yamlConfiguration.getDownloadConnections(), 1)));
+        requestConfig.setRequestCompression(yamlConfiguration.getRequestCompression());
+        requestConfig.setRequestCompressionMinBytes(Objects.requireNonNullElse(
+                yamlConfiguration.getRequestCompressionMinBytes(), DEFAULT_COMPRESSION_MIN_BYTES));
     }
 
     /**
      * Returns the YAML file name to read configuration from.
      */
     protected String yamlFileName() {
-        return "http-request.yml";
+        return ConfigurationCache.DEFAULT_FILE_NAME;
     }
 
     /**
@@ -110,43 +137,20 @@ public class RequestDirector {
     }
 
     /**
-     * Applies request timeouts.
+     * Applies request timeouts and the shared connection pool.
      * <p>
-     * Always sets safe defaults to prevent infinite hangs.
-     * If YAML defines connectionTimeout, it overrides connect + socket timeouts.
+     * The client configuration is built once per distinct settings and reused by all requests.
      */
     private void setRequestTimeout(final RequestSpecification spec) {
-        // Safe defaults (ms)
-        final int defaultConnectTimeoutMs = 10_000;
-        final int defaultSocketTimeoutMs = 60_000;
-        final int defaultPoolTimeoutMs = 10_000;
-
-        // YAML override (if present). Current YAML model has only one value,
-        // so we apply it to connect + socket.
-        final Integer yamlTimeout = yamlConfiguration.getConnectionTimeout();
-        final int connectTimeoutMs = (yamlTimeout != null) ? yamlTimeout : defaultConnectTimeoutMs;
-        final int socketTimeoutMs = (yamlTimeout != null) ? yamlTimeout : defaultSocketTimeoutMs;
-        final  int poolTimeoutMs = (yamlTimeout != null) ? yamlTimeout : defaultPoolTimeoutMs;
-
-        final RestAssuredConfig config = RestAssured.config().httpClient(
-                HttpClientConfig.httpClientConfig()
-                        // Connect timeout
-                        .setParam("http.connection.timeout", connectTimeoutMs)
-                        // Read/socket timeout (prevents hanging on response read forever)
-                        .setParam("http.socket.timeout", socketTimeoutMs)
-                        // Wait timeout when connection pool is exhausted (important for parallel runs)
-                        .setParam("http.connection-manager.timeout", poolTimeoutMs)
-        );
-
-        spec.config(config);
+        spec.config(ConnectionPool.restAssuredConfig(yamlConfiguration));
     }
 
     /**
      * Applies user-defined request specification if provided.
      */
     private void setSpecification(final RequestSpecification spec) {
-        if (requestBuilder.getSpecification() != null) {
-            spec.spec(requestBuilder.getSpecification());
+        if (requestState.getSpecification() != null) {
+            spec.spec(requestState.getSpecification());
         }
     }
 
@@ -154,17 +158,17 @@ public class RequestDirector {
      * Sets Authorization token from the builder.
      */
     private void setToken(final RequestSpecification spec) {
-        if (requestBuilder.getToken() != null) {
-            spec.header("Authorization", requestBuilder.getToken());
+        if (requestState.getToken() != null) {
+            spec.header("Authorization", requestState.getToken());
         }
     }
 
     /**
-     * Sets request body data.
+     * Sets request body data; binary bodies are sent as they are (see {@link RequestBodies}).
      */
     private void setData(final RequestSpecification spec) {
-        if (requestBuilder.getData() != null) {
-            spec.body(requestBuilder.getData().toString());
+        if (requestState.getData() != null) {
+            RequestBodies.setBody(spec, requestState.getData());
         }
     }
 
@@ -172,8 +176,8 @@ public class RequestDirector {
      * Appends additional headers from the builder.
      */
     private void appendHeaders(final RequestSpecification spec) {
-        if (requestBuilder.getHeaders() != null) {
-            for (final var header : requestBuilder.getHeaders()) {
+        if (requestState.getHeaders() != null) {
+            for (final var header : requestState.getHeaders()) {
                 spec.header(header);
             }
         }
@@ -183,11 +187,47 @@ public class RequestDirector {
      * Enables debug logging if requested.
      */
     private void setDebug(final RequestSpecification spec) {
-        if (requestBuilder.isDebug()) {
+        if (requestState.isDebug()) {
             spec.log().everything();
         }
     }
 
+    /**
+     * Builds the retry policy from YAML; no retries unless retryMaxAttempts or retryHedging is set.
+     */
+    private RetryPolicy yamlRetryPolicy() {
+        final RetryPolicy policy;
+        if (yamlConfiguration.getRetryMaxAttempts() == null && yamlConfiguration.getRetryHedging() == null) {
+            policy = RetryPolicy.NONE;
+        } else {
+            final RetryPolicy defaults = RetryPolicy.retries(
+                    Objects.requireNonNullElse(yamlConfiguration.getRetryMaxAttempts(), 1));
+            policy = defaults
+                    .withStatusCodes(Objects.requireNonNullElse(yamlConfiguration.getRetryStatusCodes(),
+                            defaults.statusCodes()))
+                    .withBackoff(millisOrDefault(yamlConfiguration.getRetryBackoff(), defaults.initialBackoff()),
+                            millisOrDefault(yamlConfiguration.getRetryMaxBackoff(), defaults.maxBackoff()))
+                    .withMaxTotalTime(millisOrDefault(yamlConfiguration.getRetryMaxTotalTime(), Duration.ZERO))
+                    .withHedging(Boolean.TRUE.equals(yamlConfiguration.getRetryHedging()));
+        }
+
+        return policy;
+    }
+
+    /**
+     * Returns the shared cache if YAML enables it; the first configuration that uses it sets its size limit.
+     */
+    private ResponseCache yamlResponseCache() {
+        return Boolean.TRUE.equals(yamlConfiguration.getResponseCache())
+                ? ResponseCache.shared(Objects.requireNonNullElse(yamlConfiguration.getResponseCacheMaxBytes(),
+                ResponseCache.DEFAULT_MAX_BYTES))
+                : ResponseCache.NONE;
+    }
+
+    private static Duration millisOrDefault(final Integer millis, final Duration defaultValue) {
+        return millis != null ? Duration.ofMillis(millis) : defaultValue;
+    }
+
     /**
      * Reads max response length from YAML config (default = 0 = unlimited).
      */
@@ -196,4 +236,11 @@ public class RequestDirector {
                 ? yamlConfiguration.getMaxResponseLength()
                 : 0;
     }
+
+    /**
+     * Returns the configured limit, or 0 (unlimited) if not set.
+     */
+    private static int valueOrUnlimited(final Integer limit) {
+        return limit != null ? limit : 0;
+    }
 }
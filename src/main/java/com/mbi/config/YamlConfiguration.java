@@ -1,10 +1,16 @@
 package com.mbi.config;
 
+import com.mbi.logging.QueueFullPolicy;
+import com.mbi.transport.TransportType;
+import com.mbi.utils.ContentEncoding;
+
+import java.net.http.HttpClient;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Represents optional configuration loaded from YAML file (`http-request.yml`).
- * Used to set default headers, connection timeouts, and response truncation for logging.
+ * Used to set default headers, connection timeouts and pooling, response truncation and request logging.
  */
 public final class YamlConfiguration {
 
@@ -23,6 +29,152 @@ public final class YamlConfiguration {
      */
     private Integer maxResponseLength;
 
+    /**
+     * Optional max number of pooled connections shared by all requests.
+     */
+    private Integer maxConnections;
+
+    /**
+     * Optional max number of pooled connections per route (scheme + host + port).
+     */
+    private Integer maxConnectionsPerRoute;
+
+    /**
+     * Optional time in milliseconds after which idle pooled connections are closed.
+     */
+    private Integer idleConnectionTimeout;
+
+    /**
+     * Optional flag to check pooled connections for staleness before reusing them.
+     */
+    private Boolean staleConnectionCheck;
+
+    /**
+     * Optional max number of request log records waiting to be written.
+     */
+    private Integer logQueueCapacity;
+
+    /**
+     * Optional policy applied when the request log queue is full.
+     */
+    private QueueFullPolicy logQueueFullPolicy;
+
+    /**
+     * Optional max number of request log records written per batch.
+     */
+    private Integer logBatchSize;
+
+    /**
+     * Optional sampling rate for the SAMPLE queue policy: one of every n overflowing records is kept.
+     */
+    private Integer logSampleRate;
+
+    /**
+     * Optional max number of response body bytes kept for logs and error messages. 0 or null = no limit.
+     */
+    private Integer responseCaptureLimit;
+
+    /**
+     * Optional max number of response body bytes returned to the caller; the rest is discarded. 0 or null = no limit.
+     */
+    private Integer responseBodyLimit;
+
+    /**
+     * Optional dot-separated path of the errors array checked by checkNoErrors, e.g. extensions.errors.
+     * Default: errors.
+     */
+    private String errorsPath;
+
+    /**
+     * Optional file the request metrics are exported to in Prometheus text format when a TestNG suite finishes.
+     */
+    private String metricsPrometheusFile;
+
+    /**
+     * Optional file the request metrics are exported to as JSON when a TestNG suite finishes.
+     */
+    private String metricsJsonFile;
+
+    /**
+     * Optional max number of attempts per request, including the first one. Null or 1 = no retries.
+     */
+    private Integer retryMaxAttempts;
+
+    /**
+     * Optional status codes that are retried. Default: 429, 502, 503, 504.
+     */
+    private List<Integer> retryStatusCodes;
+
+    /**
+     * Optional wait before the first retry in milliseconds, doubled for every next retry. Default: 100.
+     */
+    private Integer retryBackoff;
+
+    /**
+     * Optional max wait between attempts in milliseconds. Default: 5000.
+     */
+    private Integer retryMaxBackoff;
+
+    /**
+     * Optional max time in milliseconds from the first attempt to the start of the last one. Null or 0 = no limit.
+     */
+    private Integer retryMaxTotalTime;
+
+    /**
+     * Optional flag to send a duplicate GET when a response is slower than the endpoint's p95 latency.
+     */
+    private Boolean retryHedging;
+
+    /**
+     * Optional client-side rate limits, e.g. 50/s, per host or URL pattern (see RateLimits).
+     */
+    private Map<String, String> rateLimits;
+
+    /**
+     * Optional number of requests a rate limit lets through at once. Default: 1.
+     */
+    private Integer rateLimitBurst;
+
+    /**
+     * Optional LRU cache of GET responses with ETag/Last-Modified revalidation (default false).
+     */
+    private Boolean responseCache;
+
+    /**
+     * Optional size limit of the shared response cache in bytes (default 64 MB).
+     */
+    private Long responseCacheMaxBytes;
+
+    /**
+     * Optional HTTP engine: REST_ASSURED (default) or JDK.
+     */
+    private TransportType transport;
+
+    /**
+     * Optional HTTP version of the JDK transport (default HTTP_2).
+     */
+    private HttpClient.Version httpVersion;
+
+    /**
+     * Optional number of parallel ranged requests of a download (default 1 = a single request).
+     */
+    private Integer downloadConnections;
+
+    /**
+     * Optional compression of request bodies: GZIP or DEFLATE (default: none).
+     */
+    private ContentEncoding requestCompression;
+
+    /**
+     * Optional min size of a request body to compress (default 1024).
+     */
+    private Integer requestCompressionMinBytes;
+
+    /**
+     * Optional number of connections to open ahead of the first request, per host URL.
+     */
+    private Map<String, Integer> warmup;
+
     /**
      * Gets the configured connection timeout in milliseconds.
      *
@@ -76,4 +228,526 @@ public final class YamlConfiguration {
     public void setMaxResponseLength(final Integer maxResponseLength) {
         this.maxResponseLength = maxResponseLength;
     }
+
+    /**
+     * Gets max number of pooled connections.
+     *
+     * @return connection count or null.
+     */
+    public Integer getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets max number of pooled connections.
+     *
+     * @param maxConnections connection count.
+     */
+    public void setMaxConnections(final Integer maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Gets max number of pooled connections per route.
+     *
+     * @return connection count or null.
+     */
+    public Integer getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets max number of pooled connections per route.
+     *
+     * @param maxConnectionsPerRoute connection count.
+     */
+    public void setMaxConnectionsPerRoute(final Integer maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * Gets idle time after which pooled connections are evicted.
+     *
+     * @return idle timeout in ms or null.
+     */
+    public Integer getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    /**
+     * Sets idle time after which pooled connections are evicted.
+     *
+     * @param idleConnectionTimeout idle timeout in ms.
+     */
+    public void setIdleConnectionTimeout(final Integer idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    /**
+     * Gets whether pooled connections are checked for staleness before reuse.
+     *
+     * @return flag or null.
+     */
+    public Boolean getStaleConnectionCheck() {
+        return staleConnectionCheck;
+    }
+
+    /**
+     * Sets whether pooled connections are checked for staleness before reuse.
+     *
+     * @param staleConnectionCheck true to enable the check.
+     */
+    public void setStaleConnectionCheck(final Boolean staleConnectionCheck) {
+        this.staleConnectionCheck = staleConnectionCheck;
+    }
+
+    /**
+     * Gets max number of queued request log records.
+     *
+     * @return record count or null.
+     */
+    public Integer getLogQueueCapacity() {
+        return logQueueCapacity;
+    }
+
+    /**
+     * Sets max number of queued request log records.
+     *
+     * @param logQueueCapacity record count.
+     */
+    public void setLogQueueCapacity(final Integer logQueueCapacity) {
+        this.logQueueCapacity = logQueueCapacity;
+    }
+
+    /**
+     * Gets policy applied when the request log queue is full.
+     *
+     * @return policy or null.
+     */
+    public QueueFullPolicy getLogQueueFullPolicy() {
+        return logQueueFullPolicy;
+    }
+
+    /**
+     * Sets policy applied when the request log queue is full.
+     *
+     * @param logQueueFullPolicy BLOCK, DROP or SAMPLE.
+     */
+    public void setLogQueueFullPolicy(final QueueFullPolicy logQueueFullPolicy) {
+        this.logQueueFullPolicy = logQueueFullPolicy;
+    }
+
+    /**
+     * Gets max number of request log records written per batch.
+     *
+     * @return record count or null.
+     */
+    public Integer getLogBatchSize() {
+        return logBatchSize;
+    }
+
+    /**
+     * Sets max number of request log records written per batch.
+     *
+     * @param logBatchSize record count.
+     */
+    public void setLogBatchSize(final Integer logBatchSize) {
+        this.logBatchSize = logBatchSize;
+    }
+
+    /**
+     * Gets sampling rate for the SAMPLE queue policy.
+     *
+     * @return rate or null.
+     */
+    public Integer getLogSampleRate() {
+        return logSampleRate;
+    }
+
+    /**
+     * Sets sampling rate for the SAMPLE queue policy.
+     *
+     * @param logSampleRate keep one of every n overflowing records.
+     */
+    public void setLogSampleRate(final Integer logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    /**
+     * Gets max number of response body bytes kept for logs and error messages.
+     *
+     * @return limit in bytes or null.
+     */
+    public Integer getResponseCaptureLimit() {
+        return responseCaptureLimit;
+    }
+
+    /**
+     * Sets max number of response body bytes kept for logs and error messages.
+     *
+     * @param responseCaptureLimit limit in bytes.
+     */
+    public void setResponseCaptureLimit(final Integer responseCaptureLimit) {
+        this.responseCaptureLimit = responseCaptureLimit;
+    }
+
+    /**
+     * Gets max number of response body bytes returned to the caller.
+     *
+     * @return limit in bytes or null.
+     */
+    public Integer getResponseBodyLimit() {
+        return responseBodyLimit;
+    }
+
+    /**
+     * Sets max number of response body bytes returned to the caller.
+     *
+     * @param responseBodyLimit limit in bytes.
+     */
+    public void setResponseBodyLimit(final Integer responseBodyLimit) {
+        this.responseBodyLimit = responseBodyLimit;
+    }
+
+    /**
+     * Gets path of the errors array checked by checkNoErrors.
+     *
+     * @return path or null.
+     */
+    public String getErrorsPath() {
+        return errorsPath;
+    }
+
+    /**
+     * Sets path of the errors array checked by checkNoErrors.
+     *
+     * @param errorsPath dot-separated path, e.g. {@code extensions.errors}.
+     */
+    public void setErrorsPath(final String errorsPath) {
+        this.errorsPath = errorsPath;
+    }
+
+    /**
+     * Gets the Prometheus metrics export file.
+     *
+     * @return path or null.
+     */
+    public String getMetricsPrometheusFile() {
+        return metricsPrometheusFile;
+    }
+
+    /**
+     * Sets the Prometheus metrics export file.
+     *
+     * @param metricsPrometheusFile file path.
+     */
+    public void setMetricsPrometheusFile(final String metricsPrometheusFile) {
+        this.metricsPrometheusFile = metricsPrometheusFile;
+    }
+
+    /**
+     * Gets the JSON metrics export file.
+     *
+     * @return path or null.
+     */
+    public String getMetricsJsonFile() {
+        return metricsJsonFile;
+    }
+
+    /**
+     * Sets the JSON metrics export file.
+     *
+     * @param metricsJsonFile file path.
+     */
+    public void setMetricsJsonFile(final String metricsJsonFile) {
+        this.metricsJsonFile = metricsJsonFile;
+    }
+
+    /**
+     * Gets the max number of attempts per request.
+     *
+     * @return max attempts or null.
+     */
+    public Integer getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    /**
+     * Sets the max number of attempts per request.
+     *
+     * @param retryMaxAttempts max attempts.
+     */
+    public void setRetryMaxAttempts(final Integer retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    /**
+     * Gets the status codes that are retried.
+     *
+     * @return status codes or null.
+     */
+    public List<Integer> getRetryStatusCodes() {
+        return retryStatusCodes;
+    }
+
+    /**
+     * Sets the status codes that are retried.
+     *
+     * @param retryStatusCodes status codes.
+     */
+    public void setRetryStatusCodes(final List<Integer> retryStatusCodes) {
+        this.retryStatusCodes = retryStatusCodes;
+    }
+
+    /**
+     * Gets the initial retry backoff in milliseconds.
+     *
+     * @return backoff or null.
+     */
+    public Integer getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    /**
+     * Sets the initial retry backoff in milliseconds.
+     *
+     * @param retryBackoff backoff in milliseconds.
+     */
+    public void setRetryBackoff(final Integer retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Gets the max retry backoff in milliseconds.
+     *
+     * @return max backoff or null.
+     */
+    public Integer getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    /**
+     * Sets the max retry backoff in milliseconds.
+     *
+     * @param retryMaxBackoff max backoff in milliseconds.
+     */
+    public void setRetryMaxBackoff(final Integer retryMaxBackoff) {
+        this.retryMaxBackoff = retryMaxBackoff;
+    }
+
+    /**
+     * Gets the max total retry time in milliseconds.
+     *
+     * @return max total time or null.
+     */
+    public Integer getRetryMaxTotalTime() {
+        return retryMaxTotalTime;
+    }
+
+    /**
+     * Sets the max total retry time in milliseconds.
+     *
+     * @param retryMaxTotalTime max total time in milliseconds.
+     */
+    public void setRetryMaxTotalTime(final Integer retryMaxTotalTime) {
+        this.retryMaxTotalTime = retryMaxTotalTime;
+    }
+
+    /**
+     * Checks whether slow GET requests are hedged.
+     *
+     * @return hedging flag or null.
+     */
+    public Boolean getRetryHedging() {
+        return retryHedging;
+    }
+
+    /**
+     * Sets whether slow GET requests are hedged.
+     *
+     * @param retryHedging true to enable hedging.
+     */
+    public void setRetryHedging(final Boolean retryHedging) {
+        this.retryHedging = retryHedging;
+    }
+
+    /**
+     * Gets the rate limits per host or URL pattern.
+     *
+     * @return rate limits or null.
+     */
+    public Map<String, String> getRateLimits() {
+        return rateLimits;
+    }
+
+    /**
+     * Sets the rate limits per host or URL pattern.
+     *
+     * @param rateLimits rate per host or URL pattern.
+     */
+    public void setRateLimits(final Map<String, String> rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    /**
+     * Gets the rate limit burst.
+     *
+     * @return burst or null.
+     */
+    public Integer getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    /**
+     * Sets the rate limit burst.
+     *
+     * @param rateLimitBurst number of requests let through at once.
+     */
+    public void setRateLimitBurst(final Integer rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    /**
+     * Returns whether GET responses are cached.
+     *
+     * @return true if the shared response cache is enabled.
+     */
+    public Boolean getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Enables the shared response cache for GET requests.
+     *
+     * @param responseCache true to cache GET responses.
+     */
+    public void setResponseCache(final Boolean responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Returns the size limit of the shared response cache.
+     *
+     * @return max bytes of cached responses.
+     */
+    public Long getResponseCacheMaxBytes() {
+        return responseCacheMaxBytes;
+    }
+
+    /**
+     * Sets the size limit of the shared response cache.
+     *
+     * @param responseCacheMaxBytes max bytes of cached responses.
+     */
+    public void setResponseCacheMaxBytes(final Long responseCacheMaxBytes) {
+        this.responseCacheMaxBytes = responseCacheMaxBytes;
+    }
+
+    /**
+     * Returns the HTTP engine.
+     *
+     * @return REST_ASSURED or JDK.
+     */
+    public TransportType getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets the HTTP engine.
+     *
+     * @param transport REST_ASSURED or JDK.
+     */
+    public void setTransport(final TransportType transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Returns the HTTP version of the JDK transport.
+     *
+     * @return HTTP_2 or HTTP_1_1.
+     */
+    public HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    /**
+     * Sets the HTTP version of the JDK transport.
+     *
+     * @param httpVersion HTTP_2 or HTTP_1_1.
+     */
+    public void setHttpVersion(final HttpClient.Version httpVersion) {
+        this.httpVersion = httpVersion;
+    }
+
+    /**
+     * Returns the number of parallel ranged requests of a download.
+     *
+     * @return number of connections.
+     */
+    public Integer getDownloadConnections() {
+        return downloadConnections;
+    }
+
+    /**
+     * Sets the number of parallel ranged requests of a download.
+     *
+     * @param downloadConnections number of connections.
+     */
+    public void setDownloadConnections(final Integer downloadConnections) {
+        this.downloadConnections = downloadConnections;
+    }
+
+    /**
+     * Returns the compression of request bodies.
+     *
+     * @return GZIP, DEFLATE or null.
+     */
+    public ContentEncoding getRequestCompression() {
+        return requestCompression;
+    }
+
+    /**
+     * Sets the compression of request bodies.
+     *
+     * @param requestCompression GZIP, DEFLATE or null.
+     */
+    public void setRequestCompression(final ContentEncoding requestCompression) {
+        this.requestCompression = requestCompression;
+    }
+
+    /**
+     * Returns the min size of a request body to compress.
+     *
+     * @return size in bytes.
+     */
+    public Integer getRequestCompressionMinBytes() {
+        return requestCompressionMinBytes;
+    }
+
+    /**
+     * Sets the min size of a request body to compress.
+     *
+     * @param requestCompressionMinBytes size in bytes.
+     */
+    public void setRequestCompressionMinBytes(final Integer requestCompressionMinBytes) {
+        this.requestCompressionMinBytes = requestCompressionMinBytes;
+    }
+
+    /**
+     * Gets the number of connections to open ahead of time per host.
+     *
+     * @return connections per host URL or null.
+     */
+    public Map<String, Integer> getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Sets the number of connections to open ahead of time per host.
+     *
+     * @param warmup connections per host URL, e.g. {@code https://api.example.com}.
+     */
+    public void setWarmup(final Map<String, Integer> warmup) {
+        this.warmup = warmup;
+    }
 }
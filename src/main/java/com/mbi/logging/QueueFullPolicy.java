@@ -0,0 +1,22 @@
+package com.mbi.logging;
+
+/**
+ * Decides what happens to a request log record when the logging queue is full.
+ */
+public enum QueueFullPolicy {
+
+    /**
+     * The request thread waits until the writer frees up space. No record is lost.
+     */
+    BLOCK,
+
+    /**
+     * The record is dropped. Request threads never wait for logging.
+     */
+    DROP,
+
+    /**
+     * Every n-th overflowing record is kept (waiting for space), the others are dropped.
+     */
+    SAMPLE
+}
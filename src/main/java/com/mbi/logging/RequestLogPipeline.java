@@ -0,0 +1,251 @@
+package com.mbi.logging;
+
+import com.mbi.config.ConfigurationCache;
+import com.mbi.config.YamlConfiguration;
+import com.mbi.utils.RequestConfigJsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous request/response log pipeline for the {@code file-logger}.
+ * <p>
+ * Request threads only enqueue a {@link RequestLogRecord} into a bounded queue. A background daemon thread
+ * drains the queue in batches, formats the records and writes them; a record that fails to be written is
+ * skipped and reported. When the queue is full, the configured {@link QueueFullPolicy} decides whether
+ * the request thread waits or the record is dropped.
+ * <p>
+ * Settings are read from {@code http-request.yml}:
+ * - logQueueCapacity: max queued records (default 10000)
+ * - logQueueFullPolicy: BLOCK, DROP or SAMPLE (default BLOCK)
+ * - logBatchSize: max records written per batch (default 256)
+ * - logSampleRate: with SAMPLE, keep one of every n overflowing records (default 10)
+ */
+public final class RequestLogPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("file-logger");
+    /**
+     * Reports failures of the pipeline itself, since the file-logger may be what is failing.
+     */
+    private static final Logger PIPELINE_LOGGER = LoggerFactory.getLogger(RequestLogPipeline.class);
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private final BlockingQueue<RequestLogRecord> queue;
+    private final QueueFullPolicy policy;
+    private final int batchSize;
+    private final int sampleRate;
+    private final Consumer<RequestLogRecord> sink;
+    private final AtomicLong overflows = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Lock writeLock = new ReentrantLock();
+
+    /* default */
+    RequestLogPipeline(final int capacity, final QueueFullPolicy policy, final int batchSize, final int sampleRate,
+                       final Consumer<RequestLogRecord> sink) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sink = sink;
+    }
+
+    /**
+     * Checks whether request logging is enabled, so callers can skip building records altogether.
+     *
+     * @return true if the {@code file-logger} logs at INFO level.
+     */
+    public static boolean isEnabled() {
+        return LOGGER.isInfoEnabled();
+    }
+
+    /**
+     * Queues a record for the background writer.
+     *
+     * @param logRecord performed request.
+     */
+    public static void submit(final RequestLogRecord logRecord) {
+        Holder.INSTANCE.enqueue(logRecord);
+    }
+
+    /**
+     * Writes all queued records on the calling thread, e.g. before reading the log file.
+     */
+    public static void flush() {
+        Holder.INSTANCE.drain();
+    }
+
+    /* default */
+    void enqueue(final RequestLogRecord logRecord) {
+        if (!queue.offer(logRecord)) {
+            final boolean keep = policy == QueueFullPolicy.BLOCK
+                    || policy == QueueFullPolicy.SAMPLE && overflows.incrementAndGet() % sampleRate == 0;
+            if (keep) {
+                putUninterruptibly(logRecord);
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    /* default */
+    void drain() {
+        final List<RequestLogRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /* default */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /* default */
+    void start() {
+        final Thread writer = new Thread(this::writeLoop, "http-request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "http-request-log-flush"));
+    }
+
+    private void writeLoop() {
+        final List<RequestLogRecord> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // Wait for the first record, then take whatever else is already queued
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final List<RequestLogRecord> batch) {
+        // flush() may write on another thread while the writer thread is busy
+        writeLock.lock();
+        try {
+            for (final RequestLogRecord logRecord : batch) {
+                accept(logRecord);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        final long droppedRecords = dropped.sumThenReset();
+        if (droppedRecords > 0) {
+            LOGGER.warn("Dropped {} request log records: logging queue is full", droppedRecords);
+        }
+    }
+
+    /**
+     * Writes a single record; a record that can't be formatted or written is skipped, so the writer thread
+     * keeps draining the queue and request threads never block on a queue that nobody empties.
+     */
+    private void accept(final RequestLogRecord logRecord) {
+        try {
+            sink.accept(logRecord);
+        } catch (RuntimeException | Error e) {
+            PIPELINE_LOGGER.warn("Skipped request log record of thread {}: unable to write it",
+                    logRecord.threadName(), e);
+        }
+    }
+
+    private void putUninterruptibly(final RequestLogRecord logRecord) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(logRecord);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int valueOrDefault(final Integer value, final int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Lazily created pipeline configured from the default YAML file.
+     */
+    private static final class Holder {
+        private static final RequestLogPipeline INSTANCE = create();
+
+        private static RequestLogPipeline create() {
+            final YamlConfiguration configuration = ConfigurationCache.get(ConfigurationCache.DEFAULT_FILE_NAME);
+            final QueueFullPolicy policy = configuration.getLogQueueFullPolicy();
+
+            final RequestLogPipeline pipeline = new RequestLogPipeline(
+                    valueOrDefault(configuration.getLogQueueCapacity(), DEFAULT_CAPACITY),
+                    policy != null ? policy : QueueFullPolicy.BLOCK,
+                    valueOrDefault(configuration.getLogBatchSize(), DEFAULT_BATCH_SIZE),
+                    valueOrDefault(configuration.getLogSampleRate(), DEFAULT_SAMPLE_RATE),
+                    new RecordWriter());
+            pipeline.start();
+            return pipeline;
+        }
+    }
+
+    /**
+     * Formats and writes records, reusing one buffer and JSON writer; only called while holding the write lock.
+     * <p>
+     * The writer thread temporarily takes the name of the request thread, so that {@code %thread}
+     * in the log pattern still shows where the request was performed.
+     */
+    private static final class RecordWriter implements Consumer<RequestLogRecord> {
+
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+        private final RequestConfigJsonWriter jsonWriter = new RequestConfigJsonWriter();
+        private StringBuilder message = new StringBuilder(1024);
+
+        @Override
+        public void accept(final RequestLogRecord logRecord) {
+            message.setLength(0);
+            message.append("Request: ");
+            try {
+                jsonWriter.write(logRecord.config(), message);
+            } catch (IOException e) {
+                // StringBuilder never throws
+                throw new UncheckedIOException(e);
+            }
+            message.append("\nResponse: ").append(logRecord.responseText()).append('\n');
+
+            final Thread writer = Thread.currentThread();
+            final String writerName = writer.getName();
+            writer.setName(logRecord.threadName());
+            try {
+                LOGGER.info(message.toString());
+            } finally {
+                writer.setName(writerName);
+            }
+
+            if (message.capacity() > MAX_RETAINED_CAPACITY) {
+                // Don't keep a multi-megabyte buffer around after a single large payload
+                message = new StringBuilder(1024);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mbi.logging;
+
+import com.mbi.config.RequestConfig;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact, unformatted snapshot of a performed request, queued for the background log writer.
+ * <p>
+ * Holds references only: serialization of the config and decoding of the body happen on the writer thread.
+ *
+ * @param threadName   name of the thread that performed the request.
+ * @param config       request configuration; not modified after the request is performed.
+ * @param responseBody raw response body, or null if there was no response.
+ */
+public record RequestLogRecord(String threadName, RequestConfig config, byte[] responseBody) {
+
+    /**
+     * Decodes the response body for the log line.
+     *
+     * @return response body as text, or "null" if there was no response.
+     */
+    public String responseText() {
+        return responseBody == null ? "null" : new String(responseBody, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mbi.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single endpoint: HTTP method plus URL template.
+ */
+public final class EndpointMetrics {
+
+    private final String httpMethod;
+    private final String urlTemplate;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+
+    /* default */
+    EndpointMetrics(final String httpMethod, final String urlTemplate) {
+        this.httpMethod = httpMethod;
+        this.urlTemplate = urlTemplate;
+    }
+
+    /* default */
+    void record(final long durationNanos, final long bodyBytes, final boolean failed) {
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        responseBytes.add(bodyBytes);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Returns the HTTP method.
+     *
+     * @return method name, e.g. GET.
+     */
+    public String method() {
+        return httpMethod;
+    }
+
+    /**
+     * Returns the URL template: the URL before path parameters are substituted, without query string.
+     *
+     * @return URL template.
+     */
+    public String url() {
+        return urlTemplate;
+    }
+
+    /**
+     * Returns the number of performed requests.
+     *
+     * @return count.
+     */
+    public long count() {
+        return histogram.count();
+    }
+
+    /**
+     * Returns the number of requests that failed: an exception or a failed status code or errors check.
+     *
+     * @return error count.
+     */
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns the total size of received response bodies.
+     *
+     * @return bytes.
+     */
+    public long bytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * Returns the latency histogram (time until the response is received), in microseconds.
+     *
+     * @return histogram.
+     */
+    public LatencyHistogram latency() {
+        return histogram;
+    }
+}
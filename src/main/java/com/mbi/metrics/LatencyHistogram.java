@@ -0,0 +1,138 @@
+package com.mbi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values are recorded in microseconds. Values below 64 µs get a bucket each; every following power-of-two
+ * range is split into 32 buckets, so a reported percentile is at most ~3% above the recorded value.
+ * Recording is a couple of atomic increments, so it can be shared by all request threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_SHIFT = 35;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Records a single value.
+     *
+     * @param micros latency in microseconds; negative values are recorded as 0.
+     */
+    public void record(final long micros) {
+        final long value = Math.max(0, micros);
+        buckets.incrementAndGet(indexOf(value));
+        recorded.increment();
+        total.add(value);
+        if (value > maximum.get()) {
+            maximum.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return count.
+     */
+    public long count() {
+        return recorded.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return max in microseconds, 0 if empty.
+     */
+    public long max() {
+        return maximum.get();
+    }
+
+    /**
+     * Returns the sum of recorded values.
+     *
+     * @return sum in microseconds.
+     */
+    public long sum() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the arithmetic mean of recorded values.
+     *
+     * @return mean in microseconds, 0 if empty.
+     */
+    public double mean() {
+        final long values = count();
+        return values == 0 ? 0 : (double) sum() / values;
+    }
+
+    /**
+     * Returns the value at the given percentile, e.g. 50 for the median or 99 for p99.
+     *
+     * @param percentile percentile between 0 and 100.
+     * @return upper bound of the bucket holding the percentile (never above max), in microseconds; 0 if empty.
+     */
+    public long percentile(final double percentile) {
+        final long values = count();
+        final long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * values));
+        final long maxValue = max();
+
+        long result = values == 0 ? 0 : maxValue;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT && seen < rank; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                result = Math.min(upperBound(i), maxValue);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the bucket of a value.
+     */
+    /* default */
+    static int indexOf(final long value) {
+        final int index;
+        if (value < LINEAR_BUCKETS) {
+            index = (int) value;
+        } else {
+            // value >> shift keeps the 6 most significant bits: 32..63
+            final int shift = Math.min(63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS, MAX_SHIFT);
+            final long subBucket = Math.min((value >> shift) - SUB_BUCKETS, SUB_BUCKETS - 1);
+            index = LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) subBucket;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the largest value that falls into the bucket.
+     */
+    /* default */
+    static long upperBound(final int index) {
+        final long bound;
+        if (index < LINEAR_BUCKETS) {
+            bound = index;
+        } else {
+            final int offset = index - LINEAR_BUCKETS;
+            final int shift = offset / SUB_BUCKETS + 1;
+            final long subBucket = offset % SUB_BUCKETS + SUB_BUCKETS;
+            bound = ((subBucket + 1) << shift) - 1;
+        }
+
+        return bound;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mbi.metrics;
+
+import com.google.gson.stream.JsonWriter;
+import com.mbi.config.ConfigurationCache;
+import com.mbi.config.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the {@link MetricsRegistry} in Prometheus text format or as JSON.
+ * <p>
+ * Latencies are exported as percentiles: seconds in Prometheus (summary), milliseconds in JSON.
+ */
+public final class MetricsExporter {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.95, 0.99};
+    private static final double MICROS_PER_SECOND = 1_000_000.0;
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private MetricsExporter() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Writes the files configured in {@code http-request.yml} (metricsPrometheusFile, metricsJsonFile), if any.
+     */
+    public static void exportConfigured() {
+        final YamlConfiguration configuration = ConfigurationCache.get(ConfigurationCache.DEFAULT_FILE_NAME);
+        if (configuration.getMetricsPrometheusFile() != null) {
+            export(Path.of(configuration.getMetricsPrometheusFile()), MetricsExporter::writePrometheus);
+        }
+        if (configuration.getMetricsJsonFile() != null) {
+            export(Path.of(configuration.getMetricsJsonFile()), MetricsExporter::writeJson);
+        }
+    }
+
+    /**
+     * Writes all endpoints in Prometheus text exposition format.
+     *
+     * @param out destination.
+     * @throws IOException if writing fails.
+     */
+    public static void writePrometheus(final Appendable out) throws IOException {
+        final List<EndpointMetrics> endpoints = MetricsRegistry.endpoints();
+
+        header(out, "http_request_requests_total", "counter", "Performed requests.");
+        for (final EndpointMetrics metrics : endpoints) {
+            sample(out, "http_request_requests_total", labels(metrics), metrics.count());
+        }
+        header(out, "http_request_errors_total", "counter", "Requests that threw or failed validation.");
+        for (final EndpointMetrics metrics : endpoints) {
+            sample(out, "http_request_errors_total", labels(metrics), metrics.errorCount());
+        }
+        header(out, "http_request_response_bytes_total", "counter", "Received response body bytes.");
+        for (final EndpointMetrics metrics : endpoints) {
+            sample(out, "http_request_response_bytes_total", labels(metrics), metrics.bytes());
+        }
+        header(out, "http_request_duration_seconds", "summary", "Time until the response is received.");
+        for (final EndpointMetrics metrics : endpoints) {
+            final String labels = labels(metrics);
+            final LatencyHistogram latency = metrics.latency();
+            for (final double quantile : QUANTILES) {
+                sample(out, "http_request_duration_seconds", labels + ",quantile=\"" + quantile + "\"",
+                        latency.percentile(quantile * 100) / MICROS_PER_SECOND);
+            }
+            sample(out, "http_request_duration_seconds_sum", labels, latency.sum() / MICROS_PER_SECOND);
+            sample(out, "http_request_duration_seconds_count", labels, latency.count());
+        }
+    }
+
+    /**
+     * Writes all endpoints as a JSON array.
+     *
+     * @param out destination.
+     * @throws IOException if writing fails.
+     */
+    public static void writeJson(final Writer out) throws IOException {
+        final JsonWriter json = new JsonWriter(out);
+        json.setIndent("  ");
+        json.beginArray();
+        for (final EndpointMetrics metrics : MetricsRegistry.endpoints()) {
+            final LatencyHistogram latency = metrics.latency();
+            json.beginObject()
+                    .name("method").value(metrics.method())
+                    .name("url").value(metrics.url())
+                    .name("count").value(metrics.count())
+                    .name("errors").value(metrics.errorCount())
+                    .name("bytes").value(metrics.bytes())
+                    .name("latencyMs").beginObject()
+                    .name("mean").value(latency.mean() / MICROS_PER_MILLI);
+            for (final double quantile : QUANTILES) {
+                json.name(String.format(Locale.ROOT, "p%.0f", quantile * 100))
+                        .value(latency.percentile(quantile * 100) / MICROS_PER_MILLI);
+            }
+            json.name("max").value(latency.max() / MICROS_PER_MILLI)
+                    .endObject()
+                    .endObject();
+        }
+        json.endArray();
+        json.flush();
+    }
+
+    private static void export(final Path file, final MetricsWriter writer) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to export metrics to " + file, e);
+        }
+    }
+
+    private static void header(final Appendable out, final String name, final String type, final String help)
+            throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final Appendable out, final String name, final String labels, final Number value)
+            throws IOException {
+        out.append(name).append('{').append(labels).append("} ").append(String.valueOf(value)).append('\n');
+    }
+
+    private static String labels(final EndpointMetrics metrics) {
+        return "method=\"" + escape(metrics.method()) + "\",url=\"" + escape(metrics.url()) + '"';
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Export format.
+     */
+    @FunctionalInterface
+    private interface MetricsWriter {
+        void write(Writer out) throws IOException;
+    }
+}
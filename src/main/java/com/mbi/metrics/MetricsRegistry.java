@@ -0,0 +1,80 @@
+package com.mbi.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide, lock-free registry of request metrics per endpoint.
+ * <p>
+ * Every performed request is recorded under its HTTP method and URL template: the URL as passed to the request
+ * method, before path parameters are substituted and without query string, so the number of endpoints stays
+ * bounded. Metrics can be read in-process or exported with {@link MetricsExporter}.
+ */
+public final class MetricsRegistry {
+
+    private static final Map<String, EndpointMetrics> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Records a performed request.
+     *
+     * @param method        HTTP method.
+     * @param url           URL template, e.g. {@code https://host/users/{id}}.
+     * @param durationNanos time until the response was received.
+     * @param responseBytes size of the response body.
+     * @param failed        true if the request threw or a validation failed.
+     */
+    public static void record(final String method, final String url, final long durationNanos,
+                              final long responseBytes, final boolean failed) {
+        final String template = toTemplate(url);
+        final String key = method + ' ' + template;
+
+        EndpointMetrics metrics = ENDPOINTS.get(key);
+        if (metrics == null) {
+            metrics = ENDPOINTS.computeIfAbsent(key, k -> new EndpointMetrics(method, template));
+        }
+        metrics.record(durationNanos, responseBytes, failed);
+    }
+
+    /**
+     * Returns metrics of a single endpoint.
+     *
+     * @param method HTTP method.
+     * @param url    URL template.
+     * @return metrics, or null if no request was recorded.
+     */
+    public static EndpointMetrics get(final String method, final String url) {
+        return ENDPOINTS.get(method + ' ' + toTemplate(url));
+    }
+
+    /**
+     * Returns metrics of all endpoints, ordered by URL and method.
+     *
+     * @return endpoint metrics.
+     */
+    public static List<EndpointMetrics> endpoints() {
+        return ENDPOINTS.values().stream()
+                .sorted(Comparator.comparing(EndpointMetrics::url).thenComparing(EndpointMetrics::method))
+                .toList();
+    }
+
+    /**
+     * Drops all recorded metrics.
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+    }
+
+    /**
+     * Cuts off the query string, which often carries ids.
+     */
+    private static String toTemplate(final String url) {
+        final int query = url == null ? -1 : url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : String.valueOf(url);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mbi.metrics;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * TestNG listener that exports request metrics when a suite finishes, see {@link MetricsExporter#exportConfigured()}.
+ * <p>
+ * Registered automatically through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class MetricsSuiteListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(final ISuite suite) {
+        MetricsExporter.exportConfigured();
+    }
+}
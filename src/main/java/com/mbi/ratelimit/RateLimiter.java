@@ -0,0 +1,149 @@
+package com.mbi.ratelimit;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm (GCRA).
+ * <p>
+ * The whole bucket state is a single timestamp, the theoretical arrival time of the next permit,
+ * advanced with a compare-and-set: permits are handed out in arrival order without locks, and a caller
+ * that has to wait knows for how long right away. Up to {@code burst} permits are available at once.
+ */
+public final class RateLimiter {
+
+    private static final Runnable NOTHING = () -> {
+        // The delay is all that's needed
+    };
+
+    private final double permitsPerSecond;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextArrival = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a limiter.
+     *
+     * @param permitsPerSecond sustained rate.
+     * @param burst            max number of permits available at once, at least 1.
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit: " + permitsPerSecond + "/s, burst " + burst);
+        }
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    /**
+     * Parses a rate such as {@code 50/s}, {@code 600/m} or {@code 1000/h}.
+     *
+     * @param rate  number of permits per second, minute or hour.
+     * @param burst max number of permits available at once.
+     * @return new limiter.
+     */
+    public static RateLimiter parse(final String rate, final int burst) {
+        final String[] parts = rate.trim().toLowerCase(Locale.ROOT).split("\\s*/\\s*", 2);
+        final TimeUnit unit = parts.length == 1 ? TimeUnit.SECONDS : switch (parts[1]) {
+            case "s", "sec", "second" -> TimeUnit.SECONDS;
+            case "m", "min", "minute" -> TimeUnit.MINUTES;
+            case "h", "hour" -> TimeUnit.HOURS;
+            default -> throw new IllegalArgumentException("Unknown rate unit: " + rate);
+        };
+
+        try {
+            return new RateLimiter(Double.parseDouble(parts[0]) / unit.toSeconds(1), burst);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rate: " + rate, e);
+        }
+    }
+
+    /**
+     * Returns the sustained rate.
+     *
+     * @return permits per second.
+     */
+    public double rate() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Reserves a permit without waiting for it.
+     *
+     * @return nanoseconds until the permit may be used; 0 if it's available now.
+     */
+    public long reserve() {
+        final long now = System.nanoTime();
+        long arrival;
+        long wait;
+        long next;
+        do {
+            arrival = nextArrival.get();
+            // Compare by difference, nanoTime may overflow
+            final long start = arrival - now > 0 ? arrival : now;
+            wait = Math.max(0, start - toleranceNanos - now);
+            next = start + intervalNanos;
+        } while (!nextArrival.compareAndSet(arrival, next));
+
+        return wait;
+    }
+
+    /**
+     * Takes a permit only if it's available now.
+     *
+     * @return true if the permit was taken.
+     */
+    public boolean tryAcquire() {
+        final long now = System.nanoTime();
+        boolean acquired = false;
+        boolean done = false;
+        while (!done) {
+            final long arrival = nextArrival.get();
+            final long start = arrival - now > 0 ? arrival : now;
+            if (start - toleranceNanos - now > 0) {
+                done = true;
+            } else {
+                acquired = nextArrival.compareAndSet(arrival, start + intervalNanos);
+                done = acquired;
+            }
+        }
+
+        return acquired;
+    }
+
+    /**
+     * Takes a permit, sleeping until it's available. On a virtual thread the carrier thread is released meanwhile.
+     *
+     * @throws IllegalStateException if the thread is interrupted while waiting.
+     */
+    public void acquire() {
+        final long wait = reserve();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a rate limit permit", e);
+            }
+        }
+    }
+
+    /**
+     * Takes a permit without blocking any thread while waiting.
+     *
+     * @param executor executor that completes the returned future when the permit is available.
+     * @return future completed when the permit may be used; already completed if it's available now.
+     */
+    public CompletableFuture<Void> acquireAsync(final Executor executor) {
+        final long wait = reserve();
+        return wait > 0
+                ? CompletableFuture.runAsync(NOTHING, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS,
+                        executor))
+                : CompletableFuture.completedFuture(null);
+    }
+}
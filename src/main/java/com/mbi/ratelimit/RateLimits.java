@@ -0,0 +1,190 @@
+package com.mbi.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side rate limits per host or URL pattern, declared in {@code http-request.yml}.
+ * <pre>{@code
+ * rateLimits:
+ *   api.staging.example.com: 50/s           # all requests to the host (optionally host:port)
+ *   "https://*.example.com/search*": 600/m  # URLs matching a pattern, * = any characters
+ * rateLimitBurst: 10                        # permits available at once (default 1)
+ * }</pre>
+ * Patterns are checked first, in declaration order, then hosts; a request is limited by the first match only.
+ * Rules are matched against the absolute URL: a relative request URL is first resolved against the base URI
+ * of its specification (see {@link com.mbi.utils.RequestUrls}).
+ * Each rule has one {@link RateLimiter} shared by all matching requests in the process. The host rule is
+ * resolved once per {@code host[:port]}, so URLs with IDs or query strings concatenated in don't grow the cache;
+ * patterns are matched against every URL.
+ */
+public final class RateLimits {
+
+    /**
+     * No limits.
+     */
+    public static final RateLimits NONE = new RateLimits(Map.of(), 1);
+
+    private static final Map<Key, RateLimits> CONFIGURED = new ConcurrentHashMap<>();
+
+    private final List<Rule> patterns = new ArrayList<>();
+    private final Map<String, RateLimiter> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Optional<RateLimiter>> resolvedHosts = new ConcurrentHashMap<>();
+
+    private RateLimits(final Map<String, String> rules, final int burst) {
+        rules.forEach((key, rate) -> {
+            final RateLimiter limiter = RateLimiter.parse(rate, burst);
+            if (key.indexOf('/') >= 0 || key.indexOf('*') >= 0) {
+                patterns.add(new Rule(toPattern(key), limiter));
+            } else {
+                hosts.put(key.toLowerCase(Locale.ROOT), limiter);
+            }
+        });
+    }
+
+    /**
+     * Returns the shared limits for the given rules; equal rules share the same limiters.
+     *
+     * @param rules rate per host or URL pattern, or null.
+     * @param burst permits available at once, or null for 1.
+     * @return rate limits; {@link #NONE} if there are no rules.
+     */
+    public static RateLimits of(final Map<String, String> rules, final Integer burst) {
+        final RateLimits limits;
+        if (rules == null || rules.isEmpty()) {
+            limits = NONE;
+        } else {
+            final Key key = new Key(rules, Objects.requireNonNullElse(burst, 1));
+            final RateLimits configured = CONFIGURED.get(key);
+            limits = configured != null
+                    ? configured
+                    : CONFIGURED.computeIfAbsent(key, k -> new RateLimits(k.rules(), k.burst()));
+        }
+
+        return limits;
+    }
+
+    /**
+     * Returns the limiter of the first rule that matches the URL.
+     *
+     * @param url absolute request URL.
+     * @return limiter, or null if the URL is not limited.
+     */
+    public RateLimiter forUrl(final String url) {
+        if (this == NONE) {
+            return null;
+        }
+
+        final RateLimiter limiter = matchPattern(url);
+        return limiter != null ? limiter : forAuthority(authority(url));
+    }
+
+    /**
+     * Returns the number of hosts whose rule has been resolved.
+     */
+    /* default */
+    int resolvedHostCount() {
+        return resolvedHosts.size();
+    }
+
+    /**
+     * Takes a permit for the URL, sleeping until it's available.
+     *
+     * @param url absolute request URL.
+     */
+    public void acquire(final String url) {
+        final RateLimiter limiter = forUrl(url);
+        if (limiter != null) {
+            limiter.acquire();
+        }
+    }
+
+    /**
+     * Takes a permit for the URL without blocking any thread while waiting.
+     *
+     * @param url      absolute request URL.
+     * @param executor executor that completes the returned future.
+     * @return future completed when the request may be sent.
+     */
+    public CompletableFuture<Void> acquireAsync(final String url, final Executor executor) {
+        final RateLimiter limiter = forUrl(url);
+        return limiter != null ? limiter.acquireAsync(executor) : CompletableFuture.completedFuture(null);
+    }
+
+    private RateLimiter matchPattern(final String url) {
+        RateLimiter limiter = null;
+        for (final Rule rule : patterns) {
+            if (rule.pattern().matcher(url).matches()) {
+                limiter = rule.limiter();
+                break;
+            }
+        }
+
+        return limiter;
+    }
+
+    /**
+     * Returns the limiter of {@code host:port}, or of the host alone; the number of hosts a process talks to
+     * is small, so the result is cached.
+     */
+    private RateLimiter forAuthority(final String authority) {
+        Optional<RateLimiter> limiter = resolvedHosts.get(authority);
+        if (limiter == null) {
+            limiter = resolvedHosts.computeIfAbsent(authority, a -> {
+                final RateLimiter hostLimiter = hosts.get(a);
+                return Optional.ofNullable(hostLimiter == null && a.indexOf(':') >= 0
+                        ? hosts.get(a.substring(0, a.lastIndexOf(':')))
+                        : hostLimiter);
+            });
+        }
+
+        return limiter.orElse(null);
+    }
+
+    /**
+     * Extracts {@code host[:port]} from the URL, without user info.
+     */
+    private static String authority(final String url) {
+        final int schemeEnd = url.indexOf("://");
+        final int start = schemeEnd >= 0 ? schemeEnd + 3 : 0;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+
+        final String authority = url.substring(start, end);
+        return authority.substring(authority.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static Pattern toPattern(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        for (final String part : glob.split("\\*", -1)) {
+            if (!regex.isEmpty()) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Limiter of a URL pattern.
+     */
+    private record Rule(Pattern pattern, RateLimiter limiter) {
+    }
+
+    /**
+     * Configured rules; limits with equal keys are shared.
+     */
+    private record Key(Map<String, String> rules, int burst) {
+    }
+}
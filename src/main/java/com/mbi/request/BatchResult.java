@@ -0,0 +1,66 @@
+package com.mbi.request;
+
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link RequestBatch} execution.
+ *
+ * @param responses responses in the order requests were added; null for failed requests.
+ * @param failures  failed requests, in the order they were added.
+ */
+public record BatchResult(List<Response> responses, List<Failure> failures) {
+
+    /**
+     * Makes defensive, read-only copies of the results.
+     */
+    public BatchResult {
+        responses = Collections.unmodifiableList(new ArrayList<>(responses));
+        failures = List.copyOf(failures);
+    }
+
+    /**
+     * Checks whether all requests succeeded.
+     *
+     * @return true if there are no failures.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Fails with a combined report if any request failed.
+     * <p>
+     * The report lists every failed request with its own error message, which for validation errors
+     * already contains the URL, response and curl. The first failure is the cause, the rest are suppressed.
+     *
+     * @throws AssertionError if at least one request failed.
+     */
+    public void assertNoFailures() {
+        if (isSuccessful()) {
+            return;
+        }
+
+        final var report = new StringBuilder(256)
+                .append(failures.size()).append(" of ").append(responses.size()).append(" requests failed");
+        for (final Failure failure : failures) {
+            report.append(String.format("%n%nRequest #%d: %s", failure.index(), failure.error().getMessage()));
+        }
+
+        final var error = new AssertionError(report.toString(), failures.getFirst().error());
+        failures.stream().skip(1).forEach(failure -> error.addSuppressed(failure.error()));
+        throw error;
+    }
+
+    /**
+     * Single failed request.
+     *
+     * @param index position of the request in the batch (0-based).
+     * @param error assertion error or exception thrown by the request.
+     */
+    public record Failure(int index, Throwable error) {
+    }
+}
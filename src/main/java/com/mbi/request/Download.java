@@ -0,0 +1,41 @@
+package com.mbi.request;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * File written by {@link com.mbi.HttpRequest#download}, with the digests computed while it was streamed to disk.
+ *
+ * @param file       downloaded file.
+ * @param statusCode response status code.
+ * @param size       file size in bytes.
+ * @param sha256     SHA-256 of the file as lowercase hex.
+ * @param crc32c     CRC32C of the file.
+ */
+public record Download(Path file, int statusCode, long size, String sha256, long crc32c) {
+
+    /**
+     * Checks the SHA-256 of the file, e.g. against the checksum published with an artifact.
+     *
+     * @param expected expected SHA-256 as hex, in any case.
+     * @return this download.
+     * @throws AssertionError if the digest doesn't match.
+     */
+    public Download assertSha256(final String expected) {
+        if (!sha256.equals(expected.trim().toLowerCase(Locale.ROOT))) {
+            throw new AssertionError(String.format("SHA-256 of %s: expected [%s] but found [%s]",
+                    file, expected, sha256));
+        }
+
+        return this;
+    }
+
+    /**
+     * Describes the download for logs instead of its content.
+     *
+     * @return size and digests, e.g. {@code <downloaded 1024 bytes, sha256=..., crc32c=...>}.
+     */
+    public String summary() {
+        return String.format("<downloaded %d bytes to %s, sha256=%s, crc32c=%08x>", size, file, sha256, crc32c);
+    }
+}
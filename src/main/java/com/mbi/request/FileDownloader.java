@@ -0,0 +1,237 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.logging.RequestLogPipeline;
+import com.mbi.logging.RequestLogRecord;
+import com.mbi.utils.CallerResolver;
+import com.mbi.utils.RequestAssertionError;
+import com.mbi.utils.RequestUrls;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+
+/**
+ * Streams a response body to a file.
+ * <p>
+ * The body is copied from the connection to a temporary file next to the target through a {@link FileChannel},
+ * updating the SHA-256 and CRC32C of the content on the way, so the memory used doesn't depend on its size.
+ * Once the whole body was received, the temporary file replaces the target; a failed download leaves
+ * the target untouched. The status code is checked before anything is written.
+ * <p>
+ * With more than one {@link RequestConfig#getDownloadConnections() download connection}, a body whose server
+ * accepts byte ranges is fetched in parallel parts instead (see {@link RangedDownloader}).
+ * <p>
+ * The download is recorded in the metrics and reported to listeners like any request; the log shows
+ * its size and digests instead of the body. A single-request download is sent once: the retry policy and
+ * the response cache don't apply.
+ */
+final class FileDownloader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final RequestConfig config;
+
+    /**
+     * Creates a downloader for a fully built request.
+     *
+     * @param config request configuration.
+     */
+    /* default */
+    FileDownloader(final RequestConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Downloads the response body to the target file.
+     *
+     * @param target file to write; missing directories are created.
+     * @return size and digests of the file.
+     * @throws RequestAssertionError if the status code is not expected.
+     * @throws UncheckedIOException  if the body can't be received or written.
+     */
+    /* default */
+    Download download(final Path target) {
+        final Path file = target.toAbsolutePath();
+        Download download = null;
+        try {
+            if (config.getDownloadConnections() > 1) {
+                download = new RangedDownloader(config).download(file);
+            }
+            if (download == null) {
+                download = stream(file);
+            }
+        } finally {
+            log(download);
+        }
+
+        return download;
+    }
+
+    /**
+     * Writes a temporary file next to the target and moves it over the target once it is complete;
+     * the temporary file is deleted if writing fails.
+     *
+     * @param target absolute path of the target file; missing directories are created.
+     * @param writer writes the temporary file.
+     * @return result of the writer.
+     * @throws IOException if the file can't be written or moved.
+     */
+    /* default */
+    static Download writeAtomically(final Path target, final PartWriter writer) throws IOException {
+        Files.createDirectories(target.getParent());
+        final Path part = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        boolean saved = false;
+        try {
+            final Download download = writer.write(part);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            saved = true;
+            return download;
+        } finally {
+            if (!saved) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    /**
+     * Downloads the body with a single request.
+     */
+    private Download stream(final Path target) {
+        // Waiting for the rate limit is not part of the request latency
+        config.getRateLimits().acquire(RequestUrls.resolve(config));
+
+        final long start = System.nanoTime();
+        Download download = null;
+        int statusCode = 0;
+        Throwable error = null;
+        try {
+            download = config.getTransport().receive(config, config.getRequestSpecification(),
+                    (response, body) -> save(response, body, target));
+            statusCode = download.statusCode();
+        } catch (RequestAssertionError e) {
+            statusCode = e.getResponse().statusCode();
+            error = e;
+            throw e;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            HttpRequestPerformer.report(config, 1, false, start, System.nanoTime(),
+                    Transfer.streamed(config, statusCode, download == null ? 0 : download.size()), error);
+        }
+
+        return download;
+    }
+
+    private Download save(final Response response, final InputStream body, final Path target) throws IOException {
+        HttpRequestPerformer.checkStatusCode(response, config);
+        return writeAtomically(target, part -> copy(body, part, target, response.statusCode()));
+    }
+
+    /**
+     * Copies the body to the file and digests it on the way.
+     */
+    private static Download copy(final InputStream body, final Path part, final Path target, final int statusCode)
+            throws IOException {
+        final MessageDigest sha256 = sha256();
+        final CRC32C crc32c = new CRC32C();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            int read = body.read(buffer);
+            while (read >= 0) {
+                sha256.update(buffer, 0, read);
+                crc32c.update(buffer, 0, read);
+                final ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+                size += read;
+                read = body.read(buffer);
+            }
+        }
+
+        return new Download(target, statusCode, size, HexFormat.of().formatHex(sha256.digest()), crc32c.getValue());
+    }
+
+    /**
+     * Reads a complete file and digests it, e.g. after its parts were written out of order.
+     *
+     * @param part       file to read.
+     * @param target     file the result is reported for.
+     * @param statusCode response status code.
+     * @return size and digests of the file.
+     * @throws IOException if the file can't be read.
+     */
+    /* default */
+    static Download digest(final Path part, final Path target, final int statusCode) throws IOException {
+        final MessageDigest sha256 = sha256();
+        final CRC32C crc32c = new CRC32C();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                crc32c.update(buffer);
+                buffer.rewind();
+                sha256.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return new Download(target, statusCode, size, HexFormat.of().formatHex(sha256.digest()), crc32c.getValue());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JDK must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Queues the download for the file logger, with its summary in place of the body.
+     */
+    private void log(final Download download) {
+        if (RequestLogPipeline.isEnabled()) {
+            if (config.getCallerTestMethod() == null) {
+                config.setCallerTestMethod(CallerResolver.getTestEntryPoint());
+            }
+            final byte[] summary = download == null ? null : download.summary().getBytes(StandardCharsets.UTF_8);
+            RequestLogPipeline.submit(new RequestLogRecord(Thread.currentThread().getName(), config, summary));
+        }
+    }
+
+    /**
+     * Writes the temporary file of a download.
+     */
+    /* default */
+    @FunctionalInterface
+    interface PartWriter {
+
+        /**
+         * Writes the file.
+         *
+         * @param part temporary file, created empty.
+         * @return size and digests of the written file.
+         * @throws IOException if the file can't be written.
+         */
+        Download write(Path part) throws IOException;
+    }
+}
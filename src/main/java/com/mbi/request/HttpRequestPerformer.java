@@ -1,78 +1,428 @@
 package com.mbi.request;
 
+import com.mbi.cache.ResponseCache;
 import com.mbi.config.RequestConfig;
+import com.mbi.logging.RequestLogPipeline;
+import com.mbi.logging.RequestLogRecord;
+import com.mbi.metrics.EndpointMetrics;
+import com.mbi.metrics.MetricsRegistry;
 import com.mbi.utils.CallerResolver;
-import com.mbi.utils.MessageComposer;
+import com.mbi.utils.ErrorsScanner;
+import com.mbi.utils.RequestAssertionError;
+import com.mbi.utils.RequestBodies;
+import com.mbi.utils.RequestUrls;
+import com.mbi.utils.ResponseCapture;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+import static io.restassured.RestAssured.given;
 import static org.testng.Assert.assertFalse;
 
 /**
  * Executes the actual HTTP request using a configured RequestSpecification.
  * <p>
- * Performs status code validation and optional 'errors' array check.
- * Notifies any attached listeners after execution.
+ * Performs status code validation and optional 'errors' array check, and retries or hedges the request
+ * according to its {@link RetryPolicy}. Every attempt waits for the client-side rate limit of its URL
+ * ({@link com.mbi.ratelimit.RateLimits}), is recorded in {@link MetricsRegistry} and reported to
+ * {@link RequestListeners}; the final request is logged and the owning builder is reset.
+ * GET requests may be answered or revalidated by a {@link ResponseCache}. Large text bodies may be compressed
+ * (see {@link RequestBodies#compress}). The exchange itself is done by the configured
+ * {@link com.mbi.transport.Transport}.
  */
 final class HttpRequestPerformer implements Performable {
 
-    private final List<OnRequestPerformedListener> requestListeners = new ArrayList<>();
+    /**
+     * Min number of recorded requests before the p95 latency of an endpoint is trusted for hedging.
+     */
+    private static final long HEDGING_MIN_SAMPLES = 20;
+
+    private final Performable owner;
+    private boolean permitAcquired;
     private Response response;
     private RequestConfig config;
 
     /**
-     * Executes the request and performs validations.
+     * Creates a performer that is not bound to a builder.
+     */
+    /* default */
+    HttpRequestPerformer() {
+        this(null);
+    }
+
+    /**
+     * Creates a performer that resets the given builder after every request.
+     *
+     * @param owner builder to notify after the request, or null.
+     */
+    /* default */
+    HttpRequestPerformer(final Performable owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Marks the rate limit permit of the first attempt as already acquired, e.g. asynchronously.
+     *
+     * @return this performer.
+     */
+    /* default */
+    HttpRequestPerformer withPermit() {
+        this.permitAcquired = true;
+        return this;
+    }
+
+    /**
+     * Executes the request and performs validations, retrying failed attempts if the policy allows it.
      *
      * @param requestConfig request configuration.
      * @return Rest-Assured response object.
-     * @throws AssertionError if status code doesn't match or errors are present.
+     * @throws RequestAssertionError if status code doesn't match or errors are present.
      */
     public Response request(final RequestConfig requestConfig) {
+        this.config = requestConfig;
+        try {
+            // A stream body can only be read once, so it is never re-sent
+            final boolean replayable = !(requestConfig.getData() instanceof InputStream);
+            this.response = requestConfig.getRetryPolicy().isEnabled() && replayable
+                    ? execute(requestConfig)
+                    : attempt(requestConfig, requestConfig.getRequestSpecification(), 1, false);
+            return response;
+        } catch (RequestAssertionError e) {
+            // Keep the failed response for logging
+            this.response = e.getResponse();
+            throw e;
+        } finally {
+            onRequest();
+            if (owner != null) {
+                owner.onRequest();
+            }
+        }
+    }
+
+    /**
+     * Sends the request on the {@link RequestExecutors} executor once its rate limit permit is available;
+     * no thread is blocked while waiting for the permit.
+     *
+     * @param requestConfig fully built request.
+     * @return future completed with the response.
+     */
+    /* default */
+    static CompletableFuture<Response> requestAsync(final RequestConfig requestConfig) {
+        final Executor executor = RequestExecutors.get();
+        return requestConfig.getRateLimits()
+                .acquireAsync(RequestUrls.resolve(requestConfig), executor)
+                .thenApplyAsync(permit -> new HttpRequestPerformer().withPermit().request(requestConfig), executor);
+    }
+
+    /**
+     * Runs attempts until one succeeds, or the policy allows no more.
+     * <p>
+     * Every attempt sends a fresh copy of the specification, since Rest-Assured resolves the path into it.
+     */
+    private Response execute(final RequestConfig requestConfig) {
+        final RetryPolicy policy = requestConfig.getRetryPolicy();
+        final RequestSpecification pristine = given().spec(requestConfig.getRequestSpecification());
+        final long started = System.nanoTime();
+        int attempt = 1;
+        while (true) {
+            try {
+                final Response received = send(requestConfig, pristine, attempt);
+                if (!retry(policy, attempt, started, received, null)) {
+                    return received;
+                }
+            } catch (RequestAssertionError e) {
+                if (!retry(policy, attempt, started, e.getResponse(), e)) {
+                    throw e;
+                }
+            } catch (Throwable e) {
+                if (!retry(policy, attempt, started, null, e)) {
+                    throw e;
+                }
+            }
+            attempt++;
+        }
+    }
+
+    /**
+     * Decides whether the attempt is retried and waits for the backoff if it is.
+     *
+     * @param received response of the attempt, or null if none was received.
+     * @param error    error of the attempt, or null if it passed validation.
+     * @return true if the next attempt should be sent.
+     */
+    private boolean retry(final RetryPolicy policy, final int attempt, final long started,
+                          final Response received, final Throwable error) {
+        final boolean retryable = received != null
+                ? policy.retriesStatus(received.statusCode()) && !isExpected(received.statusCode())
+                : policy.retriesError(error, config.getMethod());
+        boolean retry = retryable && attempt < policy.maxAttempts();
+
+        long delay = 0;
+        if (retry) {
+            delay = policy.delayNanos(attempt, received != null ? received.getHeader("Retry-After") : null);
+            final long maxTotal = policy.maxTotalTime().toNanos();
+            retry = maxTotal <= 0 || System.nanoTime() - started + delay <= maxTotal;
+        }
+
+        if (retry) {
+            if (received != null) {
+                // Release the connection of a response nobody reads
+                received.asByteArray();
+            }
+            retry = pause(delay);
+        }
+
+        return retry;
+    }
+
+    private boolean isExpected(final int statusCode) {
+        return config.getExpectedStatusCodes() != null && config.getExpectedStatusCodes().contains(statusCode);
+    }
+
+    private static boolean pause(final long nanos) {
+        boolean resumed = true;
         try {
-            this.config = requestConfig;
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resumed = false;
+        }
+
+        return resumed;
+    }
+
+    /**
+     * Sends one attempt, hedged with a duplicate if it's a GET that takes longer than the endpoint's p95 latency.
+     */
+    private Response send(final RequestConfig requestConfig, final RequestSpecification pristine, final int attempt) {
+        final long hedgeAfterMicros = hedgeAfterMicros(requestConfig);
+        return hedgeAfterMicros > 0
+                ? hedged(requestConfig, pristine, attempt, hedgeAfterMicros)
+                : attempt(requestConfig, given().spec(pristine), attempt, false);
+    }
+
+    private Response hedged(final RequestConfig requestConfig, final RequestSpecification pristine,
+                            final int attempt, final long hedgeAfterMicros) {
+        // Both copies are made here, so the pristine specification is never read while another thread sends
+        final RequestSpecification primarySpec = given().spec(pristine);
+        final RequestSpecification hedgeSpec = given().spec(pristine);
+        final Executor executor = RequestExecutors.get();
+        final CompletableFuture<Response> primary =
+                CompletableFuture.supplyAsync(() -> attempt(requestConfig, primarySpec, attempt, false), executor);
+        CompletableFuture.anyOf(primary.handle((received, error) -> null),
+                new CompletableFuture<>().completeOnTimeout(null, hedgeAfterMicros, TimeUnit.MICROSECONDS)).join();
+        if (primary.isDone()) {
+            return join(primary);
+        }
 
-            this.response = requestConfig
-                    .getRequestSpecification()
-                    .request(requestConfig.getMethod(), requestConfig.getUrl(), requestConfig.getPathParams());
+        final CompletableFuture<Response> hedge =
+                CompletableFuture.supplyAsync(() -> attempt(requestConfig, hedgeSpec, attempt, true), executor);
+        return join(firstSuccessful(primary, hedge));
+    }
 
-            checkStatusCode(response, requestConfig);
-            checkNoErrors(response, requestConfig);
+    /**
+     * Returns the p95 latency of the endpoint if the request may be hedged, otherwise 0.
+     */
+    private static long hedgeAfterMicros(final RequestConfig requestConfig) {
+        long micros = 0;
+        if (requestConfig.getRetryPolicy().hedging() && requestConfig.getMethod() == Method.GET) {
+            final EndpointMetrics metrics = MetricsRegistry.get(Method.GET.name(), requestConfig.getUrl());
+            if (metrics != null && metrics.count() >= HEDGING_MIN_SAMPLES) {
+                micros = metrics.latency().percentile(95);
+            }
+        }
+
+        return micros;
+    }
+
+    /**
+     * Completes with the first successful response, or with the last error if both attempts fail.
+     * The losing response is read, so its connection returns to the pool.
+     */
+    private static CompletableFuture<Response> firstSuccessful(final CompletableFuture<Response> primary,
+                                                               final CompletableFuture<Response> hedge) {
+        final CompletableFuture<Response> first = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        final BiConsumer<Response, Throwable> complete = (received, error) -> {
+            if (error == null) {
+                if (!first.complete(received)) {
+                    received.asByteArray();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(complete);
+        hedge.whenComplete(complete);
+
+        return first;
+    }
+
+    /**
+     * Waits for the attempt and rethrows its own error; checked transport errors stay wrapped.
+     */
+    private static Response join(final CompletableFuture<Response> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a single attempt and validates its response.
+     * <p>
+     * A fresh cached response is validated without sending anything: it needs no rate limit permit
+     * and isn't recorded as a request. A stale one turns the attempt into a conditional request.
+     * Doesn't touch the performer's fields, so hedged attempts can run concurrently.
+     */
+    private Response attempt(final RequestConfig requestConfig, final RequestSpecification spec,
+                             final int attempt, final boolean hedged) {
+        final ResponseCache cache = requestConfig.getResponseCache();
+        final String cacheKey = cacheKey(requestConfig, spec);
+        final Response cached = cacheKey == null ? null : cache.fresh(cacheKey);
+        if (cached != null) {
+            checkStatusCode(cached, requestConfig);
+            checkNoErrors(cached, requestConfig, null);
+            return cached;
+        }
+        if (cacheKey != null) {
+            cache.validators(cacheKey).forEach(spec::header);
+        }
+        final long encodedBytesSent = RequestBodies.compress(spec, requestConfig.getRequestCompression(),
+                requestConfig.getRequestCompressionMinBytes());
+
+        if (attempt > 1 || hedged || !permitAcquired) {
+            // Waiting for the rate limit is not part of the request latency
+            requestConfig.getRateLimits().acquire(RequestUrls.resolve(requestConfig));
+        }
+
+        final long start = System.nanoTime();
+        long end = 0;
+        Response received = null;
+        Throwable error = null;
+        try {
+            final ResponseCapture.LimitedBody limited = exchange(requestConfig, spec);
+            end = System.nanoTime();
+            // A cut body is not the resource, so it's never stored in the cache
+            received = cacheKey == null || limited.truncated()
+                    ? limited.response()
+                    : cache.update(cacheKey, limited.response());
+
+            checkStatusCode(received, requestConfig);
+            // The scan of the full body only applies if the cache didn't swap in its own response
+            checkNoErrors(received, requestConfig, received == limited.response() ? limited.errors() : null);
+        } catch (Throwable e) {
+            error = e;
+            throw e;
         } finally {
-            requestListeners.forEach(OnRequestPerformedListener::onRequestPerformed);
+            report(requestConfig, attempt, hedged, start, end != 0 ? end : System.nanoTime(),
+                    Transfer.of(requestConfig, encodedBytesSent, received, !RequestListeners.isEmpty()), error);
         }
 
-        return response;
+        return received;
     }
 
     /**
-     * Registers a request listener to be called after execution.
+     * Returns the cache key of a GET request if its cache is enabled and it can be cached, otherwise null.
+     * The key is built before the attempt adds its own headers to the specification.
+     */
+    private static String cacheKey(final RequestConfig requestConfig, final RequestSpecification spec) {
+        return requestConfig.getMethod() == Method.GET && requestConfig.getResponseCache().isEnabled()
+                ? ResponseCache.keyOf(requestConfig.getUrl(), requestConfig.getPathParams(),
+                (FilterableRequestSpecification) spec)
+                : null;
+    }
+
+    /**
+     * Sends the request. With a body limit the body is streamed from the transport: only its first bytes are kept,
+     * and the errors check scans all of it on the way, since the kept prefix may not be valid JSON.
+     */
+    private static ResponseCapture.LimitedBody exchange(final RequestConfig requestConfig,
+                                                       final RequestSpecification spec) {
+        final int limit = requestConfig.getResponseBodyLimit();
+        final String errorsPath = errorsPath(requestConfig);
+        return limit > 0
+                ? requestConfig.getTransport().receive(requestConfig, spec,
+                        (head, body) -> ResponseCapture.limitBody(head, body, limit, errorsPath))
+                : new ResponseCapture.LimitedBody(requestConfig.getTransport().send(requestConfig, spec), false, null);
+    }
+
+    /**
+     * Returns the errors path if the errors check is enabled, otherwise null.
+     */
+    private static String errorsPath(final RequestConfig requestConfig) {
+        return Boolean.TRUE.equals(requestConfig.isCheckNoErrors()) ? requestConfig.getErrorsPath() : null;
+    }
+
+    /**
+     * Records metrics and notifies the registered listeners about an attempt.
+     * <p>
+     * Called for every attempt, so it creates no listener lists and no event if nobody listens.
+     * The metrics record the response size on the wire.
      *
-     * @param requestListener listener implementation.
+     * @param requestConfig request configuration.
+     * @param attempt       attempt number, starting at 1.
+     * @param hedged        whether this is the duplicate of a slow attempt.
+     * @param start         {@link System#nanoTime()} before the request was sent.
+     * @param end           {@link System#nanoTime()} when the response was received or the request failed.
+     * @param transfer      status code and body sizes.
+     * @param error         error of the attempt, or null if it succeeded.
      */
-    public void addRequestListener(final OnRequestPerformedListener requestListener) {
-        this.requestListeners.add(requestListener);
+    /* default */
+    static void report(final RequestConfig requestConfig, final int attempt, final boolean hedged,
+                       final long start, final long end, final Transfer transfer, final Throwable error) {
+        // A compressed body of unknown size on the wire adds nothing, rather than its decoded size
+        MetricsRegistry.record(String.valueOf(requestConfig.getMethod()), requestConfig.getUrl(), end - start,
+                Math.max(transfer.encodedBytesReceived(), 0), error != null);
+
+        if (!RequestListeners.isEmpty()) {
+            RequestListeners.fire(new RequestEvent(requestConfig, attempt, hedged, transfer.statusCode(), start, end,
+                    transfer.bytesSent(), transfer.bytesReceived(), transfer.encodedBytesSent(),
+                    transfer.encodedBytesReceived(), error));
+        }
     }
 
     /**
-     * Called after request execution to log request/response using SLF4J.
+     * Called after request execution to queue the request/response for the asynchronous file logger.
+     * <p>
+     * Nothing is resolved or formatted if the {@code file-logger} is disabled.
      */
     @Override
     public void onRequest() {
-        final Logger logger = LoggerFactory.getLogger("file-logger");
-
-        // Add caller method name for better traceability
-        config.setCallerTestMethod(CallerResolver.getTestEntryPoint());
+        if (RequestLogPipeline.isEnabled()) {
+            // Add caller method name for better traceability (async requests resolve it before sending)
+            if (config.getCallerTestMethod() == null) {
+                config.setCallerTestMethod(CallerResolver.getTestEntryPoint());
+            }
 
-        logger.info(
-                "Request: {}\nResponse: {}\n",
-                config.toString(),
-                Objects.isNull(response) ? "null" : response.asString()
-        );
+            // The body of a failed request was already cut to the capture limit (see RequestAssertionError).
+            // A successful one belongs to the caller, so it's buffered for them and only a prefix is copied.
+            // Decoding happens on the writer thread, and large bodies are not retained by the log queue.
+            byte[] body = null;
+            if (Objects.nonNull(response)) {
+                response.asByteArray();
+                body = ResponseCapture.capture(response, config.getResponseCaptureLimit());
+            }
+            RequestLogPipeline.submit(new RequestLogRecord(Thread.currentThread().getName(), config, body));
+        }
     }
 
     /**
@@ -80,8 +430,10 @@ final class HttpRequestPerformer implements Performable {
      *
      * @param response actual response.
      * @param config   request configuration.
+     * @throws RequestAssertionError if the status code is not expected.
      */
-    private void checkStatusCode(final Response response, final RequestConfig config) {
+    /* default */
+    static void checkStatusCode(final Response response, final RequestConfig config) {
         // No need to check status code if it's not set
         if (config.getExpectedStatusCodes() == null) {
             return;
@@ -93,55 +445,37 @@ final class HttpRequestPerformer implements Performable {
         if (!config.getExpectedStatusCodes().contains(response.statusCode())) {
             final var assertionError = new AssertionError(String.format("expected %s but found [%d]",
                     config.getExpectedStatusCodes(), response.statusCode()));
-            final String msg = new MessageComposer(assertionError, config, response).composeMessage();
-            throw new AssertionError(msg, assertionError);
+            throw new RequestAssertionError(assertionError, config, response);
         }
     }
 
     /**
      * Validates that the response body does not contain an 'errors' array (if enabled).
+     * <p>
+     * The body is scanned with a pull parser that stops at the first non-null error. A body cut to
+     * {@code responseBodyLimit} was already scanned in full while it was read.
      *
      * @param response actual response.
      * @param config   request configuration.
+     * @param scanned  outcome of the scan of the full body, or null to scan the response body.
      */
-    private void checkNoErrors(final Response response, final RequestConfig config) {
+    private void checkNoErrors(final Response response, final RequestConfig config,
+                               final ErrorsScanner.Result scanned) {
         // No need to check errors code if flag not set
         if (config.isCheckNoErrors() == null || !config.isCheckNoErrors()) {
             return;
         }
 
-        // Check if list has errors
-        final var errors = response.body().jsonPath().getList("errors");
-        final boolean hasErrors = responseHasErrors(errors);
-
         try {
+            final boolean hasErrors = scanned != null
+                    ? scanned.hasErrors()
+                    : ErrorsScanner.hasErrors(response, config.getErrorsPath());
             assertFalse(hasErrors, "Response has errors!");
         } catch (AssertionError assertionError) {
-            final String msg = new MessageComposer(assertionError, config, response).composeMessage();
-            throw new AssertionError(msg, assertionError);
+            throw new RequestAssertionError(assertionError, config, response);
+        } catch (IOException e) {
+            throw new RequestAssertionError(
+                    new AssertionError("Unable to check errors: response is not valid JSON", e), config, response);
         }
     }
-
-    /**
-     * Checks whether the given list of errors contains any non-null elements.
-     * <p>
-     * This is used to detect if the response body has an 'errors' array with actual errors.
-     *
-     * @param errors list of error objects parsed from JSON response.
-     * @return true if any non-null error is present; false otherwise.
-     */
-    private boolean responseHasErrors(final List<Object> errors) {
-        boolean hasErrors = false;
-
-        if (errors != null) {
-            for (final var error : errors) {
-                if (error != null) {
-                    hasErrors = true;
-                    break;
-                }
-            }
-        }
-
-        return hasErrors;
-    }
 }
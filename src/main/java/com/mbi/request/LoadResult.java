@@ -0,0 +1,206 @@
+package com.mbi.request;
+
+import com.mbi.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Outcome of a {@link LoadRunner} run.
+ *
+ * @param rate        target arrival rate, requests per second.
+ * @param requests    number of requests sent.
+ * @param errors      number of requests that failed.
+ * @param elapsed     time from the first send until the last request completed.
+ * @param latency     latency from the intended send time, in microseconds.
+ * @param serviceTime latency from the actual send time, in microseconds.
+ * @param errorSamples first few errors, in the order they happened.
+ * @param objectives  objectives checked by {@link #assertSlos()}.
+ */
+public record LoadResult(double rate, long requests, long errors, Duration elapsed, LatencyHistogram latency,
+                         LatencyHistogram serviceTime, List<Throwable> errorSamples, List<Objective> objectives) {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Makes read-only copies of the lists.
+     */
+    public LoadResult {
+        errorSamples = List.copyOf(errorSamples);
+        objectives = List.copyOf(objectives);
+    }
+
+    /**
+     * Returns the number of completed requests per second.
+     *
+     * @return throughput, successful and failed requests alike.
+     */
+    public double throughput() {
+        final long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : requests * 1e9 / nanos;
+    }
+
+    /**
+     * Returns the share of failed requests.
+     *
+     * @return error rate between 0 and 1.
+     */
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    /**
+     * Returns a latency percentile, measured from the intended send time.
+     *
+     * @param percentile percentile between 0 and 100.
+     * @return latency.
+     */
+    public Duration latency(final double percentile) {
+        return Duration.ofNanos(latency.percentile(percentile) * 1000);
+    }
+
+    /**
+     * Returns the objectives that were not met.
+     *
+     * @return violated objectives, in the order they were added.
+     */
+    public List<Objective> violations() {
+        return objectives.stream().filter(objective -> !objective.isMet(this)).toList();
+    }
+
+    /**
+     * Fails with a report if any objective was not met.
+     * <p>
+     * The report lists each violated objective with its actual value, followed by the {@link #summary()}
+     * and the messages of the first errors, which for validation errors already contain the URL, response and curl.
+     * The first error is the cause, the rest are suppressed.
+     *
+     * @throws AssertionError if at least one objective was violated.
+     */
+    public void assertSlos() {
+        final List<Objective> violations = violations();
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        final var report = new StringBuilder(512)
+                .append(violations.size()).append(" of ").append(objectives.size()).append(" objectives violated");
+        for (final Objective objective : violations) {
+            report.append(String.format("%n- %s", objective.describe(this)));
+        }
+        report.append(String.format("%n%n%s", summary()));
+        for (final Throwable error : errorSamples) {
+            report.append(String.format("%n%nError: %s", error.getMessage()));
+        }
+
+        final var error = errorSamples.isEmpty()
+                ? new AssertionError(report.toString())
+                : new AssertionError(report.toString(), errorSamples.getFirst());
+        errorSamples.stream().skip(1).forEach(error::addSuppressed);
+        throw error;
+    }
+
+    /**
+     * Formats the results, e.g. for logs.
+     *
+     * @return requests, throughput, errors, and latency and service time percentiles.
+     */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%d requests in %.1f s: %.1f req/s (target %.1f), %d errors (%.2f%%)"
+                        + "%nLatency:      %s%nService time: %s",
+                requests, elapsed.toNanos() / 1e9, throughput(), rate, errors, errorRate() * PERCENT,
+                percentiles(latency), percentiles(serviceTime));
+    }
+
+    private static String percentiles(final LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                millis(histogram.percentile(50)), millis(histogram.percentile(90)),
+                millis(histogram.percentile(99)), millis(histogram.percentile(99.9)), millis(histogram.max()));
+    }
+
+    private static double millis(final long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Service level objective: a metric of the result and its limit.
+     *
+     * @param name       metric name used in the report, e.g. {@code p99 latency}.
+     * @param metric     reads the metric from the result.
+     * @param limit      limit of the metric, in the unit the metric returns.
+     * @param upperBound true if the metric must not exceed the limit, false if it must reach it.
+     * @param format     format of the metric and the limit in the report, e.g. {@code %.1f ms}.
+     */
+    public record Objective(String name, ToDoubleFunction<LoadResult> metric, double limit, boolean upperBound,
+                            String format) {
+
+        /**
+         * Creates an objective on a latency percentile.
+         *
+         * @param percentile percentile between 0 and 100.
+         * @param max        highest acceptable latency.
+         * @return objective measured in milliseconds.
+         */
+        public static Objective latency(final double percentile, final Duration max) {
+            if (percentile < 0 || percentile > PERCENT) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            return new Objective(String.format(Locale.ROOT, "p%s latency", formatPercentile(percentile)),
+                    result -> millis(result.latency().percentile(percentile)),
+                    max.toNanos() / 1e6, true, "%.1f ms");
+        }
+
+        /**
+         * Creates an objective on the error rate.
+         *
+         * @param max highest acceptable error rate between 0 and 1.
+         * @return objective reported in percent.
+         */
+        public static Objective errorRate(final double max) {
+            return new Objective("error rate", result -> result.errorRate() * PERCENT, max * PERCENT, true,
+                    "%.2f%%");
+        }
+
+        /**
+         * Creates an objective on the throughput.
+         *
+         * @param min lowest acceptable number of completed requests per second.
+         * @return objective in requests per second.
+         */
+        public static Objective throughput(final double min) {
+            return new Objective("throughput", LoadResult::throughput, min, false, "%.1f req/s");
+        }
+
+        /**
+         * Checks the objective against a result.
+         *
+         * @param result load result.
+         * @return true if the metric is within the limit.
+         */
+        public boolean isMet(final LoadResult result) {
+            final double actual = metric.applyAsDouble(result);
+            return upperBound ? actual <= limit : actual >= limit;
+        }
+
+        /**
+         * Describes the actual value and the limit, e.g. {@code p99 latency 312.4 ms, expected <= 250.0 ms}.
+         *
+         * @param result load result.
+         * @return description for the report.
+         */
+        public String describe(final LoadResult result) {
+            return String.format(Locale.ROOT, "%s " + format + ", expected %s " + format,
+                    name, metric.applyAsDouble(result), upperBound ? "<=" : ">=", limit);
+        }
+
+        private static String formatPercentile(final double percentile) {
+            return percentile == Math.rint(percentile)
+                    ? Long.toString((long) percentile)
+                    : Double.toString(percentile);
+        }
+    }
+}
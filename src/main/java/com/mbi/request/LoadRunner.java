@@ -0,0 +1,182 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import com.mbi.metrics.LatencyHistogram;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Sends a request at a fixed arrival rate for a fixed duration and reports throughput, errors and latency.
+ * <p>
+ * Reuses the same request functions as {@link RequestBatch}, so a functional test becomes a small load test:
+ * <pre>{@code
+ * new LoadRunner(http -> http.setExpectedStatusCode(200).get(usersUrl))
+ *         .rate(100)
+ *         .duration(Duration.ofSeconds(30))
+ *         .expectLatency(99, Duration.ofMillis(250))
+ *         .expectErrorRate(0.01)
+ *         .run()
+ *         .assertSlos();
+ * }</pre>
+ * The load model is open: request N is sent at {@code start + N / rate} whether or not earlier requests
+ * have completed, each on its own virtual thread, like independent users would. Latency is measured
+ * from that intended send time rather than from the actual one, so if the generator or the server falls behind,
+ * the queueing delay is part of the reported latency instead of silently lowering the request rate
+ * (coordinated omission). The time from the actual send is reported separately as service time.
+ * <p>
+ * The function is called with a fresh request every time; it can also ignore it and use
+ * a {@link RequestTemplate}, e.g. {@code http -> users.get(usersUrl)}.
+ */
+public final class LoadRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadRunner.class);
+    private static final int ERROR_SAMPLES = 5;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final HttpRequest http = new RequestBuilder();
+    private final Function<HttpRequest, Response> request;
+    private final List<LoadResult.Objective> objectives = new ArrayList<>();
+    private double rate = 10;
+    private Duration duration = Duration.ofSeconds(10);
+
+    /**
+     * Creates a runner for the given request.
+     *
+     * @param request function that configures the request and sends it, returning the response.
+     */
+    public LoadRunner(final Function<HttpRequest, Response> request) {
+        this.request = Objects.requireNonNull(request, "request");
+    }
+
+    /**
+     * Sets the target arrival rate.
+     *
+     * @param requestsPerSecond requests started per second (default 10); may be fractional.
+     * @return current runner.
+     */
+    public LoadRunner rate(final double requestsPerSecond) {
+        if (!(requestsPerSecond > 0) || Double.isInfinite(requestsPerSecond)) {
+            throw new IllegalArgumentException("Rate must be positive: " + requestsPerSecond);
+        }
+        this.rate = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets how long requests are started for; the run then waits for the requests still in flight.
+     *
+     * @param loadDuration duration of the load (default 10 seconds).
+     * @return current runner.
+     */
+    public LoadRunner duration(final Duration loadDuration) {
+        if (loadDuration.isNegative() || loadDuration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive: " + loadDuration);
+        }
+        this.duration = loadDuration;
+        return this;
+    }
+
+    /**
+     * Adds an objective on a latency percentile, measured from the intended send time.
+     *
+     * @param percentile percentile between 0 and 100, e.g. 99 for p99.
+     * @param max        highest acceptable latency.
+     * @return current runner.
+     */
+    public LoadRunner expectLatency(final double percentile, final Duration max) {
+        objectives.add(LoadResult.Objective.latency(percentile, max));
+        return this;
+    }
+
+    /**
+     * Adds an objective on the share of failed requests.
+     *
+     * @param max highest acceptable error rate between 0 and 1, e.g. 0.01 for 1%.
+     * @return current runner.
+     */
+    public LoadRunner expectErrorRate(final double max) {
+        objectives.add(LoadResult.Objective.errorRate(max));
+        return this;
+    }
+
+    /**
+     * Adds an objective on the number of requests completed per second.
+     *
+     * @param min lowest acceptable throughput.
+     * @return current runner.
+     */
+    public LoadRunner expectThroughput(final double min) {
+        objectives.add(LoadResult.Objective.throughput(min));
+        return this;
+    }
+
+    /**
+     * Sends the requests and waits until all of them completed.
+     * <p>
+     * Failed requests don't stop the run; they are counted as errors, and the first few are kept for the report.
+     *
+     * @return results, including the objectives to check with {@link LoadResult#assertSlos()}.
+     */
+    public LoadResult run() {
+        final long total = Math.max(1, Math.round(duration.toNanos() / NANOS_PER_SECOND * rate));
+        final double intervalNanos = NANOS_PER_SECOND / rate;
+        final var latency = new LatencyHistogram();
+        final var serviceTime = new LatencyHistogram();
+        final var errors = new LongAdder();
+        final Queue<Throwable> errorSamples = new ConcurrentLinkedQueue<>();
+        // Errors reserve a sample slot first, so concurrent failures can't add more than ERROR_SAMPLES
+        final var sampled = new AtomicInteger();
+
+        final long start = System.nanoTime();
+        // A dedicated executor: a shared bounded pool would queue requests and turn the load into a closed model
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                final long intended = start + (long) (i * intervalNanos);
+                parkUntil(intended);
+                executor.execute(() -> {
+                    final long sent = System.nanoTime();
+                    try {
+                        request.apply(http);
+                    } catch (Throwable e) {
+                        errors.increment();
+                        if (sampled.getAndIncrement() < ERROR_SAMPLES) {
+                            errorSamples.add(e);
+                        }
+                    } finally {
+                        final long completed = System.nanoTime();
+                        latency.record(TimeUnit.NANOSECONDS.toMicros(completed - intended));
+                        serviceTime.record(TimeUnit.NANOSECONDS.toMicros(completed - sent));
+                    }
+                });
+            }
+        }
+
+        final var result = new LoadResult(rate, total, errors.sum(), Duration.ofNanos(System.nanoTime() - start),
+                latency, serviceTime, List.copyOf(errorSamples), objectives);
+        LOGGER.info("{}", result.summary());
+        return result;
+    }
+
+    private static void parkUntil(final long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.mbi.request;
 /**
  * Hook that is invoked after an HTTP request has been executed.
  * <p>
- * Can be used for logging, metrics, or resetting builders.
+ * Can be used for logging, metrics, or tracing. Register it process-wide with {@link RequestListeners#add}.
  */
 @FunctionalInterface
 public interface OnRequestPerformedListener {
 
     /**
-     * Called after request execution is complete.
+     * Called after request execution is complete, also if it failed.
+     * <p>
+     * Runs on the thread that performed the request, so it should be fast.
+     *
+     * @param event performed request.
      */
-    void onRequestPerformed();
+    void onRequestPerformed(RequestEvent event);
 }
@@ -0,0 +1,322 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.utils.RequestAssertionError;
+import com.mbi.utils.RequestUrls;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Downloads a large body with parallel range requests.
+ * <p>
+ * A HEAD request probes the length and {@code Accept-Ranges: bytes} support. The file is then pre-sized and
+ * split into one part per connection; every part is a GET with a {@code Range} header, sent on the
+ * {@link RequestExecutors} executor over the shared connection pool, and is written at its own position
+ * through a single {@link FileChannel}. A part that fails is retried on its own, from the first byte it has
+ * not written yet, according to the retry policy of the request (3 attempts if it has none). Once a part has
+ * failed for good, the other parts stop at their next read and are not retried, and the error of the failed
+ * part is thrown. The SHA-256 and CRC32C are computed from the complete file, since parts arrive out of order.
+ * <p>
+ * A non-206 response of a part is checked against the expected status codes first, so the usual
+ * assertion error is reported for e.g. a 404.
+ */
+final class RangedDownloader {
+
+    /**
+     * Parts are never smaller than this, so small bodies don't open needless connections.
+     */
+    private static final long MIN_PART_SIZE = 1L << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int PARTIAL_CONTENT = 206;
+
+    private static final RetryPolicy DEFAULT_PART_RETRIES = RetryPolicy.retries(3);
+
+    private final RequestConfig config;
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Creates a downloader for a fully built GET request.
+     *
+     * @param config request configuration.
+     */
+    /* default */
+    RangedDownloader(final RequestConfig config) {
+        this.config = config;
+        this.retryPolicy = config.getRetryPolicy().maxAttempts() > 1 ? config.getRetryPolicy() : DEFAULT_PART_RETRIES;
+    }
+
+    /**
+     * Downloads the body in parts.
+     *
+     * @param target absolute path of the file to write.
+     * @return size and digests of the file, or null if the server doesn't support ranges of this body.
+     * @throws RequestAssertionError if a part has an unexpected status code after all retries.
+     * @throws UncheckedIOException  if a part can't be received after all retries or the file can't be written.
+     */
+    /* default */
+    Download download(final Path target) {
+        final long length = probe();
+        Download download = null;
+        if (length > 0) {
+            try {
+                download = FileDownloader.writeAtomically(target, part -> fetch(part, target, length));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write " + target, e);
+            }
+        }
+
+        return download;
+    }
+
+    /**
+     * Sends a HEAD request and returns the body length if the server accepts byte ranges, otherwise -1.
+     * The probe is recorded in the metrics as a HEAD request.
+     */
+    private long probe() {
+        final RequestConfig head = config.copy();
+        head.setMethod(Method.HEAD);
+        config.getRateLimits().acquire(RequestUrls.resolve(config));
+
+        final long start = System.nanoTime();
+        Response response = null;
+        Throwable error = null;
+        try {
+            response = head.getTransport().send(head, identity(given().spec(config.getRequestSpecification())));
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            HttpRequestPerformer.report(head, 1, false, start, System.nanoTime(),
+                    Transfer.streamed(head, response == null ? 0 : response.statusCode(), 0), error);
+        }
+
+        return response.statusCode() == 200 ? rangeLength(response) : -1;
+    }
+
+    /**
+     * Returns the length of a body that can be requested in byte ranges, otherwise -1.
+     */
+    private static long rangeLength(final Response response) {
+        final String acceptRanges = response.getHeader("Accept-Ranges");
+        final String contentLength = response.getHeader("Content-Length");
+        long length = -1;
+        if (acceptRanges != null && acceptRanges.toLowerCase(Locale.ROOT).contains("bytes")
+                && contentLength != null && response.getHeader("Content-Encoding") == null) {
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException ignored) {
+                // Not a valid length, download with a single request
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Pre-sizes the file, fetches all parts in parallel and digests the result.
+     */
+    private Download fetch(final Path file, final Path target, final long length) throws IOException {
+        final long parts = Math.clamp(length / MIN_PART_SIZE, 1, config.getDownloadConnections());
+        final long partSize = (length + parts - 1) / parts;
+        final Executor executor = RequestExecutors.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Writing the last byte sets the size; the file stays sparse until the parts are written
+            channel.write(ByteBuffer.allocate(1), length - 1);
+
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (long first = 0; first < length; first += partSize) {
+                final Part part = new Part(first, Math.min(first + partSize, length) - 1, failure);
+                futures.add(CompletableFuture.runAsync(() -> fetch(channel, part), executor));
+            }
+            join(futures, failure);
+        }
+
+        return FileDownloader.digest(file, target, PARTIAL_CONTENT);
+    }
+
+    /**
+     * Fetches a part, retrying failed attempts from the first byte that was not written.
+     * The first part that fails for good stops the others.
+     */
+    private void fetch(final FileChannel channel, final Part part) {
+        int attempt = 1;
+        while (true) {
+            try {
+                attempt(channel, part, attempt);
+                return;
+            } catch (RuntimeException | Error e) {
+                if (part.stopped() || !retry(e, attempt)) {
+                    part.failure.compareAndSet(null, e);
+                    throw e;
+                }
+            }
+            attempt++;
+        }
+    }
+
+    private void attempt(final FileChannel channel, final Part part, final int attempt) {
+        part.checkNotStopped();
+        config.getRateLimits().acquire(RequestUrls.resolve(config));
+        final RequestSpecification spec = identity(given().spec(config.getRequestSpecification()))
+                .header("Range", "bytes=" + part.next + "-" + part.last);
+
+        final long from = part.next;
+        final long start = System.nanoTime();
+        int statusCode = 0;
+        Throwable error = null;
+        try {
+            statusCode = config.getTransport().receive(config, spec,
+                    (response, body) -> write(response, body, channel, part));
+        } catch (RequestAssertionError e) {
+            statusCode = e.getResponse().statusCode();
+            error = e;
+            throw e;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            HttpRequestPerformer.report(config, attempt, false, start, System.nanoTime(),
+                    Transfer.streamed(config, statusCode, part.next - from), error);
+        }
+    }
+
+    /**
+     * Checks the response of a part and writes its body at the position of the part.
+     *
+     * @return status code.
+     */
+    private int write(final Response response, final InputStream body, final FileChannel channel, final Part part)
+            throws IOException {
+        if (response.statusCode() != PARTIAL_CONTENT) {
+            HttpRequestPerformer.checkStatusCode(response, config);
+            final var assertionError = new AssertionError(String.format("expected [%d] for bytes %s but found [%d]",
+                    PARTIAL_CONTENT, part, response.statusCode()));
+            throw new RequestAssertionError(assertionError, config, response);
+        }
+        final String contentRange = response.getHeader("Content-Range");
+        if (contentRange != null && !contentRange.startsWith("bytes " + part.next + "-")) {
+            throw new RequestAssertionError(new AssertionError(String.format(
+                    "expected bytes %s but found Content-Range [%s]", part, contentRange)), config, response);
+        }
+
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read = body.read(buffer);
+        while (read >= 0 && part.next <= part.last) {
+            part.checkNotStopped();
+            final ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, (int) Math.min(read, part.last - part.next + 1));
+            while (bytes.hasRemaining()) {
+                part.next += channel.write(bytes, part.next);
+            }
+            if (part.next <= part.last) {
+                read = body.read(buffer);
+            }
+        }
+        if (part.next <= part.last) {
+            throw new EOFException("Response ended before bytes " + part + " were received");
+        }
+
+        return response.statusCode();
+    }
+
+    /**
+     * Decides whether a failed attempt of a part is retried and waits for the backoff if it is.
+     */
+    private boolean retry(final Throwable error, final int attempt) {
+        final Response response = error instanceof RequestAssertionError assertionError
+                ? assertionError.getResponse()
+                : null;
+        final boolean retryable = response != null
+                ? retryPolicy.retriesStatus(response.statusCode())
+                : retryPolicy.retriesError(error, Method.GET);
+
+        boolean retry = retryable && attempt < retryPolicy.maxAttempts();
+        if (retry) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(retryPolicy.delayNanos(attempt,
+                        response != null ? response.getHeader("Retry-After") : null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retry = false;
+            }
+        }
+
+        return retry;
+    }
+
+    /**
+     * Asks for the body as it is stored, since ranges of a compressed body don't add up to the file.
+     */
+    private static RequestSpecification identity(final RequestSpecification spec) {
+        return spec.header("Accept-Encoding", "identity");
+    }
+
+    /**
+     * Waits for all parts, so none writes to the file after it's closed, and rethrows the error of the part
+     * that failed first.
+     */
+    private static void join(final List<CompletableFuture<Void>> parts, final AtomicReference<Throwable> failure) {
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).exceptionally(ignored -> null).join();
+        final Throwable error = failure.get();
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Byte range of the file; {@code next} is the first byte that has not been written yet.
+     * {@code failure} is shared by all parts of a download and holds the error of the first part that failed.
+     */
+    private static final class Part {
+
+        private final long last;
+        private final AtomicReference<Throwable> failure;
+        private long next;
+
+        private Part(final long first, final long last, final AtomicReference<Throwable> failure) {
+            this.next = first;
+            this.last = last;
+            this.failure = failure;
+        }
+
+        private boolean stopped() {
+            return failure.get() != null;
+        }
+
+        private void checkNotStopped() {
+            if (stopped()) {
+                throw new CancellationException("Bytes " + this + " were not received, since another part failed");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return next + "-" + last;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Executes many independent requests with bounded concurrency and collects all failures.
+ * <p>
+ * Each request is a function that configures and sends it through the provided {@link HttpRequest}:
+ * <pre>{@code
+ * new RequestBatch(8)
+ *         .add(http -> http.setData(user1).setExpectedStatusCode(201).post(usersUrl))
+ *         .add(http -> http.setData(user2).setExpectedStatusCode(201).post(usersUrl))
+ *         .execute()
+ *         .assertNoFailures();
+ * }</pre>
+ * Requests go through the regular pipeline, so status codes and 'errors' are validated as usual.
+ * Unlike a chain of blocking calls, a failed request doesn't stop the others:
+ * every failure is reported in one combined message.
+ */
+public final class RequestBatch {
+
+    private final HttpRequest http = new RequestBuilder();
+    private final List<Function<HttpRequest, Response>> requests = new ArrayList<>();
+    private final int parallelism;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param parallelism max number of requests in flight at the same time.
+     */
+    public RequestBatch(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Adds a request to the batch.
+     *
+     * @param request function that configures the request and sends it, returning the response.
+     * @return current batch.
+     */
+    public RequestBatch add(final Function<HttpRequest, Response> request) {
+        requests.add(request);
+        return this;
+    }
+
+    /**
+     * Sends all requests on the executor from {@link RequestExecutors}, at most {@code parallelism} at a time,
+     * and waits for all of them to complete.
+     *
+     * @return responses in the order requests were added, and all failures.
+     */
+    public BatchResult execute() {
+        final Semaphore permits = new Semaphore(parallelism);
+        final Executor executor = RequestExecutors.get();
+
+        final List<CompletableFuture<Response>> futures = new ArrayList<>(requests.size());
+        for (final Function<HttpRequest, Response> request : requests) {
+            futures.add(CompletableFuture.supplyAsync(() -> send(request, permits), executor));
+        }
+
+        final List<Response> responses = new ArrayList<>(futures.size());
+        final List<BatchResult.Failure> failures = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                responses.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                responses.add(null);
+                failures.add(new BatchResult.Failure(i, e.getCause()));
+            }
+        }
+
+        return new BatchResult(responses, failures);
+    }
+
+    private Response send(final Function<HttpRequest, Response> request, final Semaphore permits) {
+        permits.acquireUninterruptibly();
+        try {
+            return request.apply(http);
+        } finally {
+            permits.release();
+        }
+    }
+}
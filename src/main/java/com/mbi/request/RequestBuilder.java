@@ -1,172 +1,270 @@
 package com.mbi.request;
 
 import com.mbi.HttpRequest;
+import com.mbi.cache.ResponseCache;
+import com.mbi.config.RequestConfig;
 import com.mbi.config.RequestDirector;
+import com.mbi.utils.CallerResolver;
 import io.restassured.http.Header;
 import io.restassured.http.Method;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Thread-safe builder for HTTP requests.
  * <p>
- * Stores request state using ThreadLocal fields, allowing isolated usage in concurrent tests.
- * After each request is executed, the internal state is automatically cleared via {@link #onRequest()}.
+ * Stores the request being built in a single {@link RequestState} per thread, allowing isolated usage
+ * in concurrent tests. After each request is executed, the state is released via {@link #onRequest()}.
+ * <p>
+ * A builder created with {@link #confined()} keeps its state in a plain field instead: it must not be shared
+ * between threads that build requests at the same time, but a request can be built on one thread and sent
+ * from another, and no ThreadLocal is allocated on virtual or pooled threads.
  */
 @SuppressWarnings("PMD.LinguisticNaming")
 public final class RequestBuilder implements HttpRequest, Performable {
 
-    private final ThreadLocal<String> urlThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Method> methodsThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Object> dataThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<List<Integer>> statusCodesThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<String> tokenThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<List<Header>> headersThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<RequestSpecification> specificationThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Boolean> debugThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Object[]> pathParamsThreadLocal = new ThreadLocal<>();
-    private final ThreadLocal<Boolean> checkNoErrorsThreadLocal = new ThreadLocal<>();
+    private final ThreadLocal<RequestState> threadState;
+    private RequestState confinedState;
+
+    /**
+     * Creates a builder that keeps a separate request state for every thread.
+     */
+    public RequestBuilder() {
+        this.threadState = ThreadLocal.withInitial(RequestState::new);
+    }
+
+    private RequestBuilder(final RequestState confinedState) {
+        this.threadState = null;
+        this.confinedState = confinedState;
+    }
+
+    /**
+     * Creates a thread-confined builder that is not backed by a ThreadLocal.
+     *
+     * @return new builder with empty state.
+     */
+    public static RequestBuilder confined() {
+        return new RequestBuilder(new RequestState());
+    }
+
+    /**
+     * Returns the state of the request being built: a single ThreadLocal lookup, or none in confined mode.
+     *
+     * @return current request state.
+     */
+    public RequestState getState() {
+        return threadState == null ? confinedState : threadState.get();
+    }
 
     /**
      * Sets a single header.
      */
     @Override
     public HttpRequest setHeader(final String header, final String value) {
-        final List<Header> list = Objects.isNull(getHeaders()) ? new ArrayList<>() : getHeaders();
-        list.add(new Header(header, value));
-        headersThreadLocal.set(list);
+        final RequestState state = getState();
+        if (Objects.isNull(state.getHeaders())) {
+            state.setHeaders(new ArrayList<>());
+        }
+        state.getHeaders().add(new Header(header, value));
         return this;
     }
 
     @Override
     public HttpRequest setHeaders(final List<Header> headers) {
-        headersThreadLocal.set(headers);
+        getState().setHeaders(headers);
         return this;
     }
 
     public List<Header> getHeaders() {
-        return headersThreadLocal.get();
+        return getState().getHeaders();
     }
 
     @Override
     public HttpRequest setData(final Object data) {
-        dataThreadLocal.set(data);
+        getState().setData(data);
         return this;
     }
 
     public Object getData() {
-        return dataThreadLocal.get();
+        return getState().getData();
     }
 
     @Override
     public HttpRequest setToken(final String token) {
-        tokenThreadLocal.set(token);
+        getState().setToken(token);
         return this;
     }
 
     public String getToken() {
-        return tokenThreadLocal.get();
+        return getState().getToken();
     }
 
     @Override
     public HttpRequest setExpectedStatusCode(final Integer statusCode) {
         final List<Integer> list = new ArrayList<>();
         list.add(statusCode);
-        statusCodesThreadLocal.set(list);
+        getState().setStatusCodes(list);
         return this;
     }
 
     @Override
     public HttpRequest setExpectedStatusCodes(final List<Integer> codes) {
-        statusCodesThreadLocal.set(codes);
+        getState().setStatusCodes(codes);
         return this;
     }
 
     @Override
     public HttpRequest checkNoErrors(final Boolean noErrors) {
-        checkNoErrorsThreadLocal.set(noErrors);
+        getState().setCheckNoErrors(noErrors);
         return this;
     }
 
     public Boolean hasNoErrors() {
-        return checkNoErrorsThreadLocal.get();
+        return getState().hasNoErrors();
     }
 
     public List<Integer> getStatusCodes() {
-        return statusCodesThreadLocal.get();
+        return getState().getStatusCodes();
     }
 
     @Override
     public HttpRequest setRequestSpecification(final RequestSpecification specification) {
-        specificationThreadLocal.set(specification);
+        getState().setSpecification(specification);
         return this;
     }
 
     public RequestSpecification getSpecification() {
-        return specificationThreadLocal.get();
+        return getState().getSpecification();
     }
 
     @Override
     public HttpRequest setUrl(final String url) {
-        urlThreadLocal.set(url);
+        getState().setUrl(url);
         return this;
     }
 
     public String getUrl() {
-        return urlThreadLocal.get();
+        return getState().getUrl();
     }
 
     public Boolean isDebug() {
-        return Boolean.TRUE.equals(debugThreadLocal.get());
+        return getState().isDebug();
     }
 
     @Override
     public HttpRequest debug() {
-        debugThreadLocal.set(true);
+        getState().setDebug(true);
+        return this;
+    }
+
+    @Override
+    public HttpRequest setRetryPolicy(final RetryPolicy retryPolicy) {
+        getState().setRetryPolicy(retryPolicy);
         return this;
     }
 
-    private HttpRequest debug(final boolean isDebug) {
-        debugThreadLocal.set(isDebug);
+    public RetryPolicy getRetryPolicy() {
+        return getState().getRetryPolicy();
+    }
+
+    @Override
+    public HttpRequest setResponseCache(final ResponseCache responseCache) {
+        getState().setResponseCache(responseCache);
         return this;
     }
 
-    public Method getMethod() {
-        return methodsThreadLocal.get();
+    public ResponseCache getResponseCache() {
+        return getState().getResponseCache();
+    }
+
+    @Override
+    public HttpRequest setDownloadConnections(final Integer connections) {
+        getState().setDownloadConnections(connections);
+        return this;
+    }
+
+    public Integer getDownloadConnections() {
+        return getState().getDownloadConnections();
     }
 
-    private void setMethod(final Method method) {
-        methodsThreadLocal.set(method);
+    public Method getMethod() {
+        return getState().getMethod();
     }
 
     public Object[] getPathParams() {
-        return pathParamsThreadLocal.get();
+        return getState().getPathParams();
     }
 
-    private void setPathParams(final Object... pathParams) {
-        pathParamsThreadLocal.set(pathParams);
+    /**
+     * Builds the request configuration from the current state.
+     */
+    private RequestConfig constructRequest(final String url, final Method method, final Object... pathParams) {
+        final RequestState state = getState();
+        state.setUrl(url);
+        state.setMethod(method);
+        state.setPathParams(pathParams);
+
+        final RequestDirector requestDirector = new RequestDirector(state);
+        requestDirector.constructRequest();
+
+        return requestDirector.getRequestConfig();
+    }
+
+    /**
+     * Freezes the current state into an immutable template and resets the builder.
+     * <p>
+     * The body set on the builder becomes the default body of the template, it's not merged into the base
+     * specification, so {@link RequestTemplate#withData(Object)} can replace it.
+     */
+    @Override
+    public RequestTemplate template() {
+        final RequestState state = getState();
+        final Object data = state.getData();
+        try {
+            state.setData(null);
+            final RequestDirector requestDirector = new RequestDirector(state);
+            requestDirector.constructRequest();
+
+            return RequestTemplate.of(requestDirector.getRequestConfig(), data);
+        } finally {
+            onRequest();
+        }
     }
 
     /**
      * Internal request logic shared by all HTTP method implementations.
      */
     private Response doRequest(final String url, final Method method, final Object... pathParams) {
-        setUrl(url);
-        setMethod(method);
-        setPathParams(pathParams);
+        final RequestConfig requestConfig = constructRequest(url, method, pathParams);
 
-        final RequestDirector requestDirector = new RequestDirector(this);
-        requestDirector.constructRequest();
-
-        final HttpRequestPerformer httpRequest = new HttpRequestPerformer();
-        httpRequest.addRequestListener(httpRequest::onRequest);
-        httpRequest.addRequestListener(this::onRequest);
+        return new HttpRequestPerformer(this).request(requestConfig);
+    }
 
-        return httpRequest.request(requestDirector.getRequestConfig());
+    /**
+     * Internal asynchronous request logic shared by all HTTP method implementations.
+     * <p>
+     * The request is fully built and the state is released on the calling thread;
+     * only sending, validation and logging happen on the executor.
+     */
+    private CompletableFuture<Response> doRequestAsync(final String url, final Method method,
+                                                       final Object... pathParams) {
+        final RequestConfig requestConfig;
+        try {
+            requestConfig = constructRequest(url, method, pathParams);
+        } finally {
+            onRequest();
+        }
+
+        // The stack of the executor thread doesn't contain the test method, so resolve it here
+        requestConfig.setCallerTestMethod(CallerResolver.getTestEntryPoint());
+
+        return HttpRequestPerformer.requestAsync(requestConfig);
     }
 
     @Override
@@ -194,20 +292,54 @@ public final class RequestBuilder implements HttpRequest, Performable {
         return doRequest(url, Method.DELETE, pathParams);
     }
 
+    @Override
+    public Download download(final String url, final Path target, final Object... pathParams) {
+        final RequestConfig requestConfig;
+        try {
+            requestConfig = constructRequest(url, Method.GET, pathParams);
+        } finally {
+            onRequest();
+        }
+
+        return new FileDownloader(requestConfig).download(target);
+    }
+
+    @Override
+    public CompletableFuture<Response> postAsync(final String url, final Object... pathParams) {
+        return doRequestAsync(url, Method.POST, pathParams);
+    }
+
+    @Override
+    public CompletableFuture<Response> getAsync(final String url, final Object... pathParams) {
+        return doRequestAsync(url, Method.GET, pathParams);
+    }
+
+    @Override
+    public CompletableFuture<Response> putAsync(final String url, final Object... pathParams) {
+        return doRequestAsync(url, Method.PUT, pathParams);
+    }
+
+    @Override
+    public CompletableFuture<Response> patchAsync(final String url, final Object... pathParams) {
+        return doRequestAsync(url, Method.PATCH, pathParams);
+    }
+
+    @Override
+    public CompletableFuture<Response> deleteAsync(final String url, final Object... pathParams) {
+        return doRequestAsync(url, Method.DELETE, pathParams);
+    }
+
     /**
-     * Clears all builder state after request execution to ensure reusability in concurrent environments.
+     * Releases the builder state after request execution to ensure reusability in concurrent environments.
+     * <p>
+     * The ThreadLocal entry is removed rather than cleared, so pooled and long-lived threads don't retain it.
      */
     @Override
     public void onRequest() {
-        setUrl(null);
-        setData(null);
-        setExpectedStatusCode(null);
-        setExpectedStatusCodes(null);
-        setToken(null);
-        setHeaders(null);
-        setMethod(null);
-        setRequestSpecification(null);
-        debug(false);
-        checkNoErrors(null);
+        if (threadState == null) {
+            confinedState = new RequestState();
+        } else {
+            threadState.remove();
+        }
     }
 }
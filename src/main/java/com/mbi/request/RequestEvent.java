@@ -0,0 +1,65 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+
+/**
+ * Immutable description of a performed request, passed to {@link OnRequestPerformedListener}s.
+ *
+ * @param config               request configuration.
+ * @param attempt              attempt number, starting at 1; see {@link RetryPolicy}.
+ * @param hedged               whether this is the duplicate of a slow attempt.
+ * @param statusCode           response status code, or 0 if no response was received.
+ * @param startNanos           {@link System#nanoTime()} before the request was sent.
+ * @param endNanos             {@link System#nanoTime()} when the response was received or the request failed.
+ * @param bytesSent            size of the request body in bytes.
+ * @param bytesReceived        size of the (decompressed) response body in bytes.
+ * @param encodedBytesSent     size of the request body as sent; smaller than bytesSent if it was compressed.
+ * @param encodedBytesReceived size of the response body as received (its Content-Length if present),
+ *                             before decompression; -1 if unknown, i.e. compressed without Content-Length.
+ * @param error                error thrown by the request or its validation, or null if it succeeded.
+ */
+public record RequestEvent(RequestConfig config, int attempt, boolean hedged, int statusCode, long startNanos,
+                           long endNanos, long bytesSent, long bytesReceived, long encodedBytesSent,
+                           long encodedBytesReceived, Throwable error) {
+
+    /**
+     * Returns the time until the response was received.
+     *
+     * @return duration in nanoseconds.
+     */
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+
+    /**
+     * Returns how much smaller the request body was on the wire.
+     *
+     * @return uncompressed / compressed size, e.g. 6.5; 1 if the body was not compressed or there was none.
+     */
+    public double requestCompressionRatio() {
+        return ratio(bytesSent, encodedBytesSent);
+    }
+
+    /**
+     * Returns how much smaller the response body was on the wire.
+     *
+     * @return decompressed / received size; 1 if the body was not compressed, there was none,
+     * or its size on the wire is unknown.
+     */
+    public double responseCompressionRatio() {
+        return ratio(bytesReceived, encodedBytesReceived);
+    }
+
+    private static double ratio(final long decoded, final long encoded) {
+        return encoded > 0 && decoded > 0 ? (double) decoded / encoded : 1;
+    }
+
+    /**
+     * Checks whether the request and its validations succeeded.
+     *
+     * @return true if no error was thrown.
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
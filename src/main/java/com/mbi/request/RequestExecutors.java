@@ -0,0 +1,53 @@
+package com.mbi.request;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the executor used to send asynchronous requests.
+ * <p>
+ * Defaults to a virtual-thread-per-task executor, so independent requests can be issued concurrently
+ * without sizing a thread pool. Can be replaced globally, e.g. with a bounded pool.
+ */
+public final class RequestExecutors {
+
+    private static volatile Executor executor;
+
+    private RequestExecutors() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Returns the executor for asynchronous requests.
+     *
+     * @return configured executor, or the default virtual-thread executor.
+     */
+    public static Executor get() {
+        final Executor configured = executor;
+        return configured != null ? configured : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Replaces the executor for asynchronous requests.
+     *
+     * @param requestExecutor executor to use; the caller stays responsible for shutting it down.
+     */
+    public static void set(final Executor requestExecutor) {
+        executor = Objects.requireNonNull(requestExecutor, "executor");
+    }
+
+    /**
+     * Restores the default virtual-thread executor.
+     */
+    public static void reset() {
+        executor = null;
+    }
+
+    /**
+     * Lazily created default executor.
+     */
+    private static final class DefaultExecutor {
+        private static final Executor INSTANCE = Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,72 @@
+package com.mbi.request;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide registry of {@link OnRequestPerformedListener}s notified after every request.
+ * <p>
+ * Listeners are kept in a copy-on-write array: registering is rare, while dispatching only reads the current
+ * array, without locks or allocations. If no listener is registered, no event is created at all.
+ * A failing listener is logged and doesn't affect the request or other listeners.
+ */
+public final class RequestListeners {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestListeners.class);
+    private static final AtomicReference<OnRequestPerformedListener[]> LISTENERS =
+            new AtomicReference<>(new OnRequestPerformedListener[0]);
+
+    private RequestListeners() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Registers a listener for all subsequent requests.
+     *
+     * @param listener listener implementation.
+     */
+    public static void add(final OnRequestPerformedListener listener) {
+        LISTENERS.updateAndGet(current -> {
+            final OnRequestPerformedListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            return updated;
+        });
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener previously registered listener.
+     */
+    public static void remove(final OnRequestPerformedListener listener) {
+        LISTENERS.updateAndGet(current -> Arrays.stream(current)
+                .filter(registered -> registered != listener)
+                .toArray(OnRequestPerformedListener[]::new));
+    }
+
+    /**
+     * Unregisters all listeners.
+     */
+    public static void clear() {
+        LISTENERS.set(new OnRequestPerformedListener[0]);
+    }
+
+    /* default */
+    static boolean isEmpty() {
+        return LISTENERS.get().length == 0;
+    }
+
+    /* default */
+    static void fire(final RequestEvent event) {
+        for (final OnRequestPerformedListener listener : LISTENERS.get()) {
+            try {
+                listener.onRequestPerformed(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Request listener {} failed", listener, e);
+            }
+        }
+    }
+}
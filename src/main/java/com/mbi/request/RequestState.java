@@ -0,0 +1,156 @@
+package com.mbi.request;
+
+import com.mbi.cache.ResponseCache;
+import io.restassured.http.Header;
+import io.restassured.http.Method;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.List;
+
+/**
+ * Mutable state of a request being built by {@link RequestBuilder}.
+ * <p>
+ * A builder keeps one instance per thread (or a single one in confined mode), so every setter and getter
+ * touches the same object instead of a separate ThreadLocal per field. Once the request is sent,
+ * the builder drops the instance rather than clearing it field by field.
+ * <p>
+ * Not thread-safe: it is only accessed by the thread that builds the request.
+ */
+public final class RequestState {
+
+    private String url;
+    private Method method;
+    private Object data;
+    private List<Integer> statusCodes;
+    private String token;
+    private List<Header> headers;
+    private RequestSpecification specification;
+    private boolean debug;
+    private Object[] pathParams;
+    private Boolean checkNoErrors;
+    private RetryPolicy retryPolicy;
+    private ResponseCache responseCache;
+    private Integer downloadConnections;
+
+    /* default */
+    RequestState() {
+        // Created by RequestBuilder only
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /* default */
+    void setUrl(final String url) {
+        this.url = url;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /* default */
+    void setMethod(final Method method) {
+        this.method = method;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    /* default */
+    void setData(final Object data) {
+        this.data = data;
+    }
+
+    public List<Integer> getStatusCodes() {
+        return statusCodes;
+    }
+
+    /* default */
+    void setStatusCodes(final List<Integer> statusCodes) {
+        this.statusCodes = statusCodes;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /* default */
+    void setToken(final String token) {
+        this.token = token;
+    }
+
+    public List<Header> getHeaders() {
+        return headers;
+    }
+
+    /* default */
+    void setHeaders(final List<Header> headers) {
+        this.headers = headers;
+    }
+
+    public RequestSpecification getSpecification() {
+        return specification;
+    }
+
+    /* default */
+    void setSpecification(final RequestSpecification specification) {
+        this.specification = specification;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /* default */
+    void setDebug(final boolean debug) {
+        this.debug = debug;
+    }
+
+    public Object[] getPathParams() {
+        return pathParams;
+    }
+
+    /* default */
+    void setPathParams(final Object... pathParams) {
+        this.pathParams = pathParams;
+    }
+
+    public Boolean hasNoErrors() {
+        return checkNoErrors;
+    }
+
+    /* default */
+    void setCheckNoErrors(final Boolean checkNoErrors) {
+        this.checkNoErrors = checkNoErrors;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /* default */
+    void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /* default */
+    void setResponseCache(final ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public Integer getDownloadConnections() {
+        return downloadConnections;
+    }
+
+    /* default */
+    void setDownloadConnections(final Integer downloadConnections) {
+        this.downloadConnections = downloadConnections;
+    }
+}
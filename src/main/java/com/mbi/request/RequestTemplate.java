@@ -0,0 +1,181 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.utils.CallerResolver;
+import com.mbi.utils.RequestBodies;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Immutable, precompiled request shape that can be sent many times from any thread.
+ * <p>
+ * Created by {@link com.mbi.HttpRequest#template()}: default headers, timeouts, the user specification, token,
+ * headers, debug flag and expected status codes are merged once into a base specification. Every request
+ * only copies that specification and sets its URL, path parameters and body, instead of running the whole
+ * {@link com.mbi.config.RequestDirector} chain again.
+ * <pre>{@code
+ * RequestTemplate getUser = http.setToken(token).setExpectedStatusCode(200).template();
+ * getUser.get(url + "/users/{id}", 1);
+ * getUser.withData(body).post(url + "/users");
+ * }</pre>
+ */
+public final class RequestTemplate {
+
+    private final RequestConfig prototype;
+    private final Object data;
+
+    private RequestTemplate(final RequestConfig prototype, final Object data) {
+        this.prototype = prototype;
+        this.data = data;
+    }
+
+    /**
+     * Creates a template from a fully constructed configuration without URL, method and body.
+     *
+     * @param config configuration built by the director; it is copied, so later changes don't affect the template.
+     * @param data   default body, or null.
+     * @return new template.
+     */
+    /* default */
+    static RequestTemplate of(final RequestConfig config, final Object data) {
+        final RequestConfig prototype = config.copy();
+        prototype.setHeaders(Collections.unmodifiableList(new ArrayList<>(config.getHeaders())));
+        if (config.getExpectedStatusCodes() != null) {
+            prototype.setExpectedStatusCodes(
+                    Collections.unmodifiableList(new ArrayList<>(config.getExpectedStatusCodes())));
+        }
+
+        return new RequestTemplate(prototype, data);
+    }
+
+    /**
+     * Returns a template that sends the given body; the base specification is shared.
+     *
+     * @param body request body, or null to send none.
+     * @return new template with the same shape.
+     */
+    public RequestTemplate withData(final Object body) {
+        return new RequestTemplate(prototype, body);
+    }
+
+    /**
+     * Executes a POST request to the specified URL.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     */
+    public Response post(final String url, final Object... pathParams) {
+        return request(Method.POST, url, pathParams);
+    }
+
+    /**
+     * Executes a GET request to the specified URL.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     */
+    public Response get(final String url, final Object... pathParams) {
+        return request(Method.GET, url, pathParams);
+    }
+
+    /**
+     * Executes a PUT request to the specified URL.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     */
+    public Response put(final String url, final Object... pathParams) {
+        return request(Method.PUT, url, pathParams);
+    }
+
+    /**
+     * Executes a PATCH request to the specified URL.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     */
+    public Response patch(final String url, final Object... pathParams) {
+        return request(Method.PATCH, url, pathParams);
+    }
+
+    /**
+     * Executes a DELETE request to the specified URL.
+     *
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     */
+    public Response delete(final String url, final Object... pathParams) {
+        return request(Method.DELETE, url, pathParams);
+    }
+
+    /**
+     * Executes a GET request and streams the response body to a file; see {@link com.mbi.HttpRequest#download}.
+     *
+     * @param url        endpoint URL.
+     * @param target     file to write; missing directories are created.
+     * @param pathParams optional path parameters.
+     * @return size and digests of the downloaded file.
+     */
+    public Download download(final String url, final Path target, final Object... pathParams) {
+        return new FileDownloader(newConfig(Method.GET, url, pathParams)).download(target);
+    }
+
+    /**
+     * Executes the request with the given method.
+     *
+     * @param method     HTTP method.
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return Rest-Assured response object.
+     * @throws com.mbi.utils.RequestAssertionError if status code doesn't match or errors are present.
+     */
+    public Response request(final Method method, final String url, final Object... pathParams) {
+        return new HttpRequestPerformer().request(newConfig(method, url, pathParams));
+    }
+
+    /**
+     * Executes the request with the given method asynchronously on the {@link RequestExecutors} executor.
+     * Waiting for a rate limit permit doesn't block a thread.
+     *
+     * @param method     HTTP method.
+     * @param url        endpoint URL.
+     * @param pathParams optional path parameters.
+     * @return future completed with the response, or exceptionally if the request or validation fails.
+     */
+    public CompletableFuture<Response> requestAsync(final Method method, final String url,
+                                                    final Object... pathParams) {
+        final RequestConfig config = newConfig(method, url, pathParams);
+        // The stack of the executor thread doesn't contain the test method, so resolve it here
+        config.setCallerTestMethod(CallerResolver.getTestEntryPoint());
+
+        return HttpRequestPerformer.requestAsync(config);
+    }
+
+    /**
+     * Creates the configuration of a single request; the prototype is never modified.
+     */
+    private RequestConfig newConfig(final Method method, final String url, final Object... pathParams) {
+        final RequestSpecification spec = given().spec(prototype.getRequestSpecification());
+
+        final RequestConfig config = prototype.copy();
+        config.setRequestSpecification(spec);
+        config.setMethod(method);
+        config.setUrl(url);
+        config.setPathParams(pathParams);
+        config.setData(data != null ? RequestBodies.setBody(spec, data) : null);
+        return config;
+    }
+}
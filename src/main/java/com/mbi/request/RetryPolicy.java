@@ -0,0 +1,279 @@
+package com.mbi.request;
+
+import io.restassured.http.Method;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable retry and hedging policy of a request.
+ * <p>
+ * A failed attempt is retried if its status code is in {@code statusCodes} and not explicitly expected,
+ * or if it threw one of {@code exceptions} (checked along the cause chain). An error is only retried for
+ * idempotent methods, unless {@code nonIdempotentRetries} is set: a POST that timed out may already have been
+ * processed, and sending it again would e.g. create a duplicate. Between attempts the request waits
+ * for an exponential backoff with jitter, or for the server's {@code Retry-After}. No attempt is started if
+ * the wait would exceed {@code maxTotalTime}.
+ * <p>
+ * With {@code hedging}, a GET that has not completed within the p95 latency of its endpoint
+ * (see {@link com.mbi.metrics.MetricsRegistry}) is sent once more, and the first successful response wins.
+ * <pre>{@code
+ * http.setRetryPolicy(RetryPolicy.retries(3).withMaxTotalTime(Duration.ofSeconds(10)).withHedging(true));
+ * }</pre>
+ *
+ * @param maxAttempts          max number of attempts, including the first one.
+ * @param statusCodes          status codes to retry.
+ * @param exceptions           exception types to retry.
+ * @param initialBackoff       wait before the first retry; doubled for every next retry.
+ * @param maxBackoff           max wait between attempts, before jitter.
+ * @param jitter               fraction of the wait that is randomized, from 0 (none) to 1 (full jitter).
+ * @param respectRetryAfter    whether the {@code Retry-After} header replaces the backoff.
+ * @param maxTotalTime         max time from the first attempt to the start of the last one; zero = no limit.
+ * @param hedging              whether slow GET requests are duplicated.
+ * @param nonIdempotentRetries whether errors of POST and PATCH requests are retried as well.
+ */
+public record RetryPolicy(int maxAttempts,
+                          List<Integer> statusCodes,
+                          List<Class<? extends Throwable>> exceptions,
+                          Duration initialBackoff,
+                          Duration maxBackoff,
+                          double jitter,
+                          boolean respectRetryAfter,
+                          Duration maxTotalTime,
+                          boolean hedging,
+                          boolean nonIdempotentRetries) {
+
+    /**
+     * Single attempt, no hedging.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, List.of(), List.of(), Duration.ZERO, Duration.ZERO,
+            0, false, Duration.ZERO, false, false);
+
+    /**
+     * Status codes retried by default: 429 Too Many Requests, 502 Bad Gateway, 503 Service Unavailable
+     * and 504 Gateway Timeout.
+     */
+    public static final List<Integer> DEFAULT_STATUS_CODES = List.of(429, 502, 503, 504);
+
+    private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(100);
+    private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+    private static final double DEFAULT_JITTER = 0.5;
+
+    /**
+     * Methods that can be sent twice with the same effect as once (RFC 9110).
+     */
+    private static final Set<Method> IDEMPOTENT_METHODS =
+            EnumSet.of(Method.GET, Method.HEAD, Method.PUT, Method.DELETE, Method.OPTIONS, Method.TRACE);
+
+    /**
+     * Validates the policy and makes the lists immutable.
+     */
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1: " + jitter);
+        }
+        statusCodes = List.copyOf(statusCodes);
+        exceptions = List.copyOf(exceptions);
+    }
+
+    /**
+     * Creates a policy with the given number of attempts and defaults for everything else:
+     * {@link #DEFAULT_STATUS_CODES}, I/O errors, 100 ms initial and 5 s max backoff, 50% jitter,
+     * {@code Retry-After} respected, no total time limit, no hedging and errors retried for idempotent methods only.
+     *
+     * @param maxAttempts max number of attempts, including the first one.
+     * @return new policy.
+     */
+    public static RetryPolicy retries(final int maxAttempts) {
+        return new RetryPolicy(maxAttempts, DEFAULT_STATUS_CODES, List.of(IOException.class),
+                DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF, DEFAULT_JITTER, true, Duration.ZERO, false, false);
+    }
+
+    /**
+     * Returns a copy that retries the given status codes.
+     *
+     * @param codes status codes to retry.
+     * @return new policy.
+     */
+    public RetryPolicy withStatusCodes(final List<Integer> codes) {
+        return new RetryPolicy(maxAttempts, codes, exceptions, initialBackoff, maxBackoff, jitter,
+                respectRetryAfter, maxTotalTime, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy that retries the given exception types and their subclasses.
+     *
+     * @param types exception types to retry.
+     * @return new policy.
+     */
+    public RetryPolicy withExceptions(final List<Class<? extends Throwable>> types) {
+        return new RetryPolicy(maxAttempts, statusCodes, types, initialBackoff, maxBackoff, jitter,
+                respectRetryAfter, maxTotalTime, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy with the given exponential backoff.
+     *
+     * @param initial wait before the first retry.
+     * @param max     max wait between attempts.
+     * @return new policy.
+     */
+    public RetryPolicy withBackoff(final Duration initial, final Duration max) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initial, max, jitter,
+                respectRetryAfter, maxTotalTime, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy with the given jitter.
+     *
+     * @param fraction fraction of the wait that is randomized, from 0 to 1.
+     * @return new policy.
+     */
+    public RetryPolicy withJitter(final double fraction) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initialBackoff, maxBackoff, fraction,
+                respectRetryAfter, maxTotalTime, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy that respects or ignores the {@code Retry-After} header.
+     *
+     * @param respect true to wait as long as the server asks.
+     * @return new policy.
+     */
+    public RetryPolicy withRetryAfter(final boolean respect) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initialBackoff, maxBackoff, jitter,
+                respect, maxTotalTime, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy with the given total time limit.
+     *
+     * @param max max time from the first attempt to the start of the last one; zero = no limit.
+     * @return new policy.
+     */
+    public RetryPolicy withMaxTotalTime(final Duration max) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initialBackoff, maxBackoff, jitter,
+                respectRetryAfter, max, hedging, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy with hedging of slow GET requests enabled or disabled.
+     *
+     * @param enabled true to send a duplicate GET after the endpoint's p95 latency.
+     * @return new policy.
+     */
+    public RetryPolicy withHedging(final boolean enabled) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initialBackoff, maxBackoff, jitter,
+                respectRetryAfter, maxTotalTime, enabled, nonIdempotentRetries);
+    }
+
+    /**
+     * Returns a copy that retries errors of non-idempotent requests (POST, PATCH) as well. Only enable it
+     * for endpoints that tolerate duplicates, e.g. with an idempotency key.
+     *
+     * @param enabled true to retry errors of every method.
+     * @return new policy.
+     */
+    public RetryPolicy withNonIdempotentRetries(final boolean enabled) {
+        return new RetryPolicy(maxAttempts, statusCodes, exceptions, initialBackoff, maxBackoff, jitter,
+                respectRetryAfter, maxTotalTime, hedging, enabled);
+    }
+
+    /**
+     * Checks whether the policy may send more than one request.
+     *
+     * @return true if retries or hedging are enabled.
+     */
+    public boolean isEnabled() {
+        return maxAttempts > 1 || hedging;
+    }
+
+    /* default */
+    boolean retriesStatus(final int statusCode) {
+        return statusCodes.contains(statusCode);
+    }
+
+    /**
+     * Checks the error and its causes, since errors of async or hedged attempts arrive wrapped.
+     * A non-idempotent request may have reached the server before the error, so it is only retried if allowed.
+     */
+    /* default */
+    boolean retriesError(final Throwable error, final Method method) {
+        boolean retryable = false;
+        if (nonIdempotentRetries || IDEMPOTENT_METHODS.contains(method)) {
+            for (Throwable current = error; current != null && !retryable; current = current.getCause()) {
+                for (final Class<? extends Throwable> type : exceptions) {
+                    retryable |= type.isInstance(current);
+                }
+            }
+        }
+
+        return retryable;
+    }
+
+    /**
+     * Returns the wait before the next attempt.
+     *
+     * @param attempt    number of the failed attempt, starting at 1.
+     * @param retryAfter value of the {@code Retry-After} header, or null.
+     */
+    /* default */
+    long delayNanos(final int attempt, final String retryAfter) {
+        final long requested = respectRetryAfter ? retryAfterNanos(retryAfter) : -1;
+        return requested >= 0 ? requested : backoffNanos(attempt);
+    }
+
+    private long backoffNanos(final int attempt) {
+        final long max = maxBackoff.toNanos();
+        long delay = initialBackoff.toNanos();
+        for (int i = 1; i < attempt && delay < max; i++) {
+            delay *= 2;
+        }
+
+        return (long) (Math.min(delay, max) * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Parses {@code Retry-After}: either delay seconds or an HTTP date.
+     *
+     * @return wait in nanoseconds, or -1 if the header is missing or invalid.
+     */
+    /* default */
+    static long retryAfterNanos(final String retryAfter) {
+        long nanos = -1;
+        if (retryAfter != null && !retryAfter.isBlank()) {
+            final String value = retryAfter.trim();
+            try {
+                nanos = TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+            } catch (NumberFormatException notSeconds) {
+                nanos = untilDateNanos(value);
+            }
+        }
+
+        return nanos;
+    }
+
+    private static long untilDateNanos(final String date) {
+        long nanos = -1;
+        try {
+            final Instant until = ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            nanos = Math.max(0, Duration.between(Instant.now(), until).toNanos());
+        } catch (DateTimeParseException ignored) {
+            // Invalid header: fall back to the backoff
+        }
+
+        return nanos;
+    }
+}
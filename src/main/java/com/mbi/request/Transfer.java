@@ -0,0 +1,85 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.utils.ContentEncoding;
+import com.mbi.utils.RequestBodies;
+import io.restassured.response.Response;
+
+/**
+ * Status code and body sizes of an attempt, as reported in a {@link RequestEvent}.
+ *
+ * @param statusCode           response status code, or 0 if no response was received.
+ * @param bytesSent            size of the request body in bytes.
+ * @param encodedBytesSent     size of the request body as sent, after compression.
+ * @param bytesReceived        size of the decoded response body in bytes, or -1 if it was not measured.
+ * @param encodedBytesReceived size of the response body as received, before decompression, or -1 if unknown.
+ */
+record Transfer(int statusCode, long bytesSent, long encodedBytesSent, long bytesReceived,
+                long encodedBytesReceived) {
+
+    /**
+     * Describes an attempt whose response was received as a Rest-Assured response.
+     * <p>
+     * A compressed body is decoded by the transport, so its size on the wire is only known from Content-Length;
+     * without it (e.g. chunked and compressed on the fly) the size is reported as unknown rather than
+     * as the decoded size. Measuring the decoded size of a compressed body reads it, so it's only done on request.
+     *
+     * @param config           request configuration.
+     * @param encodedBytesSent size of the compressed request body, or -1 if it was sent uncompressed.
+     * @param response         response, or null if none was received.
+     * @param measureDecoded   whether to measure the decoded size of a compressed body, e.g. for listeners.
+     * @return sizes of the attempt.
+     */
+    /* default */
+    static Transfer of(final RequestConfig config, final long encodedBytesSent, final Response response,
+                       final boolean measureDecoded) {
+        final long sent = RequestBodies.size(config.getData());
+        final long encodedSent = encodedBytesSent >= 0 ? encodedBytesSent : sent;
+        final Transfer transfer;
+        if (response == null) {
+            transfer = new Transfer(0, sent, encodedSent, 0, 0);
+        } else if (ContentEncoding.isEncoded(response.getHeader("Content-Encoding"))) {
+            final long received = measureDecoded ? response.asByteArray().length : -1;
+            transfer = new Transfer(response.statusCode(), sent, encodedSent, received, contentLength(response));
+        } else {
+            final long contentLength = contentLength(response);
+            final long received = contentLength >= 0 ? contentLength : response.asByteArray().length;
+            transfer = new Transfer(response.statusCode(), sent, encodedSent, received, received);
+        }
+
+        return transfer;
+    }
+
+    /**
+     * Describes an attempt whose response body was streamed, e.g. to a file.
+     *
+     * @param config        request configuration.
+     * @param statusCode    response status code, or 0 if no response was received.
+     * @param bytesReceived number of body bytes that were read.
+     * @return sizes of the attempt.
+     */
+    /* default */
+    static Transfer streamed(final RequestConfig config, final int statusCode, final long bytesReceived) {
+        final long sent = RequestBodies.size(config.getData());
+        return new Transfer(statusCode, sent, sent, bytesReceived, bytesReceived);
+    }
+
+    /**
+     * Returns the body size on the wire from Content-Length.
+     *
+     * @return size in bytes, or -1 if the header is missing or invalid.
+     */
+    private static long contentLength(final Response response) {
+        final String contentLength = response.getHeader("Content-Length");
+        long bytes = -1;
+        if (contentLength != null) {
+            try {
+                bytes = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException ignored) {
+                // Unknown
+            }
+        }
+
+        return bytes >= 0 ? bytes : -1;
+    }
+}
@@ -0,0 +1,345 @@
+package com.mbi.transport;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.config.YamlConfiguration;
+import com.mbi.utils.ContentEncoding;
+import com.mbi.utils.RequestUrls;
+import com.mbi.utils.ResponseCapture;
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Cookie;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends requests with the JDK {@link HttpClient}.
+ * <p>
+ * All requests with the same settings share one client, whose connections are multiplexed with HTTP/2
+ * (negotiated with ALPN over TLS, or by an h2c upgrade over plain http); servers that only speak HTTP/1.1
+ * get pooled keep-alive connections instead. The client does its I/O on a selector thread, so a request
+ * blocked in {@link #send} only parks its (virtual) thread.
+ * <p>
+ * The request is taken from the Rest-Assured specification: base URI, base path and port, headers,
+ * content type, cookies, query and path parameters and the body, text encoded with the charset of the
+ * content type. Filters (including the {@code debug()} log), auth schemes, form parameters and multipart
+ * bodies are Rest-Assured features: a request that uses one of them is rejected with an
+ * {@link IllegalStateException} rather than sent without it. The response is converted back into
+ * a Rest-Assured {@link Response}; a gzip or deflate body is decompressed while it is read.
+ * <pre>{@code
+ * transport: JDK
+ * httpVersion: HTTP_2 # or HTTP_1_1 (default HTTP_2)
+ * }</pre>
+ */
+public final class JdkHttpTransport implements Transport {
+
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+    private static final int DEFAULT_REQUEST_TIMEOUT_MS = 60_000;
+
+    private static final int DEFAULT_ERROR_BODY_LIMIT = 1 << 16;
+
+    /**
+     * Headers set by the client itself; the JDK rejects them in a request.
+     */
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final Map<Settings, JdkHttpTransport> TRANSPORTS = new ConcurrentHashMap<>();
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    private JdkHttpTransport(final Settings settings) {
+        this.client = HttpClient.newBuilder()
+                .version(settings.version())
+                .connectTimeout(Duration.ofMillis(settings.connectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = Duration.ofMillis(settings.requestTimeoutMs());
+    }
+
+    /**
+     * Returns the shared transport for the given YAML settings.
+     * <p>
+     * If YAML defines connectionTimeout, it is used as both the connect and the response timeout.
+     *
+     * @param configuration YAML configuration snapshot.
+     * @return transport backed by a shared client.
+     */
+    public static JdkHttpTransport of(final YamlConfiguration configuration) {
+        final Settings settings = Settings.of(configuration);
+        final JdkHttpTransport transport = TRANSPORTS.get(settings);
+        return transport != null ? transport : TRANSPORTS.computeIfAbsent(settings, JdkHttpTransport::new);
+    }
+
+    /**
+     * Returns the shared client, e.g. to send requests the library doesn't model.
+     *
+     * @return HTTP client.
+     */
+    public HttpClient client() {
+        return client;
+    }
+
+    @Override
+    public Response send(final RequestConfig config, final RequestSpecification spec) {
+        final HttpResponse<InputStream> response = exchange(request(config, spec));
+        return head(response).setBody(read(response, config.getResponseBodyLimit())).build();
+    }
+
+    @Override
+    public <T> T receive(final RequestConfig config, final RequestSpecification spec, final BodyReader<T> reader) {
+        final HttpResponse<InputStream> response = exchange(request(config, spec));
+        try (InputStream raw = response.body(); InputStream body = decode(response, raw)) {
+            // An unsuccessful response is usually reported with its body, so the head keeps its first bytes
+            final byte[] prefix = response.statusCode() / 100 == 2
+                    ? new byte[0]
+                    : body.readNBytes(errorBodyLimit(config));
+            return reader.read(head(response).setBody(prefix).build(),
+                    new SequenceInputStream(new ByteArrayInputStream(prefix), body));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    /**
+     * Returns how much of an error body the assertion message can show: the capture limit,
+     * otherwise max response length at 4 bytes per character, otherwise 64 KiB.
+     */
+    private static int errorBodyLimit(final RequestConfig config) {
+        final long limit = config.getResponseCaptureLimit() > 0
+                ? config.getResponseCaptureLimit()
+                : config.getMaxResponseLength() * 4L;
+        return limit > 0 ? (int) Math.min(limit, Integer.MAX_VALUE) : DEFAULT_ERROR_BODY_LIMIT;
+    }
+
+    private HttpRequest request(final RequestConfig config, final RequestSpecification spec) {
+        final var filterable = (FilterableRequestSpecification) spec;
+        checkSupported(config, filterable);
+        final String url = RequestUrls.resolve(config.getUrl(), filterable);
+        final String contentType = filterable.getContentType();
+        final HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(uri(url, config.getPathParams(), filterable.getNamedPathParams(), filterable.getQueryParams()))
+                .timeout(requestTimeout)
+                .method(config.getMethod().name(), body(filterable.getBody(), contentType));
+
+        for (final Header header : filterable.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                request.header(header.getName(), header.getValue());
+            }
+        }
+        if (contentType != null && !filterable.getHeaders().hasHeaderWithName("Content-Type")) {
+            request.header("Content-Type", contentType);
+        }
+        if (!filterable.getHeaders().hasHeaderWithName("Accept-Encoding")) {
+            // Like Rest-Assured, ask for a compressed response; it's decompressed while it's read
+            request.header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        }
+        final StringJoiner cookies = new StringJoiner("; ");
+        for (final Cookie cookie : filterable.getCookies()) {
+            cookies.add(cookie.getName() + "=" + cookie.getValue());
+        }
+        if (cookies.length() > 0) {
+            request.header("Cookie", cookies.toString());
+        }
+
+        return request.build();
+    }
+
+    /**
+     * Rejects a specification that relies on Rest-Assured features this transport can't apply.
+     *
+     * @throws IllegalStateException naming the first unsupported feature.
+     */
+    /* default */
+    static void checkSupported(final RequestConfig config, final FilterableRequestSpecification spec) {
+        final AuthenticationScheme auth = spec.getAuthenticationScheme();
+        String feature = null;
+        if (config.isDebug()) {
+            feature = "debug() logging";
+        } else if (!spec.getDefinedFilters().isEmpty()) {
+            feature = "filters";
+        } else if (auth != null && !(auth instanceof NoAuthScheme)) {
+            feature = "auth() schemes";
+        } else if (!spec.getFormParams().isEmpty()) {
+            feature = "form parameters";
+        } else if (!spec.getMultiPartParams().isEmpty()) {
+            feature = "multipart bodies";
+        }
+
+        if (feature != null) {
+            throw new IllegalStateException("The JDK transport doesn't support Rest-Assured " + feature
+                    + "; use transport: REST_ASSURED for " + config.getMethod() + " " + config.getUrl());
+        }
+    }
+
+    /**
+     * Expands the URL template: named parameters by name, the remaining placeholders with the unnamed
+     * parameters in order; then appends the query parameters. Values are URL-encoded.
+     *
+     * @param url         URL template, e.g. {@code https://host/users/{id}}.
+     * @param pathParams  unnamed path parameter values, or null.
+     * @param namedParams named path parameter values.
+     * @param queryParams query parameters.
+     * @return request URI.
+     * @throws IllegalArgumentException if a placeholder has no value.
+     */
+    /* default */
+    static URI uri(final String url, final Object[] pathParams, final Map<String, ?> namedParams,
+                   final Map<String, ?> queryParams) {
+        final var uri = new StringBuilder(url.length() + 32);
+        int unnamed = 0;
+        int start = 0;
+        int open = url.indexOf('{');
+        int close = open < 0 ? -1 : url.indexOf('}', open);
+        while (open >= 0 && close > open) {
+            final String name = url.substring(open + 1, close);
+            Object value = namedParams.get(name);
+            if (value == null && pathParams != null && unnamed < pathParams.length) {
+                value = pathParams[unnamed++];
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("No value for path parameter '" + name + "' in " + url);
+            }
+
+            uri.append(url, start, open).append(encode(value).replace("+", "%20"));
+            start = close + 1;
+            open = url.indexOf('{', start);
+            close = open < 0 ? -1 : url.indexOf('}', open);
+        }
+        uri.append(url, start, url.length());
+
+        char separator = url.indexOf('?') >= 0 ? '&' : '?';
+        for (final Map.Entry<String, ?> param : queryParams.entrySet()) {
+            uri.append(separator).append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+            separator = '&';
+        }
+
+        return URI.create(uri.toString());
+    }
+
+    private static String encode(final Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts the body of the specification (see {@link com.mbi.utils.RequestBodies}): a file is sent
+     * with a known length and a stream with chunked transfer encoding, both without loading them into memory.
+     * Text is encoded with the charset of the content type, as it's declared in the request.
+     */
+    private static HttpRequest.BodyPublisher body(final Object body, final String contentType) {
+        final HttpRequest.BodyPublisher publisher;
+        if (body == null) {
+            publisher = HttpRequest.BodyPublishers.noBody();
+        } else if (body instanceof byte[] bytes) {
+            publisher = HttpRequest.BodyPublishers.ofByteArray(bytes);
+        } else if (body instanceof File file) {
+            publisher = ofFile(file.toPath());
+        } else if (body instanceof InputStream stream) {
+            publisher = HttpRequest.BodyPublishers.ofInputStream(() -> stream);
+        } else {
+            publisher = HttpRequest.BodyPublishers.ofString(body.toString(), ResponseCapture.charset(contentType));
+        }
+
+        return publisher;
+    }
+
+    private static HttpRequest.BodyPublisher ofFile(final Path file) {
+        try {
+            return HttpRequest.BodyPublishers.ofFile(file);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException("Request body file not found: " + file, e);
+        }
+    }
+
+    private HttpResponse<InputStream> exchange(final HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            // Keeps the IOException in the cause chain, so retry policies treat it as an I/O error
+            throw new UncheckedIOException(request.method() + " " + request.uri() + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending " + request.uri(), e);
+        }
+    }
+
+    /**
+     * Converts the status line and headers; the body is set by the caller.
+     */
+    private static ResponseBuilder head(final HttpResponse<InputStream> response) {
+        final List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            // Skip HTTP/2 pseudo-headers such as :status
+            if (!name.startsWith(":")) {
+                values.forEach(value -> headers.add(new Header(name, value)));
+            }
+        });
+
+        final String version = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(version + " " + response.statusCode())
+                .setHeaders(new Headers(headers));
+    }
+
+    /**
+     * Reads the decompressed body; beyond the limit it is read and thrown away, so the connection can be reused.
+     */
+    private static byte[] read(final HttpResponse<InputStream> response, final int limit) {
+        try (InputStream raw = response.body(); InputStream in = decode(response, raw)) {
+            final byte[] bytes = limit > 0 ? in.readNBytes(limit) : in.readAllBytes();
+            in.transferTo(OutputStream.nullOutputStream());
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    private static InputStream decode(final HttpResponse<InputStream> response, final InputStream body)
+            throws IOException {
+        return ContentEncoding.decode(response.headers().firstValue("Content-Encoding").orElse(null), body);
+    }
+
+    /**
+     * Effective client settings; requests with equal settings share one client.
+     */
+    private record Settings(int connectTimeoutMs, int requestTimeoutMs, HttpClient.Version version) {
+
+        private static Settings of(final YamlConfiguration configuration) {
+            final Integer timeout = configuration.getConnectionTimeout();
+            final HttpClient.Version version = configuration.getHttpVersion();
+            return new Settings(
+                    timeout != null ? timeout : DEFAULT_CONNECT_TIMEOUT_MS,
+                    timeout != null ? timeout : DEFAULT_REQUEST_TIMEOUT_MS,
+                    version != null ? version : HttpClient.Version.HTTP_2);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mbi.transport;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Sends requests with Rest-Assured, using the connection pool configured in the specification.
+ */
+public final class RestAssuredTransport implements Transport {
+
+    /**
+     * Shared instance; the transport has no state.
+     */
+    public static final RestAssuredTransport INSTANCE = new RestAssuredTransport();
+
+    private RestAssuredTransport() {
+        // Use INSTANCE
+    }
+
+    @Override
+    public Response send(final RequestConfig config, final RequestSpecification spec) {
+        return spec.request(config.getMethod(), config.getUrl(), config.getPathParams());
+    }
+}
@@ -0,0 +1,69 @@
+package com.mbi.transport;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * HTTP engine that sends a fully built request and returns its response.
+ * <p>
+ * Everything around the exchange (status code and 'errors' validation, retries, metrics, curl, logging)
+ * is done by the library on the returned Rest-Assured {@link Response}, so it works the same for every transport.
+ * The engine is selected in {@code http-request.yml} with {@code transport} (see {@link TransportType}).
+ */
+public interface Transport {
+
+    /**
+     * Sends the request once.
+     *
+     * @param config request configuration: method, URL template, path parameters and body limit.
+     * @param spec   specification with the headers, cookies, query parameters and body of this attempt.
+     * @return response; its body may already be truncated to {@link RequestConfig#getResponseBodyLimit()}.
+     */
+    Response send(RequestConfig config, RequestSpecification spec);
+
+    /**
+     * Sends the request once and hands the response body to the reader as it is received, without buffering it.
+     * <p>
+     * The body stream is closed when the reader returns. The body limit of the configuration is not applied.
+     *
+     * @param config request configuration: method, URL template and path parameters.
+     * @param spec   specification with the headers, cookies, query parameters and body of this attempt.
+     * @param reader reads the body stream.
+     * @param <T>    result of the reader.
+     * @return value returned by the reader.
+     * @throws UncheckedIOException if the body can't be read.
+     */
+    default <T> T receive(final RequestConfig config, final RequestSpecification spec, final BodyReader<T> reader) {
+        // The body of a Rest-Assured response is read from the connection on first access
+        final Response response = send(config, spec);
+        try (InputStream body = response.asInputStream()) {
+            return reader.read(response, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    /**
+     * Reads a streamed response body.
+     *
+     * @param <T> result type.
+     */
+    @FunctionalInterface
+    interface BodyReader<T> {
+
+        /**
+         * Reads the body.
+         *
+         * @param response response with the status line and headers; its body must not be read.
+         * @param body     body stream, as received from the connection.
+         * @return result.
+         * @throws IOException if the body can't be read.
+         */
+        T read(Response response, InputStream body) throws IOException;
+    }
+}
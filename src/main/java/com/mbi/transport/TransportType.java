@@ -0,0 +1,20 @@
+package com.mbi.transport;
+
+/**
+ * HTTP engine used to send requests.
+ */
+public enum TransportType {
+
+    /**
+     * Rest-Assured on top of the pooled Apache HttpClient 4: blocking HTTP/1.1, supports everything
+     * a {@code RequestSpecification} can hold (filters, auth schemes, multipart). The default.
+     */
+    REST_ASSURED,
+
+    /**
+     * JDK {@link java.net.http.HttpClient}: one shared client with HTTP/2 multiplexing (h2c for plain http),
+     * many concurrent requests per connection. Sends the headers, cookies, query parameters and body
+     * of the specification; rejects filters, auth schemes, form parameters and multipart bodies.
+     */
+    JDK
+}
@@ -13,6 +13,9 @@ import java.util.Set;
  * - NOT TestNG/JUnit infrastructure
  * - BUT the deepest (last) user-level test method,
  * e.g. tests.mytest.MyTestClass.testSomething()
+ * <p>
+ * When {@link TestMethodListener} (TestNG, registered automatically) or {@link TestMethodExtension} (JUnit 5)
+ * is active, the running test method is published per thread and the stack is not walked at all.
  */
 public final class CallerResolver {
 
@@ -23,6 +26,28 @@ public final class CallerResolver {
     private static final StackWalker WALKER =
             StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE));
 
+    /**
+     * Test method published by a test framework listener for the current thread.
+     */
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+
+    /**
+     * Per-class results of the class name checks, so each class is only inspected once.
+     */
+    private static final ClassValue<Boolean> INFRASTRUCTURE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return isInfrastructureClass(type.getName());
+        }
+    };
+
+    private static final ClassValue<Boolean> TEST_CLASSES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return isTestClass(type.getName());
+        }
+    };
+
     private CallerResolver() {
         // Utility class: prevent instantiation
     }
@@ -37,14 +62,40 @@ public final class CallerResolver {
      * tests.accounts.MyAccountTest.init
      * <p>
      * If nothing is found, returns "unknown".
+     * <p>
+     * A test method published by a listener takes precedence over the stack walk.
      */
     public static String getTestEntryPoint() {
+        final String currentTest = CURRENT_TEST.get();
+        return currentTest != null ? currentTest : walkStack();
+    }
+
+    /**
+     * Publishes the running test method for the current thread.
+     *
+     * @param testMethod "package.Class.method" of the running test.
+     */
+    /* default */
+    static void enterTest(final String testMethod) {
+        CURRENT_TEST.set(testMethod);
+    }
+
+    /**
+     * Clears the test method published for the current thread.
+     */
+    /* default */
+    static void exitTest() {
+        CURRENT_TEST.remove();
+    }
+
+    private static String walkStack() {
         return WALKER.walk(stream ->
                 stream
                         // Remove all infrastructure frames
-                        .filter(stackFrame -> !isInfrastructure(stackFrame))
+                        .filter(stackFrame -> !INFRASTRUCTURE_CLASSES.get(stackFrame.getDeclaringClass()))
                         // Keep only user-level test code frames
-                        .filter(CallerResolver::isUserTestCode)
+                        .filter(stackFrame -> TEST_CLASSES.get(stackFrame.getDeclaringClass())
+                                || isTestMethod(stackFrame.getMethodName()))
                         // Get the LAST one (deepest), not first
                         .reduce((first, second) -> second)
                         // Convert to "package.Class.method"
@@ -62,7 +113,19 @@ public final class CallerResolver {
      */
     /* default */
     static boolean isInfrastructure(final StackWalker.StackFrame stackFrame) {
-        final var className = stackFrame.getClassName();
+        return isInfrastructureClass(stackFrame.getClassName());
+    }
+
+    /**
+     * Determines whether a frame belongs to user test code.
+     * This logic can be extended based on the project structure.
+     */
+    /* default */
+    static boolean isUserTestCode(final StackWalker.StackFrame stackFrame) {
+        return isTestClass(stackFrame.getClassName()) || isTestMethod(stackFrame.getMethodName());
+    }
+
+    private static boolean isInfrastructureClass(final String className) {
         return
                 // JDK internal mechanisms
                 className.startsWith("java.")
@@ -75,19 +138,14 @@ public final class CallerResolver {
                         || className.startsWith("org.junit.");          // JUnit internals
     }
 
-    /**
-     * Determines whether a frame belongs to user test code.
-     * This logic can be extended based on the project structure.
-     */
-    /* default */
-    static boolean isUserTestCode(final StackWalker.StackFrame stackFrame) {
-        final var className = stackFrame.getClassName();
-        final var methodName = stackFrame.getMethodName();
-
+    private static boolean isTestClass(final String className) {
         return className.startsWith("tests.")        // default name of the test package
                 || className.endsWith("Test")        // common naming convention
                 || className.contains(".tests.")     // additional safeguard
-                || className.contains(".test.")      // fallback for mixed structures
-                || methodName.startsWith("test");    // method naming convention
+                || className.contains(".test.");     // fallback for mixed structures
+    }
+
+    private static boolean isTestMethod(final String methodName) {
+        return methodName.startsWith("test");        // method naming convention
     }
 }
@@ -0,0 +1,123 @@
+package com.mbi.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content codings supported by the JDK: used to compress request bodies and to decode response bodies.
+ * <pre>{@code
+ * requestCompression: GZIP        # or DEFLATE
+ * requestCompressionMinBytes: 1024
+ * }</pre>
+ */
+public enum ContentEncoding {
+
+    /**
+     * {@code Content-Encoding: gzip}.
+     */
+    GZIP("gzip"),
+
+    /**
+     * {@code Content-Encoding: deflate}: zlib-wrapped deflate, as defined by RFC 9110.
+     */
+    DEFLATE("deflate");
+
+    /**
+     * Value of the {@code Accept-Encoding} header for the codings that can be decoded.
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentEncoding(final String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the name of the coding in {@code Content-Encoding}.
+     *
+     * @return e.g. {@code gzip}.
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Compresses a body.
+     *
+     * @param body uncompressed bytes.
+     * @return compressed bytes.
+     */
+    public byte[] encode(final byte[] body) {
+        // JSON typically shrinks 5-10x, so start small rather than at the size of the body
+        final var out = new ByteArrayOutputStream(Math.max(BUFFER_SIZE, body.length / 4));
+        try (OutputStream encoder = this == GZIP
+                ? new GZIPOutputStream(out, BUFFER_SIZE)
+                : new DeflaterOutputStream(out)) {
+            encoder.write(body);
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Wraps a response body stream, so it is decompressed while it is read.
+     *
+     * @param contentEncoding value of the {@code Content-Encoding} header, or null.
+     * @param body            body as received.
+     * @return decoding stream, or the body itself if it isn't encoded with a supported coding.
+     * @throws IOException if the gzip header can't be read.
+     */
+    public static InputStream decode(final String contentEncoding, final InputStream body) throws IOException {
+        final String coding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        final boolean gzip = GZIP.token.equals(coding) || "x-gzip".equals(coding);
+        final InputStream decoded;
+        if (gzip || DEFLATE.token.equals(coding)) {
+            final var in = new PushbackInputStream(body, 1);
+            if (isEmpty(in)) {
+                // Responses without a body (HEAD, 204, 304) keep the header, but there is nothing to decompress
+                decoded = in;
+            } else {
+                decoded = gzip ? new GZIPInputStream(in, BUFFER_SIZE) : new InflaterInputStream(in);
+            }
+        } else {
+            decoded = body;
+        }
+
+        return decoded;
+    }
+
+    private static boolean isEmpty(final PushbackInputStream in) throws IOException {
+        final int first = in.read();
+        if (first >= 0) {
+            in.unread(first);
+        }
+
+        return first < 0;
+    }
+
+    /**
+     * Checks whether a body was sent with a content coding.
+     *
+     * @param contentEncoding value of the {@code Content-Encoding} header, or null.
+     * @return true unless the header is missing or {@code identity}.
+     */
+    public static boolean isEncoded(final String contentEncoding) {
+        return contentEncoding != null && !contentEncoding.isBlank()
+                && !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+}
@@ -76,23 +76,31 @@ public record CurlGenerator(RequestConfig config) {
 
     /**
      * Appends the body data to the curl command using --data flag.
+     * <p>
+     * Binary bodies are not printed: a file is referenced as {@code --data-binary '@<path>'},
+     * other binary bodies get a placeholder with their size.
      *
      * @return formatted body string, or empty string if no body is set.
      */
     private String getData() {
         final var data = config.getData();
+        final String curlData;
         if (data == null) {
-            return "";
+            curlData = "";
+        } else if (RequestBodies.isBinary(data)) {
+            curlData = "  --data-binary '" + RequestBodies.describe(data) + "'";
+        } else {
+            // Pretty JSON with indentation
+            final var pretty = prettyPrintJson(data.toString());
+
+            // Indent JSON block with 4 spaces
+            final var indented = indentBlock(pretty);
+
+            // IMPORTANT: data block is the ONLY part without trailing backslash
+            curlData = "  --data '\n" + indented + "'";
         }
 
-        // Pretty JSON with indentation
-        final var pretty = prettyPrintJson(data.toString());
-
-        // Indent JSON block with 4 spaces
-        final var indented = indentBlock(pretty);
-
-        // IMPORTANT: data block is the ONLY part without trailing backslash
-        return "  --data '\n" + indented + "'";
+        return curlData;
     }
 
     /**
@@ -0,0 +1,219 @@
+package com.mbi.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming check for an 'errors' array in a JSON response.
+ * <p>
+ * Walks the body with a pull parser: only the fields on the configured path are entered, everything else
+ * is skipped without building objects, and the scan stops at the first non-null error.
+ * <p>
+ * Follows the GPath semantics of {@code jsonPath().getList(path)} that the check used before:
+ * - a missing or null field means no errors
+ * - an array has errors if any element is not null
+ * - if an array is found where an object is expected, the field is collected from every element,
+ * and any non-null value counts as errors
+ */
+public final class ErrorsScanner {
+
+    /**
+     * Default path of the errors array.
+     */
+    public static final String DEFAULT_PATH = "errors";
+
+    private static final Pattern PATH_SEPARATOR = Pattern.compile("\\.");
+
+    private ErrorsScanner() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Checks whether the response body contains errors at the given path.
+     *
+     * @param response response with a JSON body.
+     * @param path     dot-separated field path, e.g. {@code errors} or {@code extensions.errors}.
+     * @return true if at least one non-null error is present.
+     * @throws IOException if the body is not valid JSON.
+     */
+    public static boolean hasErrors(final Response response, final String path) throws IOException {
+        final var body = new ByteArrayInputStream(response.asByteArray());
+        try (Reader reader = new InputStreamReader(body, ResponseCapture.charset(response.getContentType()))) {
+            return hasErrors(reader, path);
+        }
+    }
+
+    /**
+     * Scans a body while it is read, e.g. from the network, and records the outcome instead of throwing.
+     * <p>
+     * The stream is not closed, and it's read only as far as the scan needs.
+     *
+     * @param body    body stream.
+     * @param charset charset of the body.
+     * @param path    dot-separated field path.
+     * @return outcome of the scan.
+     */
+    public static Result scan(final InputStream body, final Charset charset, final String path) {
+        Result result;
+        try {
+            result = new Result(hasErrors(new InputStreamReader(body, charset), path), null);
+        } catch (IOException e) {
+            result = new Result(false, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the JSON document contains errors at the given path.
+     *
+     * @param json JSON document; an empty document has no errors.
+     * @param path dot-separated field path.
+     * @return true if at least one non-null error is present.
+     * @throws IOException if the document is not valid JSON.
+     */
+    public static boolean hasErrors(final Reader json, final String path) throws IOException {
+        final JsonReader reader = new JsonReader(json);
+        return !isEmpty(reader) && scan(reader, PATH_SEPARATOR.split(path), 0, false);
+    }
+
+    /**
+     * Outcome of a scan that already ran, see {@link #scan(InputStream, Charset, String)}.
+     *
+     * @param errors  whether a non-null error was found.
+     * @param failure why the body could not be scanned, or null.
+     */
+    public record Result(boolean errors, IOException failure) {
+
+        /**
+         * Returns the outcome the way {@link #hasErrors(Response, String)} would.
+         *
+         * @return true if at least one non-null error is present.
+         * @throws IOException if the body is not valid JSON.
+         */
+        public boolean hasErrors() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+
+            return errors;
+        }
+    }
+
+    private static boolean isEmpty(final JsonReader reader) throws IOException {
+        boolean empty;
+        try {
+            reader.peek();
+            empty = false;
+        } catch (EOFException e) {
+            empty = true;
+        }
+
+        return empty;
+    }
+
+    /**
+     * Scans the next value for the path starting at the given depth.
+     *
+     * @param collecting true if the value comes from an array, so any non-null value counts.
+     */
+    private static boolean scan(final JsonReader reader, final String[] path, final int depth,
+                                final boolean collecting) throws IOException {
+        final JsonToken token = reader.peek();
+        final boolean found;
+        if (depth == path.length) {
+            found = collecting ? isNotNull(reader) : hasNotNullElement(reader);
+        } else if (token == JsonToken.BEGIN_OBJECT) {
+            found = scanObject(reader, path, depth, collecting);
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            found = scanArray(reader, path, depth);
+        } else {
+            reader.skipValue();
+            found = false;
+        }
+
+        return found;
+    }
+
+    private static boolean scanObject(final JsonReader reader, final String[] path, final int depth,
+                                      final boolean collecting) throws IOException {
+        reader.beginObject();
+        boolean found = false;
+        while (!found && reader.hasNext()) {
+            if (path[depth].equals(reader.nextName())) {
+                found = scan(reader, path, depth + 1, collecting);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        endIfNotFound(reader, found, JsonToken.END_OBJECT);
+        return found;
+    }
+
+    private static boolean scanArray(final JsonReader reader, final String[] path, final int depth)
+            throws IOException {
+        reader.beginArray();
+        boolean found = false;
+        while (!found && reader.hasNext()) {
+            found = scan(reader, path, depth, true);
+        }
+
+        endIfNotFound(reader, found, JsonToken.END_ARRAY);
+        return found;
+    }
+
+    private static boolean hasNotNullElement(final JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        boolean found = false;
+        if (token == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (!found && reader.hasNext()) {
+                found = isNotNull(reader);
+            }
+            endIfNotFound(reader, found, JsonToken.END_ARRAY);
+        } else {
+            // Anything but an array (e.g. a single error object) counts as errors, unless it's null
+            found = isNotNull(reader);
+        }
+
+        return found;
+    }
+
+    /**
+     * Closes the object or array, so that scanning can continue with the next value.
+     * Once errors are found, nothing else is read.
+     */
+    private static void endIfNotFound(final JsonReader reader, final boolean found, final JsonToken end)
+            throws IOException {
+        if (!found) {
+            if (end == JsonToken.END_OBJECT) {
+                reader.endObject();
+            } else {
+                reader.endArray();
+            }
+        }
+    }
+
+    /**
+     * Consumes a null value; a non-null value is left unread, since the scan stops there anyway.
+     */
+    private static boolean isNotNull(final JsonReader reader) throws IOException {
+        final boolean notNull = reader.peek() != JsonToken.NULL;
+        if (!notNull) {
+            reader.nextNull();
+        }
+
+        return notNull;
+    }
+}
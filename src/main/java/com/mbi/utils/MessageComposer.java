@@ -9,30 +9,28 @@ import io.restassured.response.Response;
  * Includes:
  * - Original assertion error message.
  * - Request URL.
- * - Response body (optionally truncated).
+ * - Response body (optionally truncated, see {@link ResponseCapture}).
  * - Curl command for reproducing request.
  */
 public final class MessageComposer {
 
-    private final String error;
-    private final String url;
-    private final String response;
-    private final String request;
-    private final int responseLength;
+    private final AssertionError error;
+    private final RequestConfig config;
+    private final Response response;
 
     /**
      * Constructs message composer for a failed request.
+     * <p>
+     * Nothing is formatted until {@link #composeMessage()} is called.
      *
      * @param error    original assertion error.
      * @param config   request config, used for url, curl, and max response length.
      * @param response actual response from server.
      */
     public MessageComposer(final AssertionError error, final RequestConfig config, final Response response) {
-        this.error = error.getMessage();
-        this.url = String.format("%nUrl: %s", config.getUrl());
-        this.responseLength = config.getMaxResponseLength();
-        this.response = String.format("%n%nResponse: %s%n", cutResponse(response.asString()));
-        this.request = String.format("%n%nRequest: %s%n%n", new CurlGenerator(config).getCurl());
+        this.error = error;
+        this.config = config;
+        this.response = response;
     }
 
     /**
@@ -41,10 +39,23 @@ public final class MessageComposer {
      * @return detailed message with error, URL, response body and curl.
      */
     public String composeMessage() {
-        return error
-                .concat(url)
-                .concat(response)
-                .concat(request);
+        return error.getMessage()
+                .concat(String.format("%nUrl: %s", config.getUrl()))
+                .concat(String.format("%n%nResponse: %s%n", cutResponse(responseText())))
+                .concat(String.format("%n%nRequest: %s%n%n", new CurlGenerator(config).getCurl()));
+    }
+
+    /**
+     * Decodes only as much of the body as the message can show.
+     * <p>
+     * The capture limit bounds the bytes directly; otherwise max response length (in characters)
+     * bounds them at 4 bytes per character, the longest UTF-8 encoding.
+     */
+    private String responseText() {
+        final long byteLimit = config.getResponseCaptureLimit() > 0
+                ? config.getResponseCaptureLimit()
+                : config.getMaxResponseLength() * 4L;
+        return ResponseCapture.text(response, (int) Math.min(byteLimit, Integer.MAX_VALUE));
     }
 
     /**
@@ -54,6 +65,7 @@ public final class MessageComposer {
      * @return trimmed or full response string.
      */
     private String cutResponse(final String response) {
+        final int responseLength = config.getMaxResponseLength();
         return (responseLength > 0)
                 ? response.substring(0, Math.min(responseLength, response.length()))
                 : response;
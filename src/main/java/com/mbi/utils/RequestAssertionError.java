@@ -0,0 +1,82 @@
+package com.mbi.utils;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+
+/**
+ * Assertion error of a failed HTTP request validation.
+ * <p>
+ * Only keeps references to the request config and the response. The detailed message (URL, response body
+ * and curl, see {@link MessageComposer}) is rendered on first access and then reused, so tests that expect
+ * and catch the failure don't pay for formatting it.
+ * <p>
+ * The caller of a failed request gets no body, so with {@code responseCaptureLimit} only that many bytes
+ * are read from the connection and kept; the rest is discarded.
+ */
+public class RequestAssertionError extends AssertionError {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient RequestConfig config;
+    private final transient Response response;
+    private volatile String message;
+
+    /**
+     * Creates an error for a failed request.
+     *
+     * @param error    original assertion error, kept as the cause.
+     * @param config   request config.
+     * @param response actual response from server.
+     */
+    public RequestAssertionError(final AssertionError error, final RequestConfig config, final Response response) {
+        super(null, error);
+        this.config = config;
+        // Read the body now, so the pooled connection is released even if the message is never rendered
+        final int captureLimit = config.getResponseCaptureLimit();
+        if (captureLimit > 0) {
+            this.response = ResponseCapture.limitBody(response, captureLimit);
+        } else {
+            response.asByteArray();
+            this.response = response;
+        }
+    }
+
+    /**
+     * Returns the response that failed validation.
+     *
+     * @return response with a buffered body, cut to the capture limit if there is one.
+     */
+    public Response getResponse() {
+        return response;
+    }
+
+    /**
+     * Returns the detailed message, rendering it on first call.
+     *
+     * @return message with error, URL, response body and curl.
+     */
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = new MessageComposer((AssertionError) getCause(), config, response).composeMessage();
+            message = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Renders the message before serialization, since the config and response are not serializable.
+     */
+    @Serial
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
+}
@@ -0,0 +1,219 @@
+package com.mbi.utils;
+
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Request bodies that are sent as they are, without being turned into a String.
+ * <p>
+ * Supported binary bodies:
+ * - {@code byte[]} and {@link ByteBuffer} (its remaining bytes): sent with a known length
+ * - {@link Path} and {@link File}: streamed from disk with a known length, never loaded into memory
+ * - {@link InputStream}: streamed with chunked transfer encoding; it can only be read once, so it is not
+ * re-sent by retries
+ * <p>
+ * Any other body is sent as its {@code toString()}. Logs and curl commands show a placeholder
+ * instead of the content of a binary body, e.g. {@code --data-binary '@/tmp/import.csv'}.
+ * <p>
+ * Text and byte array bodies can be compressed right before they are sent (see {@link ContentEncoding}),
+ * while logs and curl keep showing the uncompressed body.
+ */
+public final class RequestBodies {
+
+    private RequestBodies() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Sets the body of the specification.
+     *
+     * @param spec specification to update.
+     * @param data body: binary (see class description) or any object sent as its string value.
+     * @return the body as held by the specification, i.e. what is logged and shown in curl.
+     */
+    public static Object setBody(final RequestSpecification spec, final Object data) {
+        final Object body;
+        if (data instanceof Path path) {
+            body = path.toFile();
+        } else if (data instanceof ByteBuffer buffer) {
+            body = bytes(buffer);
+        } else if (data instanceof byte[] || data instanceof File || data instanceof InputStream) {
+            body = data;
+        } else {
+            body = data.toString();
+        }
+
+        if (body instanceof byte[] bytes) {
+            spec.body(bytes);
+        } else if (body instanceof File file) {
+            spec.body(file);
+        } else if (body instanceof InputStream stream) {
+            spec.body(stream);
+        } else {
+            spec.body((String) body);
+        }
+
+        return body;
+    }
+
+    /**
+     * Checks whether the body is sent as raw bytes.
+     *
+     * @param data request body, may be null.
+     * @return true for byte arrays, buffers, files and streams.
+     */
+    public static boolean isBinary(final Object data) {
+        return data instanceof byte[] || data instanceof ByteBuffer || data instanceof File
+                || data instanceof Path || data instanceof InputStream;
+    }
+
+    /**
+     * Returns the size of a binary body without reading it.
+     *
+     * @param data binary body.
+     * @return size in bytes; -1 for a stream or a file that can't be read.
+     */
+    public static long length(final Object data) {
+        final long length;
+        if (data instanceof byte[] bytes) {
+            length = bytes.length;
+        } else if (data instanceof ByteBuffer buffer) {
+            length = buffer.remaining();
+        } else if (data instanceof Path path) {
+            length = length(path.toFile());
+        } else if (data instanceof File file) {
+            length = file.isFile() ? file.length() : -1;
+        } else {
+            length = -1;
+        }
+
+        return length;
+    }
+
+    /**
+     * Returns the size of the body as sent without compression; text is measured as UTF-8 without encoding it.
+     *
+     * @param data request body, may be null.
+     * @return size in bytes; 0 for no body and for a stream, since it can't be measured without reading it.
+     */
+    public static long size(final Object data) {
+        final long bytes;
+        if (data == null) {
+            bytes = 0;
+        } else if (isBinary(data)) {
+            bytes = Math.max(0, length(data));
+        } else {
+            bytes = utf8Length(data instanceof CharSequence text ? text : data.toString());
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Compresses the text or byte array body of the specification if it has at least {@code minBytes}
+     * and sets its {@code Content-Encoding}. Files, streams and bodies that already have
+     * a {@code Content-Encoding} header are sent as they are.
+     *
+     * @param spec     specification of the attempt.
+     * @param encoding content coding, or null to send the body uncompressed.
+     * @param minBytes min size of a body to compress.
+     * @return size of the compressed body, or -1 if it was not compressed.
+     */
+    public static long compress(final RequestSpecification spec, final ContentEncoding encoding, final int minBytes) {
+        long compressed = -1;
+        if (encoding != null) {
+            final var filterable = (FilterableRequestSpecification) spec;
+            final byte[] body = bytes(filterable.getBody(), filterable.getContentType());
+            if (body != null && body.length >= minBytes
+                    && !filterable.getHeaders().hasHeaderWithName("Content-Encoding")) {
+                final byte[] encoded = encoding.encode(body);
+                spec.body(encoded).header("Content-Encoding", encoding.token());
+                compressed = encoded.length;
+            }
+        }
+
+        return compressed;
+    }
+
+    /**
+     * Describes a binary body for logs and curl: {@code @<file>} for files (as curl reads them),
+     * otherwise the size, e.g. {@code <binary body: 1024 bytes>}.
+     *
+     * @param data binary body.
+     * @return placeholder text.
+     */
+    public static String describe(final Object data) {
+        final String description;
+        if (data instanceof Path path) {
+            description = "@" + path.toAbsolutePath();
+        } else if (data instanceof File file) {
+            description = "@" + file.getAbsolutePath();
+        } else if (data instanceof InputStream) {
+            description = "<binary stream>";
+        } else {
+            description = "<binary body: " + length(data) + " bytes>";
+        }
+
+        return description;
+    }
+
+    /**
+     * Returns the bytes of a text or byte array body, text encoded with the charset of the content type.
+     */
+    private static byte[] bytes(final Object body, final String contentType) {
+        final byte[] bytes;
+        if (body instanceof byte[] array) {
+            bytes = array;
+        } else if (body instanceof String text) {
+            bytes = text.getBytes(ResponseCapture.charset(contentType));
+        } else {
+            bytes = null;
+        }
+
+        return bytes;
+    }
+
+    private static long utf8Length(final CharSequence text) {
+        long bytes = 0;
+        int i = 0;
+        while (i < text.length()) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // A surrogate pair encodes a single 4-byte code point
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+            i++;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the remaining bytes of the buffer without changing its position;
+     * the backing array itself if it holds exactly those bytes.
+     */
+    private static byte[] bytes(final ByteBuffer buffer) {
+        final byte[] bytes;
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            bytes = buffer.array();
+        } else {
+            bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,271 @@
+package com.mbi.utils;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.mbi.config.RequestConfig;
+import io.restassured.http.Header;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.List;
+
+/**
+ * Streaming JSON serializer for {@link RequestConfig} log records.
+ * <p>
+ * Writes the configuration straight to an {@link Appendable} through a {@link JsonWriter}, without building
+ * a Gson tree. A request body that already is JSON is copied token by token in a single pass of a pull parser,
+ * instead of being parsed into a tree and serialized again, which also minifies a pretty-printed body;
+ * any other body is written as a JSON string.
+ * <p>
+ * An instance reuses the same JsonWriter for every record, so it is not thread-safe.
+ */
+public final class RequestConfigJsonWriter {
+
+    private final AppendableWriter out = new AppendableWriter();
+    private JsonWriter json = newJsonWriter(out);
+
+    /**
+     * Writes the configuration as a single-line JSON object.
+     *
+     * @param config request configuration.
+     * @param target destination, e.g. a StringBuilder or a file Writer.
+     * @throws IOException if the target fails to append.
+     */
+    public void write(final RequestConfig config, final Appendable target) throws IOException {
+        out.target = target;
+        boolean completed = false;
+        try {
+            writeObject(config);
+            json.flush();
+            completed = true;
+        } finally {
+            out.target = null;
+            if (!completed) {
+                // A partially written record leaves the writer mid-object, so start over with a fresh one
+                json = newJsonWriter(out);
+            }
+        }
+    }
+
+    private void writeObject(final RequestConfig config) throws IOException {
+        json.beginObject();
+
+        if (config.getMethod() != null) {
+            json.name("method").value(config.getMethod().name());
+        }
+        stringField("url", config.getUrl());
+        stringField("callerTestMethod", config.getCallerTestMethod());
+        if (config.getData() != null) {
+            json.name("data");
+            writeData(config.getData());
+        }
+        if (config.getHeaders() != null) {
+            json.name("headers");
+            writeHeaders(config.getHeaders());
+        }
+        if (config.getExpectedStatusCodes() != null) {
+            json.name("expectedStatusCodes");
+            writeArray(config.getExpectedStatusCodes().toArray());
+        }
+        if (config.getPathParams() != null) {
+            json.name("pathParams");
+            writeArray(config.getPathParams());
+        }
+        json.name("maxResponseLength").value(config.getMaxResponseLength());
+        json.name("debug").value(config.isDebug());
+        if (config.isCheckNoErrors() != null) {
+            json.name("checkNoErrors").value(config.isCheckNoErrors());
+        }
+
+        json.endObject();
+    }
+
+    private void stringField(final String name, final String value) throws IOException {
+        if (value != null) {
+            json.name(name).value(value);
+        }
+    }
+
+    /**
+     * Writes the body: valid JSON is embedded minified, a binary body as a placeholder, anything else as a string.
+     */
+    private void writeData(final Object data) throws IOException {
+        if (RequestBodies.isBinary(data)) {
+            json.value(RequestBodies.describe(data));
+        } else if (data instanceof Number number) {
+            json.value(number);
+        } else if (data instanceof Boolean bool) {
+            json.value(bool);
+        } else {
+            final String text = data.toString();
+            final String minified = minify(text);
+            if (minified != null) {
+                json.jsonValue(minified);
+            } else {
+                json.value(text);
+            }
+        }
+    }
+
+    /**
+     * Copies exactly one JSON value token by token into a scratch buffer, so whitespace between tokens
+     * (e.g. line breaks) is dropped. The text is parsed once: if it turns out not to be JSON, the partial copy
+     * is thrown away.
+     *
+     * @return minified JSON, or null if the text is not a single JSON value.
+     */
+    private static String minify(final String text) {
+        final var scratch = new StringWriter(text.length());
+        String minified = null;
+        try (JsonReader reader = new JsonReader(new StringReader(text))) {
+            final JsonWriter writer = newJsonWriter(scratch);
+            int depth = 0;
+            do {
+                depth += copyToken(reader, writer, reader.peek());
+            } while (depth > 0);
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                minified = scratch.toString();
+            }
+        } catch (IOException | IllegalStateException ignored) {
+            // Not JSON (e.g. MalformedJsonException): the body is written as a string
+        }
+
+        return minified;
+    }
+
+    /**
+     * Copies one token.
+     *
+     * @return change of the nesting depth: 1 after a begin token, -1 after an end token, otherwise 0.
+     */
+    private static int copyToken(final JsonReader reader, final JsonWriter writer, final JsonToken token)
+            throws IOException {
+        return switch (token) {
+            case BEGIN_OBJECT -> {
+                reader.beginObject();
+                writer.beginObject();
+                yield 1;
+            }
+            case END_OBJECT -> {
+                reader.endObject();
+                writer.endObject();
+                yield -1;
+            }
+            case BEGIN_ARRAY -> {
+                reader.beginArray();
+                writer.beginArray();
+                yield 1;
+            }
+            case END_ARRAY -> {
+                reader.endArray();
+                writer.endArray();
+                yield -1;
+            }
+            case NAME -> {
+                writer.name(reader.nextName());
+                yield 0;
+            }
+            default -> {
+                copyValue(reader, writer, token);
+                yield 0;
+            }
+        };
+    }
+
+    private static void copyValue(final JsonReader reader, final JsonWriter writer, final JsonToken token)
+            throws IOException {
+        switch (token) {
+            case STRING -> writer.value(reader.nextString());
+            // The literal is kept as written, e.g. 1.50 or 1e3
+            case NUMBER -> writer.jsonValue(reader.nextString());
+            case BOOLEAN -> writer.value(reader.nextBoolean());
+            case NULL -> {
+                reader.nextNull();
+                writer.nullValue();
+            }
+            // END_DOCUMENT: nothing left to copy
+            default -> throw new EOFException("Unexpected end of JSON");
+        }
+    }
+
+    private void writeHeaders(final List<Header> headers) throws IOException {
+        json.beginArray();
+        for (final Header header : headers) {
+            json.beginObject();
+            stringField("name", header.getName());
+            stringField("value", header.getValue());
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private void writeArray(final Object... values) throws IOException {
+        json.beginArray();
+        for (final Object value : values) {
+            if (value == null) {
+                json.nullValue();
+            } else if (value instanceof Number number) {
+                json.value(number);
+            } else if (value instanceof Boolean bool) {
+                json.value(bool);
+            } else {
+                json.value(value.toString());
+            }
+        }
+        json.endArray();
+    }
+
+    private static JsonWriter newJsonWriter(final Writer writer) {
+        final JsonWriter jsonWriter = new JsonWriter(writer);
+        // Lenient mode allows the same writer to produce one top-level record after another
+        jsonWriter.setStrictness(Strictness.LENIENT);
+        // Do not escape characters like <, >, &
+        jsonWriter.setHtmlSafe(false);
+        return jsonWriter;
+    }
+
+    /**
+     * Writer adapter whose target can be swapped between records.
+     */
+    private static final class AppendableWriter extends Writer {
+
+        private Appendable target;
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            target.append(CharBuffer.wrap(cbuf, off, len));
+        }
+
+        @Override
+        public void write(final int c) throws IOException {
+            target.append((char) c);
+        }
+
+        @Override
+        public void write(final String str, final int off, final int len) throws IOException {
+            target.append(str, off, off + len);
+        }
+
+        @Override
+        public Writer append(final CharSequence csq) throws IOException {
+            target.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+            // Nothing is buffered
+        }
+
+        @Override
+        public void close() {
+            // The target is owned by the caller
+        }
+    }
+}
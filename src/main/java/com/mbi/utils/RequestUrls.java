@@ -0,0 +1,91 @@
+package com.mbi.utils;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Resolves request URLs the way Rest-Assured does: a relative URL, e.g. {@code /users/{id}}, is sent
+ * to the base URI, port and base path of the specification.
+ * <p>
+ * Anything that depends on the host of a request, such as rate limits, must use the resolved URL,
+ * since the URL of a request may not name it.
+ */
+public final class RequestUrls {
+
+    /**
+     * Port of a Rest-Assured specification that doesn't set one.
+     */
+    private static final int DEFAULT_TEST_PORT = 8080;
+
+    private RequestUrls() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Resolves the URL of the request against its specification.
+     *
+     * @param config request configuration.
+     * @return absolute URL template; path parameters are not expanded.
+     */
+    public static String resolve(final RequestConfig config) {
+        return resolve(config.getUrl(), config.getRequestSpecification());
+    }
+
+    /**
+     * Resolves the URL against the specification.
+     *
+     * @param url  absolute or relative URL template.
+     * @param spec specification with the base URI, base path and port.
+     * @return absolute URL template; path parameters are not expanded.
+     */
+    public static String resolve(final String url, final RequestSpecification spec) {
+        final var filterable = (FilterableRequestSpecification) spec;
+        return resolve(url, filterable.getBaseUri(), filterable.getBasePath(), filterable.getPort());
+    }
+
+    /**
+     * Resolves the URL against the base URI, base path and port: an absolute URL is used as it is,
+     * a relative one is appended to the base URI and base path. The port is added to a base URI that has none,
+     * except Rest-Assured's default 8080 to an https one.
+     *
+     * @param url      absolute or relative URL template.
+     * @param baseUri  base URI, or null for {@code http://localhost}.
+     * @param basePath base path, or null.
+     * @param port     port, or a negative value if it's not set.
+     * @return absolute URL template.
+     */
+    /* default */
+    static String resolve(final String url, final String baseUri, final String basePath, final int port) {
+        return url.contains("://")
+                ? url
+                : join(join(withPort(baseUri != null ? baseUri : "http://localhost", port), basePath), url);
+    }
+
+    private static String withPort(final String url, final int port) {
+        final int host = url.indexOf("://") + "://".length();
+        int end = host;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        // A colon after the user info and an IPv6 address separates the port
+        final String authority = url.substring(host, end);
+        final boolean hasPort = authority.lastIndexOf(':') > Math.max(authority.lastIndexOf(']'),
+                authority.lastIndexOf('@'));
+        final boolean defaultHttps = port == DEFAULT_TEST_PORT && url.startsWith("https:");
+        return port > 0 && !hasPort && !defaultHttps ? url.substring(0, end) + ':' + port + url.substring(end) : url;
+    }
+
+    private static String join(final String base, final String path) {
+        final String joined;
+        if (path == null || path.isEmpty()) {
+            joined = base;
+        } else {
+            final String left = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+            joined = left + (path.startsWith("/") ? path : "/" + path);
+        }
+
+        return joined;
+    }
+
+}
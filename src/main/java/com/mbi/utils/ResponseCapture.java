@@ -0,0 +1,244 @@
+package com.mbi.utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+
+/**
+ * Bounded access to response bodies.
+ * <p>
+ * Lets the library read only as much of a body as it needs:
+ * - {@link #limitBody(Response, int, String)} reads at most N bytes from the network stream and discards
+ * the rest, so a huge body is never held in memory; the errors check can scan the whole body on the way.
+ * - {@link #capture(Response, int)} and {@link #text(Response, int)} read a bounded prefix from the body stream
+ * for logs and error messages.
+ */
+public final class ResponseCapture {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ResponseCapture() {
+        // Utility class: prevent instantiation
+    }
+
+    /**
+     * Returns a response whose body holds at most {@code limit} bytes.
+     * <p>
+     * The body is read straight from the connection: the first {@code limit} bytes are kept,
+     * the rest is read in small chunks and thrown away, so the connection can still be reused.
+     *
+     * @param response response with a body that was not read yet.
+     * @param limit    max body size in bytes; 0 or less = no limit.
+     * @return the same response if there is no limit, otherwise a copy with the truncated body.
+     */
+    public static Response limitBody(final Response response, final int limit) {
+        return limitBody(response, limit, null).response();
+    }
+
+    /**
+     * Returns a response whose body holds at most {@code limit} bytes, scanning the whole body for errors
+     * while it is read.
+     *
+     * @param response   response with a body that was not read yet.
+     * @param limit      max body size in bytes; 0 or less = no limit.
+     * @param errorsPath path of the errors array to scan for, or null to skip the scan.
+     * @return the same response without a scan if there is no limit, otherwise a copy with the truncated body.
+     */
+    public static LimitedBody limitBody(final Response response, final int limit, final String errorsPath) {
+        LimitedBody limited = new LimitedBody(response, false, null);
+        if (limit > 0) {
+            try (InputStream in = response.asInputStream()) {
+                limited = limitBody(response, in, limit, errorsPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read response body", e);
+            }
+        }
+
+        return limited;
+    }
+
+    /**
+     * Reads a streamed body once: the first {@code limit} bytes are kept, the rest is read in small chunks
+     * and thrown away, so the connection can still be reused. The errors scan sees every byte, so the check
+     * doesn't depend on the limit. Fits {@link com.mbi.transport.Transport.BodyReader}.
+     *
+     * @param head       response with the status line and headers.
+     * @param body       body stream; it is not closed.
+     * @param limit      max body size in bytes, positive.
+     * @param errorsPath path of the errors array to scan for, or null to skip the scan.
+     * @return copy of the head with the truncated body.
+     * @throws IOException if the body can't be read.
+     */
+    public static LimitedBody limitBody(final Response head, final InputStream body, final int limit,
+                                        final String errorsPath) throws IOException {
+        final var prefix = new PrefixInputStream(body, limit);
+        final ErrorsScanner.Result errors = errorsPath == null
+                ? null
+                : ErrorsScanner.scan(prefix, charset(head.getContentType()), errorsPath);
+        discard(prefix);
+
+        return new LimitedBody(new ResponseBuilder().clone(head).setBody(prefix.prefix()).build(),
+                prefix.truncated(), errors);
+    }
+
+    /**
+     * Returns at most {@code limit} bytes of the body, read from the body stream.
+     * <p>
+     * A body that was not read yet is consumed: pass a response whose body is buffered, or that nobody reads.
+     *
+     * @param response response.
+     * @param limit    max number of bytes; 0 or less = no limit.
+     * @return the whole body if there is no limit, otherwise its first bytes.
+     */
+    public static byte[] capture(final Response response, final int limit) {
+        return limit > 0 ? prefix(response, limit) : response.asByteArray();
+    }
+
+    /**
+     * Decodes at most {@code limit} bytes of the body, read from the body stream.
+     * <p>
+     * A body that was not read yet is consumed, like with {@link #capture(Response, int)}.
+     *
+     * @param response response.
+     * @param limit    max number of bytes to decode; 0 or less = the whole body.
+     * @return body text.
+     */
+    public static String text(final Response response, final int limit) {
+        return limit > 0
+                ? new String(prefix(response, limit), charset(response.getContentType()))
+                : response.asString();
+    }
+
+    private static byte[] prefix(final Response response, final int limit) {
+        try {
+            return readAtMost(response.asInputStream(), limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read response body", e);
+        }
+    }
+
+    private static byte[] readAtMost(final InputStream in, final int limit) throws IOException {
+        final var out = new ByteArrayOutputStream(Math.min(limit, BUFFER_SIZE));
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int remaining = limit;
+        int read = 0;
+        while (remaining > 0 && read >= 0) {
+            read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+            if (read > 0) {
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private static void discard(final InputStream in) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read = 0;
+        while (read >= 0) {
+            read = in.read(buffer);
+        }
+    }
+
+    /**
+     * Body cut to a size limit, see {@link #limitBody(Response, InputStream, int, String)}.
+     *
+     * @param response  response with at most the limit of body bytes.
+     * @param truncated whether bytes beyond the limit were discarded.
+     * @param errors    errors scan of the whole body, or null if it didn't run.
+     */
+    public record LimitedBody(Response response, boolean truncated, ErrorsScanner.Result errors) {
+    }
+
+    /**
+     * Keeps the first bytes that pass through, and counts all of them.
+     */
+    private static final class PrefixInputStream extends FilterInputStream {
+
+        private final ByteArrayOutputStream prefix;
+        private final int limit;
+        private long count;
+
+        private PrefixInputStream(final InputStream in, final int limit) {
+            super(in);
+            this.prefix = new ByteArrayOutputStream(Math.min(limit, BUFFER_SIZE));
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                keep(new byte[]{(byte) b}, 0, 1);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                keep(buffer, offset, read);
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            // Skipped bytes must be kept too
+            return Math.max(read(new byte[(int) Math.min(n, BUFFER_SIZE)]), 0);
+        }
+
+        private void keep(final byte[] buffer, final int offset, final int length) {
+            if (count < limit) {
+                prefix.write(buffer, offset, (int) Math.min(length, limit - count));
+            }
+            count += length;
+        }
+
+        private byte[] prefix() {
+            return prefix.toByteArray();
+        }
+
+        private boolean truncated() {
+            return count > limit;
+        }
+    }
+
+    /**
+     * Reads the charset parameter of the content type, e.g. to encode a text body with it.
+     *
+     * @param contentType content type, or null.
+     * @return charset; UTF-8 if it's missing or unknown.
+     */
+    public static Charset charset(final String contentType) {
+        Charset charset = StandardCharsets.UTF_8;
+        if (contentType != null) {
+            final int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+            if (index >= 0) {
+                final String name = contentType.substring(index + "charset=".length())
+                        .split(";", 2)[0].replace("\"", "").trim();
+                try {
+                    charset = Charset.forName(name);
+                } catch (IllegalCharsetNameException | UnsupportedCharsetException ignored) {
+                    // Keep UTF-8
+                }
+            }
+        }
+
+        return charset;
+    }
+}
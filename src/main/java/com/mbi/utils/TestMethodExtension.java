@@ -0,0 +1,26 @@
+package com.mbi.utils;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * JUnit 5 extension that publishes the running test method to {@link CallerResolver},
+ * so requests are attributed to it without walking the call stack.
+ * <p>
+ * Register it with {@code @ExtendWith(TestMethodExtension.class)}, or for all tests at once with
+ * {@code junit.jupiter.extensions.autodetection.enabled=true}.
+ */
+public class TestMethodExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(final ExtensionContext context) {
+        CallerResolver.enterTest(context.getRequiredTestClass().getName()
+                + "." + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterTestExecution(final ExtensionContext context) {
+        CallerResolver.exitTest();
+    }
+}
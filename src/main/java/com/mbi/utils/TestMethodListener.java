@@ -0,0 +1,26 @@
+package com.mbi.utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * TestNG listener that publishes the running test or configuration method to {@link CallerResolver},
+ * so requests are attributed to it without walking the call stack.
+ * <p>
+ * Registered automatically through {@code META-INF/services/org.testng.ITestNGListener}.
+ */
+public class TestMethodListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        final ITestNGMethod testMethod = method.getTestMethod();
+        CallerResolver.enterTest(testMethod.getRealClass().getName() + "." + testMethod.getMethodName());
+    }
+
+    @Override
+    public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+        CallerResolver.exitTest();
+    }
+}
@@ -4,6 +4,7 @@ import com.mbi.HttpRequest;
 import com.mbi.config.RequestDirector;
 import com.mbi.request.RequestBuilder;
 import com.mbi.utils.CallerResolver;
+import com.mbi.utils.RequestAssertionError;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
@@ -17,6 +18,8 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static io.restassured.RestAssured.given;
 import static org.testng.Assert.*;
@@ -432,6 +435,74 @@ public class HttpRequestTest {
                 """));
     }
 
+    @Test
+    public void testGetAsync() {
+        var response = http
+                .setExpectedStatusCode(200)
+                .getAsync(baseUrl + "/success")
+                .join();
+
+        assertEquals(response.asString(), "{\"a\":1}");
+    }
+
+    @Test
+    public void testAsyncRequestsRunConcurrently() {
+        var first = http.setExpectedStatusCode(200).postAsync(baseUrl + "/errors-null");
+        var second = http.setExpectedStatusCode(200).putAsync(baseUrl + "/errors-null");
+        var third = http.setExpectedStatusCode(200).deleteAsync(baseUrl + "/errors-null");
+
+        CompletableFuture.allOf(first, second, third).join();
+
+        assertEquals(first.join().statusCode(), 200);
+        assertEquals(second.join().statusCode(), 200);
+        assertEquals(third.join().statusCode(), 200);
+    }
+
+    @Test
+    public void testAsyncStatusCodeMismatchCompletesExceptionally() {
+        var future = http
+                .setExpectedStatusCode(404)
+                .getAsync(baseUrl + "/success");
+
+        var ex = expectThrows(CompletionException.class, future::join);
+        assertTrue(ex.getCause() instanceof AssertionError);
+        assertTrue(ex.getCause().getMessage().contains("expected [404] but found [200]"));
+    }
+
+    @Test
+    public void testAsyncCheckNoErrorsCompletesExceptionally() {
+        var future = http
+                .checkNoErrors(true)
+                .patchAsync(baseUrl + "/with-errors");
+
+        var ex = expectThrows(CompletionException.class, future::join);
+        assertTrue(ex.getCause().getMessage().startsWith("Response has errors!"));
+    }
+
+    @Test
+    public void testAsyncRequestResetsBuilder() {
+        http.setExpectedStatusCode(404)
+                .getAsync(baseUrl + "/success")
+                .exceptionally(throwable -> null)
+                .join();
+
+        // Expectations of the async request must not leak into the next one
+        http.get(baseUrl + "/success");
+    }
+
+    @Test
+    public void testAssertionMessageIsRenderedOnceOnDemand() {
+        var ex = expectThrows(RequestAssertionError.class, () -> http
+                .setExpectedStatusCode(404)
+                .get(baseUrl + "/success"));
+
+        var message = ex.getMessage();
+        assertTrue(message.startsWith("expected [404] but found [200]"));
+        assertTrue(message.contains("--request GET"));
+        assertSame(ex.getMessage(), message);
+        assertEquals(ex.getCause().getMessage(), "expected [404] but found [200]");
+    }
+
     static class JsonHandler implements HttpHandler {
 
         @Override
@@ -0,0 +1,264 @@
+package com.mbi.cache;
+
+import com.mbi.config.ConfigurationCache;
+import com.mbi.config.RequestDirector;
+import com.mbi.request.RequestBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Header;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class ResponseCacheTest {
+
+    private static String baseUrl;
+    private final Map<String, AtomicInteger> served = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/max-age", exchange -> respond(exchange, "max-age=60", null));
+        server.createContext("/etag", exchange -> respond(exchange, "no-cache", "\"v1\""));
+        server.createContext("/no-store", exchange -> respond(exchange, "no-store", "\"v1\""));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testFreshResponseIsServedFromMemory() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age?fresh";
+
+        var first = new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+        var second = new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+
+        assertEquals(second.asString(), first.asString());
+        assertEquals(second.statusCode(), 200);
+        assertEquals(served.get(url).get(), 1);
+        assertEquals(cache.stats().hits(), 1);
+        assertEquals(cache.stats().misses(), 1);
+        assertEquals(cache.stats().entries(), 1);
+        assertEquals(cache.stats().hitRatio(), 0.5, 0.0001);
+    }
+
+    @Test
+    public void testStaleResponseIsRevalidated() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/etag?revalidated";
+
+        var first = new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+        var before = notModified.get();
+        var second = new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertTrue(notModified.get() > before);
+        assertEquals(second.statusCode(), 200);
+        assertEquals(second.asString(), first.asString());
+        assertEquals(second.getHeader("ETag"), "\"v1\"");
+        assertEquals(cache.stats().revalidations(), 1);
+    }
+
+    @Test
+    public void testNoStoreIsNotCached() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/no-store";
+
+        new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+        new RequestBuilder().setResponseCache(cache).setExpectedStatusCode(200).get(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertEquals(cache.stats().entries(), 0);
+        assertEquals(cache.stats().misses(), 2);
+    }
+
+    @Test
+    public void testRequestHeadersArePartOfKey() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age?users";
+
+        new RequestBuilder().setResponseCache(cache).setToken("Bearer a").get(url);
+        new RequestBuilder().setResponseCache(cache).setToken("Bearer b").get(url);
+        new RequestBuilder().setResponseCache(cache).setToken("Bearer a").get(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertEquals(cache.stats().hits(), 1);
+    }
+
+    @Test
+    public void testPostIsNotCached() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age?post";
+
+        new RequestBuilder().setResponseCache(cache).setData("{}").post(url);
+        new RequestBuilder().setResponseCache(cache).setData("{}").post(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertEquals(cache.stats(), new ResponseCache.Stats(0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        var cache = new ResponseCache(700);
+
+        new RequestBuilder().setResponseCache(cache).get(baseUrl + "/max-age?first");
+        new RequestBuilder().setResponseCache(cache).get(baseUrl + "/max-age?second");
+
+        assertEquals(cache.stats().entries(), 1);
+        assertEquals(cache.stats().evictions(), 1);
+        assertTrue(cache.stats().bytes() <= 700);
+
+        cache.setMaxBytes(0);
+        assertFalse(cache.isEnabled());
+        assertEquals(cache.stats().entries(), 0);
+    }
+
+    @Test
+    public void testKeyIncludesPathParamsAndHeaders() {
+        var url = "https://example.com/users/{id}";
+        var headers = List.of(new Header("Accept", "application/json"));
+        var key = ResponseCache.key(url, new Object[]{1}, headers);
+
+        assertEquals(ResponseCache.key(url, null, null), url);
+        assertEquals(ResponseCache.key(url, new Object[]{1}, headers), key);
+        assertNotEquals(ResponseCache.key(url, new Object[]{2}, headers), key);
+        assertNotEquals(ResponseCache.key(url, new Object[]{1}, null), key);
+    }
+
+    @Test
+    public void testMaxAgeParsing() {
+        assertEquals(CachedResponse.maxAgeSeconds("public, max-age=60"), 60);
+        assertEquals(CachedResponse.maxAgeSeconds("max-age=\"30\", must-revalidate"), 30);
+        assertEquals(CachedResponse.maxAgeSeconds("no-cache"), 0);
+        assertEquals(CachedResponse.maxAgeSeconds("max-age=soon"), 0);
+        assertEquals(CachedResponse.maxAgeSeconds(""), 0);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        assertFalse(ResponseCache.NONE.isEnabled());
+        assertTrue(ResponseCache.shared().isEnabled());
+        assertEquals(new ResponseCache.Stats(3, 1, 4, 0, 1, 10).hitRatio(), 0.5, 0.0001);
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(-1));
+    }
+
+    @Test
+    public void testDisabledCacheCanNotBeResized() {
+        assertThrows(UnsupportedOperationException.class, () -> ResponseCache.NONE.setMaxBytes(1024));
+        assertFalse(ResponseCache.NONE.isEnabled());
+        assertEquals(ResponseCache.NONE.maxBytes(), 0);
+    }
+
+    @Test
+    public void testSharedCacheIsSizedOnce() {
+        var builder = new RequestBuilder();
+        builder.setUrl(baseUrl + "/max-age");
+        var director = new RequestDirector(builder) {
+            @Override
+            protected String yamlFileName() {
+                return "http-request-response-cache.yml";
+            }
+        };
+        director.constructRequest();
+
+        var shared = ResponseCache.shared();
+        assertSame(director.getRequestConfig().getResponseCache(), shared);
+        assertEquals(shared.maxBytes(), 1_048_576);
+
+        // Neither a reload nor another configuration resizes it
+        ConfigurationCache.reload("http-request-response-cache.yml");
+        assertSame(ResponseCache.shared(2048), shared);
+        assertEquals(shared.maxBytes(), 1_048_576);
+    }
+
+    @Test
+    public void testQueryParamsArePartOfKey() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age/pages";
+
+        new RequestBuilder().setRequestSpecification(given().queryParam("page", 1)).setResponseCache(cache).get(url);
+        new RequestBuilder().setRequestSpecification(given().queryParam("page", 2)).setResponseCache(cache).get(url);
+        var cached = new RequestBuilder().setRequestSpecification(given().queryParam("page", 1))
+                .setResponseCache(cache).get(url);
+
+        assertEquals(served.get(url + "?page=1").get(), 1);
+        assertEquals(served.get(url + "?page=2").get(), 1);
+        assertEquals(cache.stats().hits(), 1);
+        assertEquals(cache.stats().entries(), 2);
+        assertEquals(cached.statusCode(), 200);
+    }
+
+    @Test
+    public void testCookiesArePartOfKey() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age?sessions";
+
+        new RequestBuilder().setRequestSpecification(given().cookie("session", "a")).setResponseCache(cache).get(url);
+        new RequestBuilder().setRequestSpecification(given().cookie("session", "b")).setResponseCache(cache).get(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertEquals(cache.stats().hits(), 0);
+    }
+
+    @Test
+    public void testAuthSchemeIsNotCached() {
+        var cache = new ResponseCache(1_000_000);
+        var url = baseUrl + "/max-age?auth";
+
+        new RequestBuilder().setRequestSpecification(given().auth().basic("a", "secret"))
+                .setResponseCache(cache).get(url);
+        new RequestBuilder().setRequestSpecification(given().auth().basic("b", "secret"))
+                .setResponseCache(cache).get(url);
+
+        assertEquals(served.get(url).get(), 2);
+        assertEquals(cache.stats().entries(), 0);
+    }
+
+    private void respond(HttpExchange exchange, String cacheControl, String etag) throws IOException {
+        var uri = exchange.getRequestURI().toString();
+        served.computeIfAbsent(baseUrl + uri, key -> new AtomicInteger()).incrementAndGet();
+
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+
+        byte[] response = ("{\"uri\":\"" + uri + "\"}").getBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.mbi.config;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class ConfigurationCacheTest {
+
+    @Test
+    public void testSameSnapshotReturnedForSameFile() {
+        var first = ConfigurationCache.get("http-request-with-max.yml");
+        var second = ConfigurationCache.get("http-request-with-max.yml");
+
+        assertSame(first, second);
+        assertEquals(first.getMaxResponseLength(), Integer.valueOf(5));
+    }
+
+    @Test
+    public void testEmptyConfigurationIfFileMissing() {
+        var configuration = ConfigurationCache.get("missing-http-request.yml");
+
+        assertNull(configuration.getHeaders());
+        assertNull(configuration.getConnectionTimeout());
+    }
+
+    @Test
+    public void testReloadSwapsSnapshot() {
+        var before = ConfigurationCache.get("http-request-without-max.yml");
+        var after = ConfigurationCache.reload("http-request-without-max.yml");
+
+        assertNotSame(before, after);
+        assertSame(ConfigurationCache.get("http-request-without-max.yml"), after);
+        assertEquals(after.getHeaders(), Map.of("X-Test", "test"));
+    }
+
+    @Test
+    public void testSnapshotHeadersAreReadOnly() {
+        var headers = ConfigurationCache.get("http-request-without-timeout.yml").getHeaders();
+
+        expectThrows(UnsupportedOperationException.class, () -> headers.put("X-Other", "value"));
+    }
+
+    @Test
+    public void testOverridesApplied() {
+        var overrides = Map.of("connectionTimeout", "5000", "maxResponseLength", " 10 ");
+        var configuration = new YamlConfiguration();
+
+        ConfigurationCache.applyOverrides(configuration, overrides::get);
+
+        assertEquals(configuration.getConnectionTimeout(), Integer.valueOf(5000));
+        assertEquals(configuration.getMaxResponseLength(), Integer.valueOf(10));
+    }
+
+    @Test
+    public void testNoOverridesKeepFileValues() {
+        var configuration = new YamlConfiguration();
+        configuration.setConnectionTimeout(1234);
+
+        ConfigurationCache.applyOverrides(configuration, property -> null);
+
+        assertEquals(configuration.getConnectionTimeout(), Integer.valueOf(1234));
+    }
+
+    @Test
+    public void testClientConfigSharedForEqualSettings() {
+        var first = new YamlConfiguration();
+        first.setConnectionTimeout(4321);
+        var second = new YamlConfiguration();
+        second.setConnectionTimeout(4321);
+        var other = new YamlConfiguration();
+        other.setConnectionTimeout(4321);
+        other.setMaxConnectionsPerRoute(3);
+
+        assertSame(ConnectionPool.restAssuredConfig(first), ConnectionPool.restAssuredConfig(second));
+        assertNotSame(ConnectionPool.restAssuredConfig(first), ConnectionPool.restAssuredConfig(other));
+    }
+}
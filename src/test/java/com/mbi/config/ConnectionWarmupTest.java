@@ -0,0 +1,149 @@
+package com.mbi.config;
+
+import com.mbi.metrics.MetricsRegistry;
+import com.mbi.transport.TransportType;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class ConnectionWarmupTest {
+
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger headRequests = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServers() throws IOException {
+        // Only accepts connections, so the test can count them
+        serverSocket = new ServerSocket(0);
+        var acceptor = new Thread(() -> {
+            try {
+                while (!serverSocket.isClosed()) {
+                    accepted.add(serverSocket.accept());
+                }
+            } catch (IOException ignored) {
+                // Closed by stopServers()
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                headRequests.incrementAndGet();
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+            }
+            // Keeps the requests in flight together, so the client opens a connection for each
+            sleep(200);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterClass
+    public void stopServers() throws IOException {
+        serverSocket.close();
+        for (var socket : accepted) {
+            socket.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConnectionsAreOpenedIntoThePool() throws Exception {
+        var configuration = new YamlConfiguration();
+        configuration.setConnectionTimeout(3_000);
+        configuration.setWarmup(Map.of("http://localhost:" + serverSocket.getLocalPort(), 3));
+
+        ConnectionWarmup.start(configuration).get(10, TimeUnit.SECONDS);
+        awaitAccepted(3);
+
+        // The idle connections are already open, so warming up again opens none
+        ConnectionWarmup.start(configuration).get(10, TimeUnit.SECONDS);
+        sleep(200);
+        assertEquals(accepted.size(), 3);
+    }
+
+    @Test
+    public void testJdkTransportSendsHeadRequests() throws Exception {
+        var url = "http://localhost:" + server.getAddress().getPort();
+        var configuration = new YamlConfiguration();
+        configuration.setTransport(TransportType.JDK);
+        configuration.setHttpVersion(HttpClient.Version.HTTP_1_1);
+        configuration.setConnectionTimeout(4_000);
+        configuration.setWarmup(Map.of(url, 2));
+
+        ConnectionWarmup.start(configuration).get(10, TimeUnit.SECONDS);
+
+        assertEquals(headRequests.get(), 2);
+        assertEquals(clientPorts.size(), 2);
+        assertNull(MetricsRegistry.get("HEAD", url));
+    }
+
+    @Test
+    public void testFailuresAreIgnored() throws Exception {
+        var configuration = new YamlConfiguration();
+        configuration.setConnectionTimeout(1_000);
+        configuration.setWarmup(Map.of("http://localhost:1", 2, "localhost:8080", 1, "ftp://localhost", 1));
+
+        var warmup = ConnectionWarmup.start(configuration);
+
+        assertNull(warmup.get(10, TimeUnit.SECONDS));
+        assertFalse(warmup.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testNoWarmupSection() {
+        assertTrue(ConnectionWarmup.start(new YamlConfiguration()).isDone());
+    }
+
+    @Test
+    public void testWarmupSectionIsReadFromYaml() {
+        var warmup = ConfigurationCache.get("http-request-warmup.yml").getWarmup();
+
+        assertEquals(warmup, Map.of("http://localhost:1", 2, "localhost:8080", 1));
+        expectThrows(UnsupportedOperationException.class, () -> warmup.put("http://other", 1));
+    }
+
+    private void awaitAccepted(final int connections) {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (accepted.size() < connections && System.nanoTime() < deadline) {
+            sleep(10);
+        }
+        assertEquals(accepted.size(), connections);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mbi.logging;
+
+import com.mbi.config.RequestConfig;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.*;
+
+public class RequestLogPipelineTest {
+
+    private static RequestLogRecord newRecord(final String body) {
+        return new RequestLogRecord("main", new RequestConfig(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDropPolicyDropsOverflowingRecords() {
+        var written = Collections.synchronizedList(new ArrayList<RequestLogRecord>());
+        var pipeline = new RequestLogPipeline(2, QueueFullPolicy.DROP, 10, 1, written::add);
+
+        for (int i = 0; i < 5; i++) {
+            pipeline.enqueue(newRecord("r" + i));
+        }
+
+        assertEquals(pipeline.droppedCount(), 3);
+        pipeline.drain();
+        assertEquals(written.size(), 2);
+        assertEquals(written.get(0).responseText(), "r0");
+    }
+
+    @Test
+    public void testSamplePolicyDropsOverflowingRecordsOutsideSample() {
+        var pipeline = new RequestLogPipeline(1, QueueFullPolicy.SAMPLE, 10, 100, logRecord -> { });
+
+        pipeline.enqueue(newRecord("queued"));
+        for (int i = 0; i < 5; i++) {
+            pipeline.enqueue(newRecord("overflow" + i));
+        }
+
+        assertEquals(pipeline.droppedCount(), 5);
+    }
+
+    @Test
+    public void testDrainWritesRecordsInOrder() {
+        List<String> written = new ArrayList<>();
+        var pipeline = new RequestLogPipeline(10, QueueFullPolicy.BLOCK, 2, 1,
+                logRecord -> written.add(logRecord.responseText()));
+
+        pipeline.enqueue(newRecord("a"));
+        pipeline.enqueue(newRecord("b"));
+        pipeline.enqueue(newRecord("c"));
+        pipeline.drain();
+
+        assertEquals(written, List.of("a", "b", "c"));
+    }
+
+    @Test
+    public void testFailingRecordIsSkipped() {
+        List<String> written = new ArrayList<>();
+        var pipeline = new RequestLogPipeline(10, QueueFullPolicy.BLOCK, 10, 1, logRecord -> {
+            if ("bad".equals(logRecord.responseText())) {
+                throw new IllegalStateException("Unable to format record");
+            }
+            written.add(logRecord.responseText());
+        });
+
+        pipeline.enqueue(newRecord("a"));
+        pipeline.enqueue(newRecord("bad"));
+        pipeline.enqueue(newRecord("b"));
+        pipeline.drain();
+
+        assertEquals(written, List.of("a", "b"));
+    }
+
+    @Test
+    public void testWriterThreadSurvivesSinkFailure() throws InterruptedException {
+        var written = new CountDownLatch(2);
+        var failed = new AtomicBoolean();
+        var pipeline = new RequestLogPipeline(10, QueueFullPolicy.BLOCK, 1, 1, logRecord -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Disk full");
+            }
+            written.countDown();
+        });
+        pipeline.start();
+
+        // The first record fails; the others are only written if the writer thread is still running
+        for (int i = 0; i < 3; i++) {
+            pipeline.enqueue(newRecord("r" + i));
+        }
+
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNullResponseIsLoggedAsNull() {
+        var logRecord = new RequestLogRecord("main", new RequestConfig(), null);
+
+        assertEquals(logRecord.responseText(), "null");
+    }
+}
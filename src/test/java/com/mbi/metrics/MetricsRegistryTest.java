@@ -0,0 +1,77 @@
+package com.mbi.metrics;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        for (long value : new long[]{0, 1, 63, 64, 65, 127, 128, 1_000, 123_456, 10_000_000, Long.MAX_VALUE}) {
+            var index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.upperBound(index) >= value || value > 1L << 40, "Value " + value);
+            if (index > 0 && value < 1L << 40) {
+                assertTrue(LatencyHistogram.upperBound(index - 1) < value, "Value " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentilesAreWithinPrecision() {
+        var histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 10_000).forEach(histogram::record);
+
+        assertEquals(histogram.count(), 10_000);
+        assertEquals(histogram.max(), 10_000);
+        assertEquals(histogram.mean(), 5_000.5, 0.001);
+        assertEquals(histogram.percentile(50), 5_000, 5_000 * 0.035);
+        assertEquals(histogram.percentile(99), 9_900, 9_900 * 0.035);
+        assertEquals(histogram.percentile(100), 10_000);
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        assertEquals(new LatencyHistogram().percentile(99), 0);
+    }
+
+    @Test
+    public void testRecordsPerMethodAndUrlTemplate() {
+        var url = "http://localhost/registry-test/users/{id}";
+        MetricsRegistry.record("GET", url + "?page=1", TimeUnit.MILLISECONDS.toNanos(10), 100, false);
+        MetricsRegistry.record("GET", url + "?page=2", TimeUnit.MILLISECONDS.toNanos(20), 50, true);
+        MetricsRegistry.record("POST", url, TimeUnit.MILLISECONDS.toNanos(30), 0, false);
+
+        var get = MetricsRegistry.get("GET", url);
+        assertEquals(get.count(), 2);
+        assertEquals(get.errorCount(), 1);
+        assertEquals(get.bytes(), 150);
+        assertEquals(get.latency().max(), 20_000);
+        assertEquals(MetricsRegistry.get("POST", url).count(), 1);
+        assertNull(MetricsRegistry.get("DELETE", url));
+    }
+
+    @Test
+    public void testExportFormats() throws IOException {
+        var url = "http://localhost/export-test";
+        MetricsRegistry.record("GET", url, TimeUnit.MILLISECONDS.toNanos(5), 10, false);
+
+        var prometheus = new StringBuilder();
+        MetricsExporter.writePrometheus(prometheus);
+        assertTrue(prometheus.toString().contains("# TYPE http_request_duration_seconds summary"));
+        assertTrue(prometheus.toString().contains(
+                "http_request_requests_total{method=\"GET\",url=\"http://localhost/export-test\"} 1\n"));
+        assertTrue(prometheus.toString().contains(
+                "http_request_duration_seconds{method=\"GET\",url=\"http://localhost/export-test\",quantile=\"0.99\"}"));
+
+        var json = new StringWriter();
+        MetricsExporter.writeJson(json);
+        assertTrue(json.toString().contains("\"url\": \"http://localhost/export-test\""), json.toString());
+        assertTrue(json.toString().contains("\"p99\": "), json.toString());
+    }
+}
@@ -0,0 +1,141 @@
+package com.mbi.ratelimit;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.utils.RequestUrls;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class RateLimiterTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long TOLERANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    public void testBurstIsAvailableAtOnce() {
+        var limiter = new RateLimiter(10, 3);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testReservationsArePaced() {
+        var limiter = new RateLimiter(10, 1);
+
+        assertEquals(limiter.reserve(), 0);
+        long second = limiter.reserve();
+        long third = limiter.reserve();
+
+        assertTrue(Math.abs(second - INTERVAL_NANOS) < TOLERANCE_NANOS, "Second wait: " + second);
+        assertTrue(Math.abs(third - 2 * INTERVAL_NANOS) < TOLERANCE_NANOS, "Third wait: " + third);
+    }
+
+    @Test
+    public void testConcurrentReservationsAreNotLost() {
+        var limiter = new RateLimiter(10, 1);
+        var waits = new ConcurrentLinkedQueue<Long>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 10; j++) {
+                    waits.add(limiter.reserve());
+                }
+            }));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        // 80 permits at 10/s: the last one is due after about 7.9 seconds
+        long maxWait = waits.stream().mapToLong(Long::longValue).max().orElseThrow();
+        assertEquals(waits.size(), 80);
+        assertTrue(Math.abs(maxWait - 79 * INTERVAL_NANOS) < TimeUnit.MILLISECONDS.toNanos(200), "Max: " + maxWait);
+    }
+
+    @Test
+    public void testAsyncAcquireWaitsWithoutBlocking() {
+        var limiter = new RateLimiter(10, 1);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        var permit = limiter.acquireAsync(ForkJoinPool.commonPool());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        assertFalse(permit.isDone());
+
+        permit.join();
+        assertTrue(System.nanoTime() - start >= INTERVAL_NANOS - TOLERANCE_NANOS);
+    }
+
+    @Test
+    public void testParseRate() {
+        assertEquals(RateLimiter.parse("50/s", 1).rate(), 50.0, 0.001);
+        assertEquals(RateLimiter.parse("600 / min", 1).rate(), 10.0, 0.001);
+        assertEquals(RateLimiter.parse("3600/h", 1).rate(), 1.0, 0.001);
+        assertEquals(RateLimiter.parse("5", 1).rate(), 5.0, 0.001);
+        expectThrows(IllegalArgumentException.class, () -> RateLimiter.parse("5/day", 1));
+        expectThrows(IllegalArgumentException.class, () -> RateLimiter.parse("fast", 1));
+        expectThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1));
+    }
+
+    @Test
+    public void testRulesMatchPatternsFirstThenHosts() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("https://*.example.com/search*", "1/s");
+        rules.put("api.example.com", "2/s");
+        rules.put("localhost:8080", "3/s");
+        var limits = RateLimits.of(rules, 1);
+
+        assertEquals(limits.forUrl("https://api.example.com/search?q=1").rate(), 1.0, 0.001);
+        assertEquals(limits.forUrl("https://user@API.example.com:443/users/{id}").rate(), 2.0, 0.001);
+        assertEquals(limits.forUrl("http://localhost:8080/users").rate(), 3.0, 0.001);
+        assertNull(limits.forUrl("http://localhost:9090/users"));
+        assertNull(limits.forUrl("https://other.example.org"));
+    }
+
+    @Test
+    public void testRelativeUrlIsLimitedByHostOfBaseUri() {
+        var limits = RateLimits.of(Map.of("base.example.com", "2/s"), 1);
+        var config = new RequestConfig();
+        config.setUrl("/users/{id}");
+        config.setRequestSpecification(given().baseUri("https://base.example.com"));
+
+        assertNull(limits.forUrl(config.getUrl()));
+        assertEquals(limits.forUrl(RequestUrls.resolve(config)).rate(), 2.0, 0.001);
+    }
+
+    @Test
+    public void testResolvedRulesAreCachedPerHost() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("https://*.example.com/search*", "1/s");
+        rules.put("cache.example.com", "2/s");
+        var limits = RateLimits.of(rules, 5);
+
+        for (int id = 0; id < 10_000; id++) {
+            assertEquals(limits.forUrl("https://cache.example.com/users/" + id + "?page=" + id).rate(), 2.0, 0.001);
+            assertNull(limits.forUrl("https://other.example.org/orders/" + id));
+        }
+        assertEquals(limits.forUrl("https://cache.example.com/search?q=1").rate(), 1.0, 0.001);
+
+        assertEquals(limits.resolvedHostCount(), 2);
+    }
+
+    @Test
+    public void testEqualRulesShareLimiters() {
+        var limits = RateLimits.of(Map.of("shared.example.com", "1/s"), null);
+
+        assertSame(RateLimits.of(Map.of("shared.example.com", "1/s"), 1), limits);
+        assertSame(RateLimits.of(null, null), RateLimits.NONE);
+        assertNull(RateLimits.NONE.forUrl("https://shared.example.com"));
+    }
+}
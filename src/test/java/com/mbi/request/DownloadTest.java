@@ -0,0 +1,296 @@
+package com.mbi.request;
+
+import com.mbi.utils.RequestAssertionError;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+import static org.testng.Assert.*;
+
+public class DownloadTest {
+
+    private static final byte[] CONTENT = content(3 * 1024 * 1024 + 17);
+
+    private static String baseUrl;
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger failedRanges = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Path dir;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/file", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(CONTENT);
+            }
+        });
+        server.createContext("/ranged", exchange -> ranged(exchange, false));
+        server.createContext("/flaky", exchange -> ranged(exchange, true));
+        server.createContext("/stalled", this::stalled);
+        server.createContext("/missing", exchange -> {
+            byte[] response = "{\"error\":\"not found\"}".getBytes();
+            exchange.sendResponseHeaders(404, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        dir = Files.createTempDirectory("downloads");
+    }
+
+    @AfterClass
+    public void stopServer() throws IOException {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        try (var files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testBodyIsStreamedToFile() throws Exception {
+        var target = dir.resolve("nested/file.bin");
+
+        var download = new RequestBuilder().setExpectedStatusCode(200).download(baseUrl + "/file", target);
+
+        assertEquals(download.file(), target.toAbsolutePath());
+        assertEquals(download.statusCode(), 200);
+        assertEquals(download.size(), CONTENT.length);
+        assertEquals(Files.readAllBytes(target), CONTENT);
+        assertEquals(download.sha256(), sha256(CONTENT));
+        var crc = new CRC32C();
+        crc.update(CONTENT);
+        assertEquals(download.crc32c(), crc.getValue());
+        download.assertSha256(sha256(CONTENT).toUpperCase());
+    }
+
+    @Test
+    public void testTemplateDownload() throws Exception {
+        var target = dir.resolve("template.bin");
+
+        var download = new RequestBuilder().setExpectedStatusCode(200).template().download(baseUrl + "/file", target);
+
+        assertEquals(download.size(), Files.size(target));
+    }
+
+    @Test
+    public void testUnexpectedStatusKeepsTarget() throws IOException {
+        var target = dir.resolve("existing.bin");
+        Files.writeString(target, "previous");
+
+        var error = expectThrows(RequestAssertionError.class,
+                () -> new RequestBuilder().setExpectedStatusCode(200).download(baseUrl + "/missing", target));
+
+        assertEquals(error.getResponse().statusCode(), 404);
+        assertEquals(Files.readString(target), "previous");
+        try (var files = Files.list(dir)) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    public void testListenersSeeDownloadedSize() {
+        var url = baseUrl + "/file?listener";
+        List<RequestEvent> events = new CopyOnWriteArrayList<>();
+        OnRequestPerformedListener listener = event -> {
+            if (url.equals(event.config().getUrl())) {
+                events.add(event);
+            }
+        };
+        RequestListeners.add(listener);
+        try {
+            new RequestBuilder().download(url, dir.resolve("listener.bin"));
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).statusCode(), 200);
+        assertEquals(events.get(0).bytesReceived(), CONTENT.length);
+        assertTrue(events.get(0).isSuccessful());
+    }
+
+    @Test
+    public void testRangedDownload() throws Exception {
+        var target = dir.resolve("ranged.bin");
+        var before = rangeRequests.get();
+
+        var download = new RequestBuilder().setDownloadConnections(4).setExpectedStatusCode(200)
+                .download(baseUrl + "/ranged", target);
+
+        assertEquals(download.statusCode(), 206);
+        assertEquals(download.size(), CONTENT.length);
+        assertEquals(Files.readAllBytes(target), CONTENT);
+        assertEquals(download.sha256(), sha256(CONTENT));
+        assertTrue(rangeRequests.get() - before >= 3, "range requests: " + (rangeRequests.get() - before));
+    }
+
+    @Test
+    public void testFailedPartIsRetried() throws Exception {
+        var target = dir.resolve("flaky.bin");
+
+        var download = new RequestBuilder().setDownloadConnections(3).setExpectedStatusCode(200)
+                .download(baseUrl + "/flaky", target);
+
+        assertEquals(failedRanges.get(), 1);
+        assertEquals(Files.readAllBytes(target), CONTENT);
+        assertEquals(download.sha256(), sha256(CONTENT));
+    }
+
+    @Test
+    public void testBodyWithoutRangesIsDownloadedWithSingleRequest() throws Exception {
+        var target = dir.resolve("single.bin");
+
+        var download = new RequestBuilder().setDownloadConnections(4).download(baseUrl + "/file", target);
+
+        assertEquals(download.statusCode(), 200);
+        assertEquals(Files.readAllBytes(target), CONTENT);
+    }
+
+    @Test
+    public void testRangedDownloadChecksStatusCode() {
+        var error = expectThrows(RequestAssertionError.class, () -> new RequestBuilder().setDownloadConnections(4)
+                .setExpectedStatusCode(200).download(baseUrl + "/missing", dir.resolve("missing.bin")));
+
+        assertEquals(error.getResponse().statusCode(), 404);
+    }
+
+    @Test
+    public void testFailedPartStopsOtherParts() {
+        var url = baseUrl + "/stalled";
+        List<RequestEvent> events = new CopyOnWriteArrayList<>();
+        OnRequestPerformedListener listener = event -> {
+            if (url.equals(event.config().getUrl()) && event.statusCode() == 206) {
+                events.add(event);
+            }
+        };
+        RequestListeners.add(listener);
+        try {
+            var error = expectThrows(RequestAssertionError.class, () -> new RequestBuilder()
+                    .setDownloadConnections(3).setExpectedStatusCode(200).download(url, dir.resolve("stalled.bin")));
+            assertEquals(error.getResponse().statusCode(), 404);
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 2);
+        for (var event : events) {
+            assertFalse(event.isSuccessful());
+            assertTrue(event.bytesReceived() < CONTENT.length / 3, "received " + event.bytesReceived());
+        }
+    }
+
+    @Test
+    public void testSha256Assertion() {
+        var download = new Download(Path.of("a.bin"), 200, 3, "abc123", 0x1fL);
+
+        assertSame(download.assertSha256(" ABC123 "), download);
+        var error = expectThrows(AssertionError.class, () -> download.assertSha256("def"));
+        assertTrue(error.getMessage().contains("expected [def] but found [abc123]"), error.getMessage());
+        assertEquals(download.summary(), "<downloaded 3 bytes to a.bin, sha256=abc123, crc32c=0000001f>");
+    }
+
+    /**
+     * Serves CONTENT with byte ranges; a flaky server fails the first request of a range that doesn't start at 0.
+     */
+    private void ranged(HttpExchange exchange, boolean flaky) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.add("Accept-Ranges", "bytes");
+        headers.add("Content-Type", "application/octet-stream");
+        var range = exchange.getRequestHeaders().getFirst("Range");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            headers.add("Content-Length", String.valueOf(CONTENT.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        } else if (range == null) {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(CONTENT);
+            }
+        } else {
+            rangeRequests.incrementAndGet();
+            var bounds = range.substring("bytes=".length()).split("-");
+            int first = Integer.parseInt(bounds[0]);
+            int last = Integer.parseInt(bounds[1]);
+            if (flaky && first > 0 && failedRanges.compareAndSet(0, 1)) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            headers.add("Content-Range", "bytes " + first + "-" + last + "/" + CONTENT.length);
+            exchange.sendResponseHeaders(206, last - first + 1);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(CONTENT, first, last - first + 1);
+            }
+        }
+    }
+
+    /**
+     * Serves CONTENT with byte ranges: the first range is not found, the others are sent slowly after it.
+     */
+    private void stalled(HttpExchange exchange) throws IOException {
+        var range = exchange.getRequestHeaders().getFirst("Range");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(CONTENT.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        } else if (range.startsWith("bytes=0-")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        } else {
+            var bounds = range.substring("bytes=".length()).split("-");
+            int first = Integer.parseInt(bounds[0]);
+            int last = Integer.parseInt(bounds[1]);
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + first + "-" + last + "/" + CONTENT.length);
+            exchange.sendResponseHeaders(206, last - first + 1);
+            try (OutputStream os = exchange.getResponseBody()) {
+                for (int offset = first; offset <= last; offset += 16 * 1024) {
+                    os.write(CONTENT, offset, Math.min(16 * 1024, last - offset + 1));
+                    os.flush();
+                    Thread.sleep(20);
+                }
+            } catch (IOException | InterruptedException ignored) {
+                // The client stopped reading
+            }
+        }
+    }
+
+    private static byte[] content(int size) {
+        var bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + i / 7);
+        }
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,158 @@
+package com.mbi.request;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class LoadRunnerTest {
+
+    private static String baseUrl;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/load", exchange -> {
+            byte[] response = "{\"a\":1}".getBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestsAreSentAtTargetRate() {
+        var result = new LoadRunner(http -> http.setExpectedStatusCode(200).get(baseUrl + "/load"))
+                .rate(100)
+                .duration(Duration.ofMillis(500))
+                .expectErrorRate(0)
+                .expectLatency(99, Duration.ofSeconds(5))
+                .run();
+
+        result.assertSlos();
+        assertEquals(result.requests(), 50);
+        assertEquals(result.errors(), 0);
+        assertEquals(result.latency().count(), 50);
+        assertTrue(result.elapsed().toMillis() >= 490, "Elapsed: " + result.elapsed());
+    }
+
+    @Test
+    public void testSlowRequestsDoNotDelayOthers() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var result = new LoadRunner(http -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(100);
+            inFlight.decrementAndGet();
+            return null;
+        }).rate(100).duration(Duration.ofMillis(300)).run();
+
+        assertEquals(result.requests(), 30);
+        assertTrue(maxInFlight.get() >= 5, "Max in flight: " + maxInFlight.get());
+        assertTrue(result.elapsed().toMillis() < 1000, "Elapsed: " + result.elapsed());
+    }
+
+    @Test
+    public void testLatencyIsMeasuredFromIntendedSendTime() {
+        var result = new LoadRunner(http -> {
+            sleep(50);
+            return null;
+        }).rate(20).duration(Duration.ofMillis(200)).run();
+
+        assertTrue(result.latency(50).toMillis() >= 50, "Latency: " + result.latency(50));
+        assertTrue(result.latency().percentile(50) >= result.serviceTime().percentile(50));
+    }
+
+    @Test
+    public void testViolatedObjectivesAreReported() {
+        var counter = new AtomicInteger();
+        var result = new LoadRunner(http -> {
+            if (counter.incrementAndGet() % 2 == 0) {
+                throw new AssertionError("expected [200] but found [500]");
+            }
+            return null;
+        })
+                .rate(200)
+                .duration(Duration.ofMillis(100))
+                .expectErrorRate(0.1)
+                .expectLatency(99, Duration.ofSeconds(10))
+                .expectThroughput(1_000_000)
+                .run();
+
+        assertEquals(result.requests(), 20);
+        assertEquals(result.errors(), 10);
+        assertEquals(result.errorRate(), 0.5, 0.0001);
+        assertEquals(result.violations().size(), 2);
+
+        var ex = expectThrows(AssertionError.class, result::assertSlos);
+        assertTrue(ex.getMessage().startsWith("2 of 3 objectives violated"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("- error rate 50.00%, expected <= 10.00%"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("- throughput "), ex.getMessage());
+        assertTrue(ex.getMessage().contains("20 requests in"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("Error: expected [200] but found [500]"), ex.getMessage());
+        assertNotNull(ex.getCause());
+        assertEquals(ex.getSuppressed().length, result.errorSamples().size() - 1);
+    }
+
+    @Test
+    public void testConcurrentErrorsKeepFiveSamples() {
+        var result = new LoadRunner(http -> {
+            sleep(50);
+            throw new IllegalStateException("failed");
+        }).rate(2000).duration(Duration.ofMillis(50)).run();
+
+        assertEquals(result.errors(), 100);
+        assertEquals(result.errorSamples().size(), 5);
+    }
+
+    @Test
+    public void testObjectiveDescription() {
+        var objective = LoadResult.Objective.latency(99.9, Duration.ofMillis(250));
+
+        assertEquals(objective.name(), "p99.9 latency");
+        assertEquals(objective.limit(), 250.0, 0.0001);
+        assertEquals(LoadResult.Objective.latency(99, Duration.ofMillis(1)).name(), "p99 latency");
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        var runner = new LoadRunner(http -> null);
+
+        assertThrows(IllegalArgumentException.class, () -> runner.rate(0));
+        assertThrows(IllegalArgumentException.class, () -> runner.duration(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> runner.expectLatency(101, Duration.ofMillis(1)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.mbi.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class RequestBatchTest {
+
+    private static String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/success", new JsonHandler());
+        server.createContext("/slow", new JsonHandler());
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        int port = server.getAddress().getPort();
+        baseUrl = "http://localhost:" + port;
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testAllRequestsSucceed() {
+        var result = new RequestBatch(4)
+                .add(http -> http.setExpectedStatusCode(200).get(baseUrl + "/success"))
+                .add(http -> http.setData("{\"a\":1}").setExpectedStatusCode(200).post(baseUrl + "/success"))
+                .add(http -> http.setExpectedStatusCode(200).delete(baseUrl + "/success"))
+                .execute();
+
+        result.assertNoFailures();
+        assertTrue(result.isSuccessful());
+        assertEquals(result.responses().size(), 3);
+        assertEquals(result.responses().get(1).asString(), "{\"a\":1}");
+    }
+
+    @Test
+    public void testAllFailuresReported() {
+        var result = new RequestBatch(2)
+                .add(http -> http.setExpectedStatusCode(201).get(baseUrl + "/success"))
+                .add(http -> http.setExpectedStatusCode(200).get(baseUrl + "/success"))
+                .add(http -> http.setExpectedStatusCode(404).post(baseUrl + "/success"))
+                .execute();
+
+        assertFalse(result.isSuccessful());
+        assertEquals(result.failures().size(), 2);
+        assertNull(result.responses().get(0));
+        assertNotNull(result.responses().get(1));
+
+        var ex = expectThrows(AssertionError.class, result::assertNoFailures);
+        assertTrue(ex.getMessage().startsWith("2 of 3 requests failed"));
+        assertTrue(ex.getMessage().contains("Request #0: expected [201] but found [200]"));
+        assertTrue(ex.getMessage().contains("Request #2: expected [404] but found [200]"));
+        assertTrue(ex.getMessage().contains("--request POST"));
+        assertEquals(ex.getSuppressed().length, 1);
+    }
+
+    @Test
+    public void testParallelismIsBounded() {
+        var batch = new RequestBatch(2);
+        for (int i = 0; i < 8; i++) {
+            batch.add(http -> http.setExpectedStatusCode(200).get(baseUrl + "/slow"));
+        }
+
+        batch.execute().assertNoFailures();
+
+        assertTrue(maxInFlight.get() <= 2, "Max in flight: " + maxInFlight.get());
+    }
+
+    class JsonHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getHttpContext().getPath();
+
+            if ("/slow".equals(path)) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+
+            byte[] response = "{\"a\":1}".getBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+public class RequestBuilderTest {
+
+    private String baseUrl;
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/echo", exchange -> {
+            byte[] response = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testStateIsPerThread() {
+        var builder = new RequestBuilder();
+        builder.setUrl("http://main").setToken("token");
+
+        var other = CompletableFuture.supplyAsync(builder::getUrl).join();
+
+        assertNull(other);
+        assertEquals(builder.getUrl(), "http://main");
+        assertSame(builder.getState(), builder.getState());
+        builder.onRequest();
+    }
+
+    @Test
+    public void testOnRequestReleasesState() {
+        var builder = new RequestBuilder();
+        builder.setUrl("http://main").setHeader("name", "value").debug();
+        var state = builder.getState();
+
+        builder.onRequest();
+
+        assertNotSame(builder.getState(), state);
+        assertNull(builder.getUrl());
+        assertNull(builder.getHeaders());
+        assertFalse(builder.isDebug());
+        assertNull(builder.getPathParams());
+    }
+
+    @Test
+    public void testConfinedStateIsVisibleFromAnotherThread() {
+        var builder = RequestBuilder.confined();
+        builder.setUrl("http://main");
+
+        assertEquals(CompletableFuture.supplyAsync(builder::getUrl).join(), "http://main");
+
+        builder.onRequest();
+        assertNull(builder.getUrl());
+    }
+
+    @Test
+    public void testNewRequestIsBuiltOnOneThreadAndSentFromAnother() {
+        var http = HttpRequest.newRequest()
+                .setData("{\"a\":1}")
+                .setExpectedStatusCode(200);
+
+        var response = CompletableFuture.supplyAsync(() -> http.post(baseUrl + "/echo")).join();
+
+        assertEquals(response.asString(), "{\"a\":1}");
+        assertNotSame(HttpRequest.newRequest(), http);
+    }
+}
@@ -0,0 +1,164 @@
+package com.mbi.request;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.config.RequestDirector;
+import com.mbi.utils.ContentEncoding;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.testng.Assert.*;
+
+public class RequestCompressionTest {
+
+    private final List<RequestEvent> events = new CopyOnWriteArrayList<>();
+    private final OnRequestPerformedListener listener = this::collect;
+    private String baseUrl;
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/echo", exchange -> {
+            // Echoes the decoded request body, gzip-compressed if the client accepts it
+            var encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream in = "gzip".equals(encoding)
+                    ? new GZIPInputStream(exchange.getRequestBody())
+                    : exchange.getRequestBody();
+            var body = (encoding + " " + new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .getBytes(StandardCharsets.UTF_8);
+
+            var acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                var compressed = new ByteArrayOutputStream();
+                try (var gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/chunked", exchange -> {
+            // Gzip-compressed on the fly, so the size on the wire is not announced
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (var gzip = new GZIPOutputStream(exchange.getResponseBody())) {
+                gzip.write("chunked ".repeat(100).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    // The registry is global, so only events for this server are collected
+    private void collect(RequestEvent event) {
+        if (event.config().getUrl().startsWith(baseUrl)) {
+            events.add(event);
+        }
+    }
+
+    @Test
+    public void testLargeBodyIsCompressed() {
+        var json = "{\"items\":[" + "{\"name\":\"item\",\"value\":12345},".repeat(200) + "{}]}";
+
+        var event = post(json);
+
+        assertEquals(event.statusCode(), 200);
+        assertEquals(event.bytesSent(), json.length());
+        assertTrue(event.encodedBytesSent() < json.length() / 5, "sent " + event.encodedBytesSent());
+        assertTrue(event.requestCompressionRatio() > 5, "ratio " + event.requestCompressionRatio());
+        assertEquals(event.bytesReceived(), json.length() + "gzip ".length());
+        assertTrue(event.responseCompressionRatio() > 5, "ratio " + event.responseCompressionRatio());
+    }
+
+    @Test
+    public void testWireSizeOfChunkedCompressedBodyIsUnknown() {
+        var config = constructRequest(null);
+        config.setUrl(baseUrl + "/chunked");
+        config.setMethod(Method.GET);
+        events.clear();
+        RequestListeners.add(listener);
+        try {
+            new HttpRequestPerformer().request(config);
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 1);
+        var event = events.get(0);
+        assertEquals(event.bytesReceived(), "chunked ".length() * 100);
+        assertEquals(event.encodedBytesReceived(), -1);
+        assertEquals(event.responseCompressionRatio(), 1.0);
+    }
+
+    @Test
+    public void testSmallBodyIsSentUncompressed() {
+        var event = post("{\"name\":\"small\"}");
+
+        assertEquals(event.encodedBytesSent(), event.bytesSent());
+        assertEquals(event.requestCompressionRatio(), 1.0);
+    }
+
+    @Test
+    public void testCompressionIsConfiguredInYaml() {
+        var config = constructRequest("{}");
+
+        assertEquals(config.getRequestCompression(), ContentEncoding.GZIP);
+        assertEquals(config.getRequestCompressionMinBytes(), 100);
+        assertNull(new RequestConfig().getRequestCompression());
+    }
+
+    private RequestEvent post(String json) {
+        var config = constructRequest(json);
+        events.clear();
+        RequestListeners.add(listener);
+        try {
+            var response = new HttpRequestPerformer().request(config);
+            assertTrue(response.asString().endsWith(json), response.asString());
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 1);
+        return events.get(0);
+    }
+
+    private RequestConfig constructRequest(String json) {
+        var builder = new RequestBuilder();
+        builder.setData(json).setUrl(baseUrl + "/echo");
+
+        var director = new RequestDirector(builder) {
+            @Override
+            protected String yamlFileName() {
+                return "http-request-compression.yml";
+            }
+        };
+        director.constructRequest();
+        var config = director.getRequestConfig();
+        config.setMethod(Method.POST);
+        return config;
+    }
+}
@@ -214,7 +214,6 @@ public class RequestDirectorTest {
         var config = director.getRequestConfig();
 
         var performer = new HttpRequestPerformer();
-        performer.addRequestListener(performer::onRequest);
 
         // simulate failure to force response = null
         try {
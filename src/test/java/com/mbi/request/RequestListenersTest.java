@@ -0,0 +1,117 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.*;
+
+public class RequestListenersTest {
+
+    private final HttpRequest http = new RequestBuilder();
+    private final List<RequestEvent> events = new CopyOnWriteArrayList<>();
+    private final OnRequestPerformedListener listener = this::collect;
+    private String baseUrl;
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/echo", exchange -> {
+            byte[] response = exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    // The registry is global, so only events for this server are collected
+    private void collect(RequestEvent event) {
+        if (event.config().getUrl().startsWith(baseUrl)) {
+            events.add(event);
+        }
+    }
+
+    @Test
+    public void testListenerReceivesSuccessfulRequest() {
+        events.clear();
+        RequestListeners.add(listener);
+        try {
+            http.setData("{\"name\":\"Ünïcode\"}").setExpectedStatusCode(200).post(baseUrl + "/echo");
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 1);
+        var event = events.get(0);
+        assertTrue(event.isSuccessful());
+        assertEquals(event.attempt(), 1);
+        assertFalse(event.hedged());
+        assertEquals(event.statusCode(), 200);
+        assertEquals(event.bytesSent(), 20);
+        assertEquals(event.bytesReceived(), 20);
+        assertTrue(event.durationNanos() > 0);
+        assertEquals(event.config().getUrl(), baseUrl + "/echo");
+    }
+
+    @Test
+    public void testListenerReceivesFailedRequest() {
+        events.clear();
+        RequestListeners.add(listener);
+        AssertionError error;
+        try {
+            error = expectThrows(AssertionError.class, () -> http.setExpectedStatusCode(201).get(baseUrl + "/echo"));
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertEquals(events.size(), 1);
+        var event = events.get(0);
+        assertFalse(event.isSuccessful());
+        assertSame(event.error(), error);
+        assertEquals(event.statusCode(), 200);
+        assertEquals(event.bytesSent(), 0);
+    }
+
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        events.clear();
+        RequestListeners.add(listener);
+        RequestListeners.remove(listener);
+
+        http.setExpectedStatusCode(200).get(baseUrl + "/echo");
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testFailingListenerDoesNotBreakRequest() {
+        OnRequestPerformedListener failing = event -> {
+            throw new IllegalStateException("listener failure");
+        };
+        RequestListeners.add(failing);
+        try {
+            var response = http.setExpectedStatusCode(200).get(baseUrl + "/echo");
+            assertEquals(response.statusCode(), 200);
+        } finally {
+            RequestListeners.remove(failing);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+public class RequestTemplateTest {
+
+    private final HttpRequest http = new RequestBuilder();
+    private String baseUrl;
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        // Echoes the request shape: method, path, X-Test and Authorization headers, body
+        server.createContext("/echo", exchange -> {
+            String shape = exchange.getRequestMethod()
+                    + " " + exchange.getRequestURI().getPath()
+                    + " " + exchange.getRequestHeaders().getFirst("X-Test")
+                    + " " + exchange.getRequestHeaders().getFirst("Authorization")
+                    + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] response = shape.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testTemplateSendsSameShapeWithDifferentParamsAndBody() {
+        var template = http.setHeader("X-Test", "value")
+                .setToken("token")
+                .setExpectedStatusCode(200)
+                .template();
+
+        assertEquals(template.get(baseUrl + "/echo/{id}", 1).asString(), "GET /echo/1 value token ");
+        assertEquals(template.get(baseUrl + "/echo/{id}", 2).asString(), "GET /echo/2 value token ");
+        assertEquals(template.withData("{\"a\":1}").post(baseUrl + "/echo").asString(),
+                "POST /echo value token {\"a\":1}");
+    }
+
+    @Test
+    public void testBuilderDataIsDefaultBody() {
+        var template = http.setData("default").setExpectedStatusCode(200).template();
+
+        assertEquals(template.put(baseUrl + "/echo").asString(), "PUT /echo null null default");
+        assertEquals(template.withData(null).request(Method.PATCH, baseUrl + "/echo").asString(),
+                "PATCH /echo null null ");
+    }
+
+    @Test
+    public void testTemplateIsUsableFromManyThreads() {
+        var template = http.setHeader("X-Test", "shared").setExpectedStatusCode(200).template();
+
+        List<CompletableFuture<Response>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(template.requestAsync(Method.GET, baseUrl + "/echo/{id}", i));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(futures.get(i).join().asString(), "GET /echo/" + i + " shared null ");
+        }
+    }
+
+    @Test
+    public void testTemplateValidatesStatusCode() {
+        var template = http.setExpectedStatusCode(201).template();
+
+        var error = expectThrows(AssertionError.class, () -> template.delete(baseUrl + "/echo"));
+
+        assertTrue(error.getMessage().startsWith("expected [201] but found [200]"));
+    }
+
+    @Test
+    public void testTemplateIsNotAffectedByBuilderChanges() {
+        var codes = new ArrayList<>(List.of(200));
+        var template = http.setExpectedStatusCodes(codes).template();
+        codes.set(0, 404);
+
+        assertNull(((RequestBuilder) http).getStatusCodes());
+        assertEquals(template.get(baseUrl + "/echo").statusCode(), 200);
+    }
+}
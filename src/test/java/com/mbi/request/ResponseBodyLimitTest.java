@@ -0,0 +1,117 @@
+package com.mbi.request;
+
+import com.mbi.cache.ResponseCache;
+import com.mbi.config.RequestConfig;
+import com.mbi.config.RequestDirector;
+import com.mbi.utils.RequestAssertionError;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class ResponseBodyLimitTest {
+
+    private static final String ITEMS = "{\"items\":[" + "{\"name\":\"item\"},".repeat(100) + "{}]";
+
+    private final AtomicInteger served = new AtomicInteger();
+    private String baseUrl;
+    private HttpServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/valid", exchange -> respond(exchange, ITEMS + ",\"errors\":[]}"));
+        server.createContext("/errors", exchange -> respond(exchange, ITEMS + ",\"errors\":[{\"message\":\"late\"}]}"));
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        served.incrementAndGet();
+        var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    @Test
+    public void testErrorsAreCheckedBeyondBodyLimit() {
+        var config = constructRequest("/valid");
+        config.setCheckNoErrors(true);
+
+        var response = new HttpRequestPerformer().request(config);
+
+        assertEquals(response.asByteArray().length, 64);
+    }
+
+    @Test
+    public void testErrorsAfterBodyLimitAreFound() {
+        var config = constructRequest("/errors");
+        config.setCheckNoErrors(true);
+
+        var error = expectThrows(AssertionError.class, () -> new HttpRequestPerformer().request(config));
+
+        assertTrue(error.getMessage().startsWith("Response has errors!"), error.getMessage());
+    }
+
+    @Test
+    public void testTruncatedResponseIsNotCached() {
+        var cache = new ResponseCache(1_000_000);
+        var before = served.get();
+
+        for (int i = 0; i < 2; i++) {
+            var config = constructRequest("/valid");
+            config.setResponseCache(cache);
+            new HttpRequestPerformer().request(config);
+        }
+
+        assertEquals(served.get() - before, 2);
+        assertEquals(cache.stats().entries(), 0);
+    }
+
+    @Test
+    public void testFailedRequestKeepsOnlyCapture() {
+        var config = constructRequest("/valid");
+        config.setExpectedStatusCodes(List.of(201));
+
+        var error = expectThrows(RequestAssertionError.class, () -> new HttpRequestPerformer().request(config));
+
+        assertEquals(error.getResponse().asString(), ITEMS.substring(0, 16));
+    }
+
+    private RequestConfig constructRequest(String path) {
+        var builder = new RequestBuilder();
+        builder.setUrl(baseUrl + path);
+
+        var director = new RequestDirector(builder) {
+            @Override
+            protected String yamlFileName() {
+                return "http-request-with-body-limit.yml";
+            }
+        };
+        director.constructRequest();
+        var config = director.getRequestConfig();
+        config.setMethod(Method.GET);
+        return config;
+    }
+}
@@ -0,0 +1,263 @@
+package com.mbi.request;
+
+import com.mbi.HttpRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class RetryPolicyTest {
+
+    private final HttpRequest http = new RequestBuilder();
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final AtomicInteger unavailableCalls = new AtomicInteger();
+    private final AtomicInteger hedgedCalls = new AtomicInteger();
+    private final AtomicInteger droppedCalls = new AtomicInteger();
+    private String baseUrl;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        // Fails twice, then succeeds
+        server.createContext("/flaky", exchange ->
+                respond(exchange, flakyCalls.incrementAndGet() <= 2 ? 503 : 200));
+        server.createContext("/unavailable", exchange -> {
+            unavailableCalls.incrementAndGet();
+            respond(exchange, 503);
+        });
+        // The 21st call is slow, every other call is fast
+        server.createContext("/hedged", exchange -> {
+            if (hedgedCalls.incrementAndGet() == 21) {
+                sleep(2000);
+            }
+            respond(exchange, 200);
+        });
+        // Reads the request, then closes the connection without a response
+        server.createContext("/dropped", exchange -> {
+            droppedCalls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            throw new IllegalStateException("Connection dropped");
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRetriesUntilSuccess() {
+        var policy = RetryPolicy.retries(3).withBackoff(Duration.ofMillis(1), Duration.ofMillis(1));
+
+        var response = http.setRetryPolicy(policy)
+                .setExpectedStatusCode(200)
+                .get(baseUrl + "/flaky");
+
+        assertEquals(response.statusCode(), 200);
+        assertEquals(flakyCalls.get(), 3);
+    }
+
+    @Test
+    public void testLastErrorIsThrownWhenAttemptsAreExhausted() {
+        unavailableCalls.set(0);
+        var policy = RetryPolicy.retries(2).withBackoff(Duration.ofMillis(1), Duration.ofMillis(1));
+
+        var error = expectThrows(AssertionError.class, () -> http.setRetryPolicy(policy)
+                .setExpectedStatusCode(200)
+                .get(baseUrl + "/unavailable"));
+
+        assertTrue(error.getMessage().startsWith("expected [200] but found [503]"));
+        assertEquals(unavailableCalls.get(), 2);
+    }
+
+    @Test
+    public void testExpectedStatusIsNotRetried() {
+        unavailableCalls.set(0);
+
+        http.setRetryPolicy(RetryPolicy.retries(3)).setExpectedStatusCode(503).get(baseUrl + "/unavailable");
+
+        assertEquals(unavailableCalls.get(), 1);
+    }
+
+    @Test
+    public void testMaxTotalTimeStopsRetries() {
+        unavailableCalls.set(0);
+        var policy = RetryPolicy.retries(10)
+                .withBackoff(Duration.ofMillis(200), Duration.ofMillis(200))
+                .withJitter(0)
+                .withRetryAfter(false)
+                .withMaxTotalTime(Duration.ofMillis(300));
+
+        expectThrows(AssertionError.class, () -> http.setRetryPolicy(policy)
+                .setExpectedStatusCode(200)
+                .get(baseUrl + "/unavailable"));
+
+        assertEquals(unavailableCalls.get(), 2);
+    }
+
+    @Test
+    public void testSlowGetIsHedged() {
+        var url = baseUrl + "/hedged";
+        var policy = RetryPolicy.NONE.withHedging(true);
+        for (int i = 0; i < 20; i++) {
+            http.setRetryPolicy(policy).setExpectedStatusCode(200).get(url);
+        }
+
+        List<RequestEvent> events = new CopyOnWriteArrayList<>();
+        OnRequestPerformedListener listener = event -> {
+            if (event.config().getUrl().equals(url)) {
+                events.add(event);
+            }
+        };
+        RequestListeners.add(listener);
+        long start = System.nanoTime();
+        try {
+            http.setRetryPolicy(policy).setExpectedStatusCode(200).get(url);
+        } finally {
+            RequestListeners.remove(listener);
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+        assertTrue(events.stream().anyMatch(RequestEvent::hedged));
+    }
+
+    @Test
+    public void testBackoffGrowsUpToMax() {
+        var policy = RetryPolicy.retries(10)
+                .withBackoff(Duration.ofMillis(100), Duration.ofMillis(300))
+                .withJitter(0);
+
+        assertEquals(policy.delayNanos(1, null), TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(policy.delayNanos(2, null), TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(policy.delayNanos(3, null), TimeUnit.MILLISECONDS.toNanos(300));
+        assertEquals(policy.delayNanos(60, null), TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    public void testJitterStaysWithinBounds() {
+        var policy = RetryPolicy.retries(3).withBackoff(Duration.ofMillis(100), Duration.ofMillis(100)).withJitter(0.5);
+
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.delayNanos(1, null);
+            assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(50) && delay <= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    @Test
+    public void testRetryAfter() {
+        var policy = RetryPolicy.retries(3);
+        var date = ZonedDateTime.now().plusSeconds(30).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        assertEquals(policy.delayNanos(1, "2"), TimeUnit.SECONDS.toNanos(2));
+        assertTrue(RetryPolicy.retryAfterNanos(date) > TimeUnit.SECONDS.toNanos(20));
+        assertEquals(RetryPolicy.retryAfterNanos("soon"), -1);
+        assertEquals(RetryPolicy.retryAfterNanos(null), -1);
+        assertTrue(policy.withRetryAfter(false).delayNanos(1, "60") < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testRetriedErrorsIncludeCauses() {
+        var policy = RetryPolicy.retries(3);
+
+        assertTrue(policy.retriesError(new ConnectException(), Method.GET));
+        assertTrue(policy.retriesError(new UncheckedIOException(new IOException()), Method.GET));
+        assertFalse(policy.retriesError(new IllegalStateException(), Method.GET));
+        assertTrue(policy.withExceptions(List.of(IllegalStateException.class))
+                .retriesError(new IllegalStateException(), Method.GET));
+    }
+
+    @Test
+    public void testErrorsAreRetriedForIdempotentMethodsOnly() {
+        var policy = RetryPolicy.retries(3);
+        var error = new UncheckedIOException(new SocketTimeoutException("Read timed out"));
+
+        for (var method : List.of(Method.GET, Method.HEAD, Method.PUT, Method.DELETE, Method.OPTIONS)) {
+            assertTrue(policy.retriesError(error, method), method.name());
+        }
+        assertFalse(policy.retriesError(error, Method.POST));
+        assertFalse(policy.retriesError(error, Method.PATCH));
+        assertTrue(policy.withNonIdempotentRetries(true).retriesError(error, Method.POST));
+        assertTrue(policy.withNonIdempotentRetries(true).retriesError(error, Method.PATCH));
+    }
+
+    @Test
+    public void testPostWithIoErrorIsNotResent() {
+        droppedCalls.set(0);
+        var policy = RetryPolicy.retries(3).withBackoff(Duration.ofMillis(1), Duration.ofMillis(1));
+
+        expectThrows(Exception.class, () -> http.setRetryPolicy(policy)
+                .setData("{\"name\":\"order\"}")
+                .post(baseUrl + "/dropped"));
+
+        assertEquals(droppedCalls.get(), 1);
+    }
+
+    @Test
+    public void testPostWithIoErrorIsResentIfAllowed() {
+        droppedCalls.set(0);
+        var policy = RetryPolicy.retries(3)
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(1))
+                .withNonIdempotentRetries(true);
+
+        expectThrows(Exception.class, () -> http.setRetryPolicy(policy)
+                .setData("{\"name\":\"order\"}")
+                .post(baseUrl + "/dropped"));
+
+        assertEquals(droppedCalls.get(), 3);
+    }
+
+    @Test
+    public void testInvalidPolicyIsRejected() {
+        expectThrows(IllegalArgumentException.class, () -> RetryPolicy.retries(0));
+        expectThrows(IllegalArgumentException.class, () -> RetryPolicy.retries(2).withJitter(2));
+        assertFalse(RetryPolicy.NONE.isEnabled());
+        assertTrue(RetryPolicy.retries(2).isEnabled());
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] response = "{}".getBytes();
+        if (status == 503) {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+        }
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(response);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.mbi.transport;
+
+import com.mbi.config.RequestConfig;
+import com.mbi.config.RequestDirector;
+import com.mbi.config.YamlConfiguration;
+import com.mbi.request.RequestBuilder;
+import com.mbi.utils.RequestBodies;
+import com.mbi.utils.ResponseCapture;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.Method;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class JdkHttpTransportTest {
+
+    private static String baseUrl;
+    private final AtomicInteger received = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0); // automatically assign a free port
+        server.createContext("/echo", exchange -> {
+            // Echoes the request line, a header, the cookies and the body
+            received.incrementAndGet();
+            var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] response = (exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + " " + exchange.getRequestHeaders().getFirst("X-Test")
+                    + " " + exchange.getRequestHeaders().getFirst("Cookie")
+                    + " " + body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(201, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            byte[] response = "{\"error\":\"not found\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        server.createContext("/parity", exchange -> {
+            // Echoes the request line, the content type and the body decoded with its charset
+            var contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            var body = new String(exchange.getRequestBody().readAllBytes(), ResponseCapture.charset(contentType));
+            byte[] response = (exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + " " + contentType + " " + body).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(response);
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestIsSentFromSpecification() {
+        var config = new RequestConfig();
+        config.setMethod(Method.POST);
+        config.setUrl(baseUrl + "/echo/{id}");
+        config.setPathParams(new Object[]{"a b"});
+        var spec = given().header("X-Test", "1").cookie("session", "s1").queryParam("q", "v").body("{\"a\":1}");
+
+        var response = JdkHttpTransport.of(new YamlConfiguration()).send(config, spec);
+
+        assertEquals(response.statusCode(), 201);
+        assertTrue(response.statusLine().endsWith(" 201"), response.statusLine());
+        assertEquals(response.contentType(), "text/plain; charset=UTF-8");
+        assertEquals(response.asString(), "POST /echo/a%20b?q=v 1 session=s1 {\"a\":1}");
+    }
+
+    @Test
+    public void testRequestMatchesRestAssuredTransport() {
+        var config = new RequestConfig();
+        config.setMethod(Method.PUT);
+        config.setUrl("/items/{id}");
+        config.setPathParams(new Object[]{7});
+
+        var jdk = JdkHttpTransport.of(new YamlConfiguration()).send(config, paritySpec());
+        var restAssured = RestAssuredTransport.INSTANCE.send(config, paritySpec());
+
+        assertEquals(jdk.statusCode(), restAssured.statusCode());
+        assertEquals(jdk.asString(), restAssured.asString());
+        assertEquals(jdk.asString(), "PUT /parity/items/7?q=v text/plain; charset=UTF-16 caf\u00e9");
+    }
+
+    private RequestSpecification paritySpec() {
+        return given().baseUri("http://localhost").port(server.getAddress().getPort()).basePath("/parity")
+                .contentType("text/plain; charset=UTF-16").queryParam("q", "v").body("caf\u00e9");
+    }
+
+    @DataProvider
+    public Object[][] unsupportedSpecifications() {
+        return new Object[][]{
+                {given().log().everything(), "filters"},
+                {given().auth().basic("user", "secret"), "auth() schemes"},
+                {given().formParam("name", "value"), "form parameters"},
+                {given().multiPart("file", "content"), "multipart bodies"}
+        };
+    }
+
+    @Test(dataProvider = "unsupportedSpecifications")
+    public void testUnsupportedFeatureIsRejected(final RequestSpecification spec, final String feature) {
+        var config = new RequestConfig();
+        config.setMethod(Method.POST);
+        config.setUrl(baseUrl + "/echo/rejected");
+        var before = received.get();
+
+        var error = expectThrows(IllegalStateException.class,
+                () -> JdkHttpTransport.of(new YamlConfiguration()).send(config, spec));
+
+        assertTrue(error.getMessage().contains(feature), error.getMessage());
+        assertEquals(received.get(), before, "Request must not be sent without " + feature);
+    }
+
+    @Test
+    public void testDebugLogIsRejected() {
+        var config = new RequestConfig();
+        config.setMethod(Method.GET);
+        config.setUrl(baseUrl + "/echo");
+        config.setDebug(true);
+
+        var error = expectThrows(IllegalStateException.class,
+                () -> JdkHttpTransport.of(new YamlConfiguration()).send(config, given()));
+
+        assertTrue(error.getMessage().contains("debug()"), error.getMessage());
+    }
+
+    @Test
+    public void testFileBodyIsStreamed() throws IOException {
+        var file = Files.createTempFile("body", ".txt");
+        try {
+            Files.writeString(file, "from file");
+            var config = new RequestConfig();
+            config.setMethod(Method.PUT);
+            config.setUrl(baseUrl + "/echo");
+            var spec = given();
+            RequestBodies.setBody(spec, file);
+
+            var response = JdkHttpTransport.of(new YamlConfiguration()).send(config, spec);
+
+            assertEquals(response.asString(), "PUT /echo null null from file");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testBodyLimit() {
+        var config = new RequestConfig();
+        config.setMethod(Method.GET);
+        config.setUrl(baseUrl + "/echo");
+        config.setResponseBodyLimit(3);
+
+        var response = JdkHttpTransport.of(new YamlConfiguration()).send(config, given());
+
+        assertEquals(response.asString(), "GET");
+    }
+
+    @Test
+    public void testReceivedErrorKeepsBodyPrefix() {
+        var config = new RequestConfig();
+        config.setMethod(Method.GET);
+        config.setUrl(baseUrl + "/missing");
+        config.setResponseCaptureLimit(8);
+
+        var result = JdkHttpTransport.of(new YamlConfiguration()).receive(config, given(),
+                (response, body) -> response.statusCode() + " " + response.asString() + " "
+                        + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals(result, "404 {\"error\" {\"error\":\"not found\"}");
+    }
+
+    @Test
+    public void testConnectionErrorKeepsIoException() {
+        var config = new RequestConfig();
+        config.setMethod(Method.GET);
+        config.setUrl("http://localhost:1/unreachable");
+
+        var error = expectThrows(UncheckedIOException.class,
+                () -> JdkHttpTransport.of(new YamlConfiguration()).send(config, given()));
+        assertNotNull(error.getCause());
+    }
+
+    @Test
+    public void testTransportIsSelectedInYaml() {
+        var builder = new RequestBuilder();
+        builder.setUrl(baseUrl + "/echo");
+
+        var director = new RequestDirector(builder) {
+            @Override
+            protected String yamlFileName() {
+                return "http-request-jdk.yml";
+            }
+        };
+        director.constructRequest();
+        var config = director.getRequestConfig();
+        config.setMethod(Method.GET);
+
+        assertTrue(config.getTransport() instanceof JdkHttpTransport);
+        assertSame(config.copy().getTransport(), config.getTransport());
+        assertEquals(config.getTransport().send(config, config.getRequestSpecification()).asString(),
+                "GET /echo null null ");
+    }
+
+    @Test
+    public void testDefaultTransport() {
+        assertSame(new RequestConfig().getTransport(), RestAssuredTransport.INSTANCE);
+        assertSame(JdkHttpTransport.of(new YamlConfiguration()), JdkHttpTransport.of(new YamlConfiguration()));
+    }
+
+    @Test
+    public void testUriExpansion() {
+        var url = "https://example.com/users/{id}/posts/{post}";
+
+        assertEquals(JdkHttpTransport.uri(url, new Object[]{1, "a/b"}, Map.of(), Map.of()),
+                URI.create("https://example.com/users/1/posts/a%2Fb"));
+        assertEquals(JdkHttpTransport.uri(url, new Object[]{2}, Map.of("id", "x y"), Map.of("q", "a&b")),
+                URI.create("https://example.com/users/x%20y/posts/2?q=a%26b"));
+        assertEquals(JdkHttpTransport.uri("https://example.com/?a=1", null, Map.of(), Map.of("b", 2)),
+                URI.create("https://example.com/?a=1&b=2"));
+        assertThrows(IllegalArgumentException.class, () -> JdkHttpTransport.uri(url, null, Map.of(), Map.of()));
+    }
+}
@@ -1,9 +1,14 @@
 package com.mbi.utils;
 
+import org.testng.IInvokedMethod;
+import org.testng.ITestNGMethod;
 import org.testng.annotations.Test;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.util.List;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -111,6 +116,45 @@ public class CallerResolverTest {
         assertFalse(CallerResolver.isInfrastructure(fakeFrames.get(7)));
     }
 
+    // ======== Published test method ========
+
+    @Test
+    public void testPublishedTestMethodTakesPrecedence() {
+        CallerResolver.enterTest("tests.Published.testMethod");
+        try {
+            assertEquals(CallerResolver.getTestEntryPoint(), "tests.Published.testMethod");
+        } finally {
+            CallerResolver.exitTest();
+        }
+    }
+
+    @Test
+    public void testFallsBackToStackWalkWhenNothingPublished() {
+        CallerResolver.exitTest();
+
+        assertEquals(CallerResolver.getTestEntryPoint(),
+                "com.mbi.utils.CallerResolverTest.testFallsBackToStackWalkWhenNothingPublished");
+    }
+
+    @Test
+    public void testListenerPublishesInvokedMethod() {
+        var testMethod = proxy(ITestNGMethod.class, (p, m, args) ->
+                "getRealClass".equals(m.getName()) ? String.class : "length");
+        var invokedMethod = proxy(IInvokedMethod.class, (p, m, args) -> testMethod);
+        var listener = new TestMethodListener();
+
+        listener.beforeInvocation(invokedMethod, null);
+        assertEquals(CallerResolver.getTestEntryPoint(), "java.lang.String.length");
+
+        listener.afterInvocation(invokedMethod, null);
+        assertEquals(CallerResolver.getTestEntryPoint(),
+                "com.mbi.utils.CallerResolverTest.testListenerPublishesInvokedMethod");
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
     record FakeFrame(StackTraceElement element) implements StackWalker.StackFrame {
 
         @Override
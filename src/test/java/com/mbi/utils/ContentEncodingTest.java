@@ -0,0 +1,61 @@
+package com.mbi.utils;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class ContentEncodingTest {
+
+    private static final byte[] BODY = "{\"name\":\"item\",\"value\":12345},".repeat(100)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (var encoding : ContentEncoding.values()) {
+            var encoded = encoding.encode(BODY);
+            assertTrue(encoded.length < BODY.length / 5, encoding + ": " + encoded.length);
+
+            try (var decoded = ContentEncoding.decode(encoding.token(), new ByteArrayInputStream(encoded))) {
+                assertEquals(decoded.readAllBytes(), BODY, encoding.name());
+            }
+        }
+    }
+
+    @Test
+    public void testHeaderValueIsNormalized() throws IOException {
+        var encoded = ContentEncoding.GZIP.encode(BODY);
+
+        try (var decoded = ContentEncoding.decode(" X-GZIP ", new ByteArrayInputStream(encoded))) {
+            assertEquals(decoded.readAllBytes(), BODY);
+        }
+    }
+
+    @Test
+    public void testUnencodedBodyIsPassedThrough() throws IOException {
+        var body = new ByteArrayInputStream(BODY);
+
+        assertSame(ContentEncoding.decode(null, body), body);
+        assertSame(ContentEncoding.decode("identity", body), body);
+        assertSame(ContentEncoding.decode("br", body), body);
+    }
+
+    @Test
+    public void testEmptyBodyIsNotDecoded() throws IOException {
+        try (var decoded = ContentEncoding.decode("gzip", new ByteArrayInputStream(new byte[0]))) {
+            assertEquals(decoded.read(), -1);
+        }
+    }
+
+    @Test
+    public void testIsEncoded() {
+        assertTrue(ContentEncoding.isEncoded("gzip"));
+        assertTrue(ContentEncoding.isEncoded("br"));
+        assertFalse(ContentEncoding.isEncoded(null));
+        assertFalse(ContentEncoding.isEncoded(" "));
+        assertFalse(ContentEncoding.isEncoded("Identity"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.mbi.utils;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.testng.Assert.*;
+
+public class ErrorsScannerTest {
+
+    private static boolean hasErrors(final String json, final String path) throws IOException {
+        return ErrorsScanner.hasErrors(new StringReader(json), path);
+    }
+
+    @DataProvider
+    public Object[][] responses() {
+        return new Object[][]{
+                {"{\"data\":{\"a\":1},\"errors\":[{\"message\":\"error\"}]}", true},
+                {"{\"errors\":null,\"next_steps\":true}", false},
+                {"{\"errors\":[null,\"Sign up\"]}", true},
+                {"{\"errors\":[null,null]}", false},
+                {"{\"data\":{\"a\":1},\"errors\":[]}", false},
+                {"{\"data\":{\"errors\":[1]}}", false},
+                {"{\"errors\":{\"message\":\"error\"}}", true},
+                {"[{\"data\":{\"a\":1},\"errors\":[{\"message\":\"error\"}]},{\"data\":{\"a\":1}}]", true},
+                {"[{\"data\":{\"a\":1}},{\"data\":{\"b\":[1,2]}}]", false},
+                {"[{\"errors\":null},{\"errors\":[]}]", true},
+                {"\"text\"", false},
+                {"", false}
+        };
+    }
+
+    @Test(dataProvider = "responses")
+    public void testDefaultPath(final String json, final boolean expected) throws IOException {
+        assertEquals(hasErrors(json, ErrorsScanner.DEFAULT_PATH), expected, json);
+    }
+
+    @Test
+    public void testNestedPath() throws IOException {
+        var json = "{\"data\":{\"big\":[1,2,3]},\"errors\":[],\"extensions\":{\"errors\":[{\"code\":1}]}}";
+
+        assertTrue(hasErrors(json, "extensions.errors"));
+        assertFalse(hasErrors(json, "errors"));
+        assertFalse(hasErrors(json, "extensions.warnings"));
+    }
+
+    @Test
+    public void testStopsAtFirstError() throws IOException {
+        // Everything after the first error is never read, even if it is malformed
+        assertTrue(hasErrors("{\"errors\":[{\"message\":\"error\"}, oops", "errors"));
+    }
+
+    @Test
+    public void testMalformedJsonFails() {
+        expectThrows(IOException.class, () -> hasErrors("{\"data\": <html>", "errors"));
+    }
+}
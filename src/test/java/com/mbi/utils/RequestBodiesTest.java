@@ -0,0 +1,72 @@
+package com.mbi.utils;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.http.Method;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class RequestBodiesTest {
+
+    @Test
+    public void testBinaryBodies() throws IOException {
+        var file = Files.createTempFile("body", ".bin");
+        try {
+            Files.write(file, new byte[10]);
+
+            assertTrue(RequestBodies.isBinary(new byte[1]));
+            assertTrue(RequestBodies.isBinary(ByteBuffer.allocate(1)));
+            assertTrue(RequestBodies.isBinary(file));
+            assertTrue(RequestBodies.isBinary(file.toFile()));
+            assertTrue(RequestBodies.isBinary(new ByteArrayInputStream(new byte[1])));
+            assertFalse(RequestBodies.isBinary("text"));
+            assertFalse(RequestBodies.isBinary(null));
+
+            assertEquals(RequestBodies.length(new byte[3]), 3);
+            assertEquals(RequestBodies.length(file), 10);
+            assertEquals(RequestBodies.length(file.toFile()), 10);
+            assertEquals(RequestBodies.length(new ByteArrayInputStream(new byte[1])), -1);
+            assertEquals(RequestBodies.length(Path.of("missing.bin")), -1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testByteBufferRemainingBytesAreSent() {
+        var buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+        buffer.position(1);
+
+        assertEquals(RequestBodies.length(buffer), 3);
+        assertEquals(RequestBodies.describe(buffer), "<binary body: 3 bytes>");
+        assertEquals(buffer.position(), 1);
+    }
+
+    @Test
+    public void testDescription() {
+        var file = Path.of("import.csv");
+
+        assertEquals(RequestBodies.describe(file), "@" + file.toAbsolutePath());
+        assertEquals(RequestBodies.describe(file.toFile()), "@" + file.toAbsolutePath());
+        assertEquals(RequestBodies.describe(new ByteArrayInputStream(new byte[1])), "<binary stream>");
+        assertEquals(RequestBodies.describe(new byte[2]), "<binary body: 2 bytes>");
+    }
+
+    @Test
+    public void testCurlAndJsonShowPlaceholder() {
+        var config = new RequestConfig();
+        config.setMethod(Method.PUT);
+        config.setUrl("http://localhost/upload");
+        config.setData(new byte[]{'{', '}'});
+
+        assertTrue(new CurlGenerator(config).getCurl().endsWith("--data-binary '<binary body: 2 bytes>'"),
+                new CurlGenerator(config).getCurl());
+        assertTrue(config.toString().contains("\"data\":\"<binary body: 2 bytes>\""), config.toString());
+    }
+}
@@ -0,0 +1,105 @@
+package com.mbi.utils;
+
+import com.mbi.config.RequestConfig;
+import io.restassured.http.Header;
+import io.restassured.http.Method;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class RequestConfigJsonWriterTest {
+
+    private static RequestConfig newConfig(final Object data) {
+        var config = new RequestConfig();
+        config.setMethod(Method.POST);
+        config.setUrl("http://localhost/users/{id}");
+        config.setData(data);
+        config.setHeaders(List.of(new Header("Accept", "application/json")));
+        config.setExpectedStatusCodes(List.of(200, 201));
+        config.setPathParams(new Object[]{"a<b", 5});
+        config.setCheckNoErrors(true);
+        return config;
+    }
+
+    @Test
+    public void testJsonBodyIsEmbeddedAsIs() {
+        var json = newConfig("{\"name\":\"<John>\",\"tags\":[1,2]}").toString();
+
+        assertEquals(json, "{\"method\":\"POST\",\"url\":\"http://localhost/users/{id}\","
+                + "\"data\":{\"name\":\"<John>\",\"tags\":[1,2]},"
+                + "\"headers\":[{\"name\":\"Accept\",\"value\":\"application/json\"}],"
+                + "\"expectedStatusCodes\":[200,201],\"pathParams\":[\"a<b\",5],"
+                + "\"maxResponseLength\":0,\"debug\":false,\"checkNoErrors\":true}");
+    }
+
+    @Test
+    public void testPrettyPrintedJsonBodyIsMinified() {
+        var body = """
+                {
+                  "name": "John Doe",
+                  "price": 1.50,
+                  "tags": [ "a b", null, true ],
+                  "address": {
+                    "line": "1\\n2"
+                  }
+                }
+                """;
+
+        var json = newConfig(body).toString();
+
+        assertFalse(json.contains("\n"), json);
+        assertTrue(json.contains("\"data\":{\"name\":\"John Doe\",\"price\":1.50,\"tags\":[\"a b\",null,true],"
+                + "\"address\":{\"line\":\"1\\n2\"}}"), json);
+    }
+
+    @Test
+    public void testInvalidJsonBodyIsWrittenAsString() {
+        var json = newConfig("{\"name\": broken").toString();
+
+        assertTrue(json.contains("\"data\":\"{\\\"name\\\": broken\""), json);
+    }
+
+    @Test
+    public void testJsonWithTrailingTextIsWrittenAsString() {
+        var json = newConfig("{\"a\":[1,2]} {\"b\":3}").toString();
+
+        assertTrue(json.contains("\"data\":\"{\\\"a\\\":[1,2]} {\\\"b\\\":3}\""), json);
+    }
+
+    @Test
+    public void testUnclosedJsonIsWrittenAsString() {
+        var json = newConfig("{\"a\":[1,2]").toString();
+
+        assertTrue(json.contains("\"data\":\"{\\\"a\\\":[1,2]\""), json);
+    }
+
+    @Test
+    public void testPlainTextBodyIsWrittenAsString() {
+        var json = newConfig("hello world").toString();
+
+        assertTrue(json.contains("\"data\":\"hello world\""), json);
+    }
+
+    @Test
+    public void testNullFieldsAreOmitted() {
+        assertEquals(new RequestConfig().toString(), "{\"pathParams\":[],\"maxResponseLength\":0,\"debug\":false}");
+    }
+
+    @Test
+    public void testWriterIsReusableAcrossRecords() throws IOException {
+        var writer = new RequestConfigJsonWriter();
+        var out = new StringBuilder();
+
+        writer.write(newConfig("[1]"), out);
+        out.append('\n');
+        writer.write(newConfig("2"), out);
+
+        var lines = out.toString().split("\n");
+        assertEquals(lines.length, 2);
+        assertTrue(lines[0].contains("\"data\":[1]"), lines[0]);
+        assertTrue(lines[1].contains("\"data\":2"), lines[1]);
+    }
+}
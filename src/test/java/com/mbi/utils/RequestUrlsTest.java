@@ -0,0 +1,30 @@
+package com.mbi.utils;
+
+import com.mbi.config.RequestConfig;
+import org.testng.annotations.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.testng.Assert.*;
+
+public class RequestUrlsTest {
+
+    @Test
+    public void testUrlIsResolvedAgainstSpecification() {
+        assertEquals(RequestUrls.resolve("/users", "http://host", "/api/", 8080), "http://host:8080/api/users");
+        assertEquals(RequestUrls.resolve("users", "http://host:1/", null, 8080), "http://host:1/users");
+        assertEquals(RequestUrls.resolve("", null, "/api", -1), "http://localhost/api");
+        assertEquals(RequestUrls.resolve("x", "https://a:b@[::1]", "/api", 8443), "https://a:b@[::1]:8443/api/x");
+        assertEquals(RequestUrls.resolve("x", "https://host", null, 8080), "https://host/x");
+        assertEquals(RequestUrls.resolve("https://other/x?y=1", "http://host", "/api", 8443),
+                "https://other/x?y=1");
+    }
+
+    @Test
+    public void testRequestUrlIsResolvedAgainstItsSpecification() {
+        var config = new RequestConfig();
+        config.setUrl("/users/{id}");
+        config.setRequestSpecification(given().baseUri("https://api.example.com").basePath("/v1"));
+
+        assertEquals(RequestUrls.resolve(config), "https://api.example.com/v1/users/{id}");
+    }
+}
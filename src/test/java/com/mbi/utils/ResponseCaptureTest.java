@@ -0,0 +1,96 @@
+package com.mbi.utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class ResponseCaptureTest {
+
+    private static Response newResponse(final String body, final String contentType) {
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(contentType)
+                .setBody(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Test
+    public void testLimitBodyKeepsOnlyPrefix() {
+        var response = ResponseCapture.limitBody(newResponse("0123456789", "text/plain"), 4);
+
+        assertEquals(response.asString(), "0123");
+        assertEquals(response.statusCode(), 200);
+    }
+
+    @Test
+    public void testLimitBodyWithoutLimitReturnsSameResponse() {
+        var response = newResponse("0123456789", "text/plain");
+
+        assertSame(ResponseCapture.limitBody(response, 0), response);
+    }
+
+    @Test
+    public void testLimitBodyLargerThanBody() {
+        var response = ResponseCapture.limitBody(newResponse("0123", "text/plain"), 100);
+
+        assertEquals(response.asString(), "0123");
+    }
+
+    @Test
+    public void testLimitBodyScansWholeBodyForErrors() throws IOException {
+        var json = "{\"data\":\"0123456789\",\"errors\":[{\"message\":\"late\"}]}";
+        var head = newResponse("", "application/json");
+
+        var limited = ResponseCapture.limitBody(head, stream(json), 8, "errors");
+
+        assertEquals(limited.response().asString(), "{\"data\":");
+        assertTrue(limited.truncated());
+        assertTrue(limited.errors().hasErrors());
+    }
+
+    @Test
+    public void testLimitBodyRecordsInvalidJson() throws IOException {
+        var limited = ResponseCapture.limitBody(newResponse("", "application/json"), stream("{\"a\":"), 100,
+                "errors");
+
+        assertFalse(limited.truncated());
+        assertEquals(limited.response().asString(), "{\"a\":");
+        assertThrows(IOException.class, () -> limited.errors().hasErrors());
+    }
+
+    @Test
+    public void testLimitBodyWithoutErrorsPath() throws IOException {
+        var limited = ResponseCapture.limitBody(newResponse("", "text/plain"), stream("0123456789"), 10, null);
+
+        assertFalse(limited.truncated());
+        assertNull(limited.errors());
+        assertEquals(limited.response().asString(), "0123456789");
+    }
+
+    private static InputStream stream(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCaptureReturnsPrefix() {
+        var response = newResponse("0123456789", "text/plain");
+
+        assertEquals(ResponseCapture.capture(response, 3), "012".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ResponseCapture.capture(response, 0), response.asByteArray());
+    }
+
+    @Test
+    public void testTextDecodesOnlyPrefix() {
+        var response = newResponse("{\"name\":\"Ünïcode\"}", "application/json; charset=UTF-8");
+
+        assertEquals(ResponseCapture.text(response, 9), "{\"name\":\"");
+        assertEquals(ResponseCapture.text(response, 0), "{\"name\":\"Ünïcode\"}");
+    }
+}